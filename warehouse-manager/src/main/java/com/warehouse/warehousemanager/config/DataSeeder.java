@@ -33,7 +33,8 @@ public class DataSeeder {
             adminUser.setPassword(passwordEncoder.encode(defaultAdminPassword));
             adminUser.setRole(User.Role.ADMIN);
             
-            userService.save(adminUser);
+            // Startup has nothing else to do meanwhile
+            userService.save(adminUser).join();
         }
     }
 }
\ No newline at end of file
@@ -1,10 +1,26 @@
 package com.warehouse.warehousemanager.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
 
 @Configuration
 @EnableJpaRepositories(basePackages = "com.warehouse.warehousemanager.repository")
 public class DatabaseConfig {
     // Configuration for database and JPA
+
+    /**
+     * Replaces Boot's JpaTransactionManager; only read-write transactions take the SQLite write lock
+     */
+    @Bean
+    public PlatformTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        WriteLockingTransactionManager transactionManager = new WriteLockingTransactionManager();
+        // The TransactionManager overload; the PlatformTransactionManager one is deprecated for removal
+        customizers.ifAvailable(c -> c.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
 }
\ No newline at end of file
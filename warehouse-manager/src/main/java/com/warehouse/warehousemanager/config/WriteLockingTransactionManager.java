@@ -0,0 +1,27 @@
+package com.warehouse.warehousemanager.config;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * JPA transaction manager that takes SQLite's write lock at the start of every read-write transaction.
+ * Transactions begin DEFERRED, so read-only ones never touch the write lock and run alongside the writer
+ * on their WAL snapshot. A read-write transaction first runs a no-op UPDATE: it waits up to busy_timeout
+ * for the write lock before it has read anything, instead of reading first and failing with SQLITE_BUSY
+ * when another writer committed in between.
+ */
+public class WriteLockingTransactionManager extends JpaTransactionManager {
+
+    // Matches no rows, but SQLite still begins a write transaction for it
+    static final String ACQUIRE_WRITE_LOCK = "UPDATE products SET id = id WHERE 0";
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        if (!definition.isReadOnly() && getDataSource() != null) {
+            // Runs on the connection super.doBegin bound to the transaction
+            new JdbcTemplate(getDataSource()).execute(ACQUIRE_WRITE_LOCK);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.warehouse.warehousemanager.controller;
+
+import com.warehouse.warehousemanager.dto.AnalyticsRunDto;
+import com.warehouse.warehousemanager.dto.ApiResponse;
+import com.warehouse.warehousemanager.dto.ProductAnalyticsDto;
+import com.warehouse.warehousemanager.entity.AnalyticsRun;
+import com.warehouse.warehousemanager.entity.ProductAnalytics;
+import com.warehouse.warehousemanager.mapper.AnalyticsMapper;
+import com.warehouse.warehousemanager.security.policy.PolicyEnforcementPoint;
+import com.warehouse.warehousemanager.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Results of the latest analytics runs: demand forecast, reorder suggestion and ABC class per product
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private static final Set<String> ABC_CLASSES = Set.of("A", "B", "C");
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private PolicyEnforcementPoint policyEnforcementPoint;
+
+    /**
+     * Products by units exported in the analysis window, highest first
+     */
+    @GetMapping("/products")
+    public ResponseEntity<ApiResponse<List<ProductAnalyticsDto>>> getProducts(
+            @RequestParam(required = false) String abcClass,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("products", "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        String normalizedClass = abcClass != null ? abcClass.toUpperCase() : null;
+        if (normalizedClass != null && !ABC_CLASSES.contains(normalizedClass)) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("abcClass must be A, B or C"));
+        }
+        List<ProductAnalyticsDto> products = analyticsService.findProducts(normalizedClass, pageSize).stream()
+            .map(AnalyticsMapper::toDto)
+            .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success("Product analytics retrieved successfully", products));
+    }
+
+    @GetMapping("/products/{productId}")
+    public ResponseEntity<ApiResponse<ProductAnalyticsDto>> getProduct(@PathVariable Long productId, HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("products", "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        Optional<ProductAnalytics> analytics = analyticsService.findByProductId(productId);
+        if (analytics.isEmpty()) {
+            return ResponseEntity.status(404).body(ApiResponse.error("No analytics for product " + productId));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Product analytics retrieved successfully", AnalyticsMapper.toDto(analytics.get())));
+    }
+
+    /**
+     * Products whose available stock is below the suggested target, largest order first
+     */
+    @GetMapping("/reorder")
+    public ResponseEntity<ApiResponse<List<ProductAnalyticsDto>>> getReorderSuggestions(
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("products", "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        List<ProductAnalyticsDto> suggestions = analyticsService.findReorderSuggestions(pageSize).stream()
+            .map(AnalyticsMapper::toDto)
+            .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success("Reorder suggestions retrieved successfully", suggestions));
+    }
+
+    /**
+     * Start a run in the background; answers 503 while another run is in progress
+     */
+    @PostMapping("/runs")
+    public ResponseEntity<ApiResponse<AnalyticsRunDto>> startRun(@RequestParam(defaultValue = "false") boolean full, HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("products", "update", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        AnalyticsRunDto run = AnalyticsMapper.toDto(analyticsService.start(full));
+        return ResponseEntity.accepted().body(ApiResponse.success("Analytics run started", run));
+    }
+
+    @GetMapping("/runs/latest")
+    public ResponseEntity<ApiResponse<AnalyticsRunDto>> getLatestRun(HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("products", "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        Optional<AnalyticsRun> run = analyticsService.latestRun();
+        if (run.isEmpty()) {
+            return ResponseEntity.status(404).body(ApiResponse.error("No analytics run yet"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Latest analytics run retrieved successfully", AnalyticsMapper.toDto(run.get())));
+    }
+}
@@ -3,22 +3,29 @@ package com.warehouse.warehousemanager.controller;
 import com.warehouse.warehousemanager.dto.LoginResponse;
 import com.warehouse.warehousemanager.dto.UserResponse;
 import com.warehouse.warehousemanager.dto.auth.LoginRequest;
-import com.warehouse.warehousemanager.entity.RefreshToken;
 import com.warehouse.warehousemanager.entity.User;
+import com.warehouse.warehousemanager.exception.ServiceBusyException;
+import com.warehouse.warehousemanager.security.LoginThrottle;
+import com.warehouse.warehousemanager.security.PasswordHashingService;
+import com.warehouse.warehousemanager.security.TokenRevocationRegistry;
+import com.warehouse.warehousemanager.security.VerifiedToken;
+import com.warehouse.warehousemanager.security.VerifiedTokenCache;
 import com.warehouse.warehousemanager.service.RefreshTokenService;
 import com.warehouse.warehousemanager.service.UserService;
 import com.warehouse.warehousemanager.util.JwtUtil;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @RestController
@@ -26,9 +33,6 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class AuthController {
 
-    @Autowired
-    private AuthenticationManager authenticationManager;
-
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -38,66 +42,133 @@ public class AuthController {
     @Autowired
     private RefreshTokenService refreshTokenService;
 
-    @PostMapping("/login")
-    public ResponseEntity<LoginResponse> authenticateUser(@RequestBody LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getUsername(),
-                        loginRequest.getPassword()
-                )
-        );
+    @Autowired
+    private PasswordHashingService passwordHashingService;
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
 
-        String accessToken = jwtUtil.generateToken(loginRequest.getUsername());
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor applicationTaskExecutor;
+
+    /**
+     * Only the BCrypt check runs on the password hashing pool, and the request thread is released meanwhile.
+     * The user is looked up before it on the request thread; tokens are issued after it on the application
+     * task executor, which never holds a SecurityContext.
+     * Locked-out usernames and IPs are turned away with 429 before any user lookup or BCrypt work.
+     */
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<LoginResponse>> authenticateUser(@RequestBody LoginRequest loginRequest,
+                                                                             HttpServletRequest request) {
+        String username = loginRequest.getUsername();
+        String ipAddress = request.getRemoteAddr();
+        loginThrottle.check(username, ipAddress);
+
+        User user = userService.findByUsername(username).orElse(null);
+        String storedHash = user != null ? user.getPassword() : null;
+
+        return passwordHashingService.matches(loginRequest.getPassword(), storedHash)
+                .thenApplyAsync(matched -> {
+                    if (!matched) {
+                        loginThrottle.recordFailure(username, ipAddress);
+                        throw new BadCredentialsException("Bad credentials");
+                    }
+                    loginThrottle.recordSuccess(username);
+                    if (passwordHashingService.needsRehash(storedHash)) {
+                        rehash(user, loginRequest.getPassword());
+                    }
+                    return buildLoginResponse(user);
+                }, applicationTaskExecutor);
+    }
+
+    /**
+     * Rewrite a hash made with an outdated BCrypt cost. Not waited for; if it fails, the next login retries.
+     */
+    private void rehash(User user, String rawPassword) {
+        try {
+            passwordHashingService.encode(rawPassword)
+                    .thenAcceptAsync(hash -> userService.updatePasswordHash(user.getUsername(), hash), applicationTaskExecutor);
+        } catch (ServiceBusyException e) {
+            // The pool is saturated with logins; the rehash can wait
+        }
+    }
 
-        User user = userService.findByUsername(loginRequest.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found after authentication"));
+    private ResponseEntity<LoginResponse> buildLoginResponse(User user) {
+        String accessToken = jwtUtil.generateToken(user);
 
-        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user);
+        String refreshToken = refreshTokenService.createRefreshToken(user);
 
         UserResponse userResponse = new UserResponse(user);
 
-        LoginResponse loginResponse = new LoginResponse(accessToken, refreshToken.getToken(), userResponse);
+        LoginResponse loginResponse = new LoginResponse(accessToken, refreshToken, userResponse);
 
         return ResponseEntity.ok(loginResponse);
     }
 
     @PostMapping("/register")
-    public ResponseEntity<Map<String, Object>> registerUser(@RequestBody User user) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> registerUser(@RequestBody User user) {
         Map<String, Object> response = new HashMap<>();
 
         if (userService.findByUsername(user.getUsername()).isPresent()) {
             response.put("error", "Username already exists");
-            return ResponseEntity.badRequest().body(response);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(response));
         }
 
-        User savedUser = userService.save(user);
-
-        response.put("message", "User registered successfully");
-        response.put("user", savedUser);
+        return userService.save(user).thenApply(savedUser -> {
+            response.put("message", "User registered successfully");
+            response.put("user", savedUser);
 
-        return ResponseEntity.ok(response);
+            return ResponseEntity.ok(response);
+        });
     }
 
     @PostMapping("/refresh")
     public ResponseEntity<LoginResponse> refreshToken(@RequestBody RefreshTokenRequest refreshTokenRequest) {
         String requestRefreshToken = refreshTokenRequest.getRefreshToken();
 
-        return refreshTokenService.findByToken(requestRefreshToken)
-                .map(refreshTokenService::verifyExpiration)
-                .map(refreshToken -> {
-                    User user = refreshToken.getUser();
+        User user = refreshTokenService.verifyRefreshToken(requestRefreshToken);
 
-                    String accessToken = jwtUtil.generateToken(user.getUsername());
+        String accessToken = jwtUtil.generateToken(user);
+
+        UserResponse userResponse = new UserResponse(user);
 
-                    UserResponse userResponse = new UserResponse(user);
+        LoginResponse loginResponse = new LoginResponse(accessToken, requestRefreshToken, userResponse);
 
-                    LoginResponse loginResponse = new LoginResponse(accessToken, refreshToken.getToken(), userResponse);
+        return ResponseEntity.ok(loginResponse);
+    }
+
+    /**
+     * Revoke the presented access token and drop the user's refresh token
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, Object>> logout(HttpServletRequest request) {
+        Map<String, Object> response = new HashMap<>();
 
-                    return ResponseEntity.ok(loginResponse);
-                })
-                .orElseThrow(() -> new com.warehouse.warehousemanager.exception.TokenRefreshException(requestRefreshToken, "Refresh token is not in database!"));
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            response.put("error", "No access token provided");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        String token = authHeader.substring(7);
+        VerifiedToken verifiedToken = verifiedTokenCache.verify(token);
+        if (verifiedToken == null) {
+            response.put("error", "Invalid or expired access token");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        tokenRevocationRegistry.revoke(verifiedToken, token);
+        userService.findByUsername(verifiedToken.getUsername()).ifPresent(refreshTokenService::deleteByUser);
+
+        response.put("message", "Logged out successfully");
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/teleport")
@@ -165,6 +236,7 @@ public class AuthController {
         Map<String, String> endpoints = new HashMap<>();
         endpoints.put("login", "/api/auth/login");
         endpoints.put("refresh", "/api/auth/refresh");
+        endpoints.put("logout", "/api/auth/logout");
         endpoints.put("teleport", "/api/auth/teleport");
         endpoints.put("register", "/api/auth/register");
 
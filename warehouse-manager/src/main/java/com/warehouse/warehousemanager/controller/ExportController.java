@@ -2,15 +2,23 @@ package com.warehouse.warehousemanager.controller;
 
 import com.warehouse.warehousemanager.dto.ApiResponse;
 import com.warehouse.warehousemanager.dto.ExportDto;
+import com.warehouse.warehousemanager.dto.MovementLineResult;
 import com.warehouse.warehousemanager.entity.Export;
 import com.warehouse.warehousemanager.security.policy.PolicyEnforcementPoint;
 import com.warehouse.warehousemanager.service.ExportService;
+import com.warehouse.warehousemanager.service.IdempotencyStore;
+import com.warehouse.warehousemanager.service.MovementBatchService;
+import com.warehouse.warehousemanager.service.MovementHistoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -18,18 +26,53 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class ExportController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private ExportService exportService;
 
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private MovementHistoryService movementHistoryService;
+
+    @Autowired
+    private MovementBatchService movementBatchService;
+
     @Autowired
     private PolicyEnforcementPoint policyEnforcementPoint;
 
+    /**
+     * Without parameters returns every record. With any of productId, from, to (createdAt in [from, to)),
+     * cursor or limit it returns one page, newest first; the cursor for the next page is in metadata.nextCursor.
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ExportDto>>> getAllExports(HttpServletRequest request) {
+    public ResponseEntity<ApiResponse<List<ExportDto>>> getAllExports(
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest request) {
         if (!policyEnforcementPoint.checkAccess("exports", "read", request)) {
             return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
         }
 
+        if (productId != null || from != null || to != null || cursor != null || limit != null) {
+            int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+            if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+                return ResponseEntity.badRequest().body(ApiResponse.error("limit must be between 1 and " + MAX_PAGE_SIZE));
+            }
+            MovementHistoryService.Page<ExportDto> page = movementHistoryService.exports(productId, from, to, cursor, pageSize);
+            Map<String, Object> metadata = new LinkedHashMap<>();
+            metadata.put("nextCursor", page.getNextCursor());
+            metadata.put("limit", pageSize);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Export records retrieved successfully", page.getItems(), metadata));
+        }
+
         List<Export> exports = exportService.findAll();
         List<ExportDto> exportDtos = exports.stream()
             .map(exportRecord -> new ExportDto(exportRecord.getId(), exportRecord.getProductId(), exportRecord.getQuantity(), exportRecord.getCreatedAt()))
@@ -51,17 +94,49 @@ public class ExportController {
         return ResponseEntity.ok(ApiResponse.success("Export record retrieved successfully", exportDto));
     }
 
+    /**
+     * With an Idempotency-Key header, retries of the same request return the export created by the first one
+     */
     @PostMapping
-    public ResponseEntity<ApiResponse<ExportDto>> createExport(@RequestBody Export exportRecord, HttpServletRequest request) {
+    public ResponseEntity<ApiResponse<ExportDto>> createExport(
+            @RequestBody Export exportRecord,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest request) {
         if (!policyEnforcementPoint.checkAccess("exports", "create", request)) {
             return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
         }
 
-        Export savedExport = exportService.save(exportRecord);
+        Export savedExport = idempotencyKey == null
+            ? exportService.save(exportRecord)
+            : idempotencyStore.execute("exports", idempotencyKey, exportRecord.getProductId() + ":" + exportRecord.getQuantity(), Export.class,
+                onSaved -> exportService.save(exportRecord, onSaved));
         ExportDto exportDto = new ExportDto(savedExport.getId(), savedExport.getProductId(), savedExport.getQuantity(), savedExport.getCreatedAt());
         return ResponseEntity.ok(ApiResponse.success("Export record created successfully", exportDto));
     }
 
+    /**
+     * Records many exports in one transaction; each line is accepted or rejected on its own
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<MovementLineResult>>> createExportBatch(@RequestBody List<ExportDto> lines, HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("exports", "create", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+        if (lines == null || lines.isEmpty()) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Batch must contain at least one line"));
+        }
+        if (lines.size() > movementBatchService.getMaxLines()) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Batch exceeds the limit of " + movementBatchService.getMaxLines() + " lines"));
+        }
+
+        List<MovementLineResult> results = movementBatchService.exportBatch(lines.stream()
+            .map(line -> line == null ? null : new MovementBatchService.Line(line.getProductId(), line.getQuantity()))
+            .collect(Collectors.toList()));
+        long accepted = results.stream().filter(MovementLineResult::isSuccess).count();
+        Map<String, Object> metadata = Map.of("accepted", accepted, "rejected", results.size() - accepted);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Export batch processed", results, metadata));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<ExportDto>> updateExport(@PathVariable Long id, @RequestBody Export exportDetails, HttpServletRequest request) {
         if (!policyEnforcementPoint.checkAccess("exports", "update", request)) {
@@ -2,15 +2,23 @@ package com.warehouse.warehousemanager.controller;
 
 import com.warehouse.warehousemanager.dto.ApiResponse;
 import com.warehouse.warehousemanager.dto.ImportDto;
+import com.warehouse.warehousemanager.dto.MovementLineResult;
 import com.warehouse.warehousemanager.entity.Import;
 import com.warehouse.warehousemanager.security.policy.PolicyEnforcementPoint;
+import com.warehouse.warehousemanager.service.IdempotencyStore;
 import com.warehouse.warehousemanager.service.ImportService;
+import com.warehouse.warehousemanager.service.MovementBatchService;
+import com.warehouse.warehousemanager.service.MovementHistoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -18,18 +26,53 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class ImportController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private ImportService importService;
 
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private MovementHistoryService movementHistoryService;
+
+    @Autowired
+    private MovementBatchService movementBatchService;
+
     @Autowired
     private PolicyEnforcementPoint policyEnforcementPoint;
 
+    /**
+     * Without parameters returns every record. With any of productId, from, to (createdAt in [from, to)),
+     * cursor or limit it returns one page, newest first; the cursor for the next page is in metadata.nextCursor.
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ImportDto>>> getAllImports(HttpServletRequest request) {
+    public ResponseEntity<ApiResponse<List<ImportDto>>> getAllImports(
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest request) {
         if (!policyEnforcementPoint.checkAccess("imports", "read", request)) {
             return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
         }
 
+        if (productId != null || from != null || to != null || cursor != null || limit != null) {
+            int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+            if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+                return ResponseEntity.badRequest().body(ApiResponse.error("limit must be between 1 and " + MAX_PAGE_SIZE));
+            }
+            MovementHistoryService.Page<ImportDto> page = movementHistoryService.imports(productId, from, to, cursor, pageSize);
+            Map<String, Object> metadata = new LinkedHashMap<>();
+            metadata.put("nextCursor", page.getNextCursor());
+            metadata.put("limit", pageSize);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Import records retrieved successfully", page.getItems(), metadata));
+        }
+
         List<Import> imports = importService.findAll();
         List<ImportDto> importDtos = imports.stream()
             .map(importRecord -> new ImportDto(importRecord.getId(), importRecord.getProductId(), importRecord.getQuantity(), importRecord.getCreatedAt()))
@@ -51,17 +94,49 @@ public class ImportController {
         return ResponseEntity.ok(ApiResponse.success("Import record retrieved successfully", importDto));
     }
 
+    /**
+     * With an Idempotency-Key header, retries of the same request return the import created by the first one
+     */
     @PostMapping
-    public ResponseEntity<ApiResponse<ImportDto>> createImport(@RequestBody Import importRecord, HttpServletRequest request) {
+    public ResponseEntity<ApiResponse<ImportDto>> createImport(
+            @RequestBody Import importRecord,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest request) {
         if (!policyEnforcementPoint.checkAccess("imports", "create", request)) {
             return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
         }
 
-        Import savedImport = importService.save(importRecord);
+        Import savedImport = idempotencyKey == null
+            ? importService.save(importRecord)
+            : idempotencyStore.execute("imports", idempotencyKey, importRecord.getProductId() + ":" + importRecord.getQuantity(), Import.class,
+                onSaved -> importService.save(importRecord, onSaved));
         ImportDto importDto = new ImportDto(savedImport.getId(), savedImport.getProductId(), savedImport.getQuantity(), savedImport.getCreatedAt());
         return ResponseEntity.ok(ApiResponse.success("Import record created successfully", importDto));
     }
 
+    /**
+     * Records many imports in one transaction; each line is accepted or rejected on its own
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<MovementLineResult>>> createImportBatch(@RequestBody List<ImportDto> lines, HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("imports", "create", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+        if (lines == null || lines.isEmpty()) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Batch must contain at least one line"));
+        }
+        if (lines.size() > movementBatchService.getMaxLines()) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Batch exceeds the limit of " + movementBatchService.getMaxLines() + " lines"));
+        }
+
+        List<MovementLineResult> results = movementBatchService.importBatch(lines.stream()
+            .map(line -> line == null ? null : new MovementBatchService.Line(line.getProductId(), line.getQuantity()))
+            .collect(Collectors.toList()));
+        long accepted = results.stream().filter(MovementLineResult::isSuccess).count();
+        Map<String, Object> metadata = Map.of("accepted", accepted, "rejected", results.size() - accepted);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Import batch processed", results, metadata));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<ImportDto>> updateImport(@PathVariable Long id, @RequestBody Import importDetails, HttpServletRequest request) {
         if (!policyEnforcementPoint.checkAccess("imports", "update", request)) {
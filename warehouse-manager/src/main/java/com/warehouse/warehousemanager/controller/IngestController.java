@@ -0,0 +1,84 @@
+package com.warehouse.warehousemanager.controller;
+
+import com.warehouse.warehousemanager.dto.ApiResponse;
+import com.warehouse.warehousemanager.dto.IngestJobDto;
+import com.warehouse.warehousemanager.entity.IngestJob;
+import com.warehouse.warehousemanager.mapper.IngestJobMapper;
+import com.warehouse.warehousemanager.security.policy.PolicyEnforcementPoint;
+import com.warehouse.warehousemanager.service.IngestService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/ingest")
+@CrossOrigin(origins = "*")
+public class IngestController {
+
+    @Autowired
+    private IngestService ingestService;
+
+    @Autowired
+    private PolicyEnforcementPoint policyEnforcementPoint;
+
+    /**
+     * Upload a CSV file as the raw request body (Content-Type: text/csv).
+     * kind is products, imports or exports; the file is loaded in the background.
+     */
+    @PostMapping(value = "/{kind}", consumes = {"text/csv", "text/plain", "application/octet-stream"})
+    public ResponseEntity<ApiResponse<IngestJobDto>> upload(@PathVariable String kind, HttpServletRequest request) throws IOException {
+        IngestJob.Kind jobKind = parseKind(kind);
+        if (jobKind == null) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Unknown ingest kind: " + kind));
+        }
+        if (!policyEnforcementPoint.checkAccess(resourceOf(jobKind), "create", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        IngestJob job = ingestService.start(jobKind, request.getInputStream(), username);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Ingest job accepted", IngestJobMapper.toDto(job)));
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ApiResponse<IngestJobDto>> getJob(@PathVariable Long id, HttpServletRequest request) {
+        IngestJob job = ingestService.findById(id)
+                .orElseThrow(() -> new RuntimeException("Ingest job not found with id: " + id));
+        if (!policyEnforcementPoint.checkAccess(resourceOf(job.getKind()), "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        return ResponseEntity.ok(ApiResponse.success("Ingest job retrieved successfully", IngestJobMapper.toDto(job)));
+    }
+
+    @PostMapping("/jobs/{id}/resume")
+    public ResponseEntity<ApiResponse<IngestJobDto>> resumeJob(@PathVariable Long id, HttpServletRequest request) {
+        IngestJob job = ingestService.findById(id)
+                .orElseThrow(() -> new RuntimeException("Ingest job not found with id: " + id));
+        if (!policyEnforcementPoint.checkAccess(resourceOf(job.getKind()), "create", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        IngestJob resumed = ingestService.resume(id);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Ingest job resumed", IngestJobMapper.toDto(resumed)));
+    }
+
+    private static IngestJob.Kind parseKind(String kind) {
+        try {
+            return IngestJob.Kind.valueOf(kind.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String resourceOf(IngestJob.Kind kind) {
+        return kind.name().toLowerCase();
+    }
+}
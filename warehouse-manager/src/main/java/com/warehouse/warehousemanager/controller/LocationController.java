@@ -0,0 +1,90 @@
+package com.warehouse.warehousemanager.controller;
+
+import com.warehouse.warehousemanager.dto.ApiResponse;
+import com.warehouse.warehousemanager.dto.LocationStockDto;
+import com.warehouse.warehousemanager.dto.ProductView;
+import com.warehouse.warehousemanager.security.policy.PolicyEnforcementPoint;
+import com.warehouse.warehousemanager.service.LocationStockIndex;
+import com.warehouse.warehousemanager.service.ProductCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/locations")
+@CrossOrigin(origins = "*")
+public class LocationController {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    @Autowired
+    private LocationStockIndex locationStockIndex;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private PolicyEnforcementPoint policyEnforcementPoint;
+
+    /**
+     * Totals for every location; lowStock=true keeps only locations with low-stock products
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<LocationStockDto>>> getAllLocations(
+            @RequestParam(defaultValue = "false") boolean lowStock,
+            HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("products", "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        List<LocationStockDto> locations = locationStockIndex.findAll(lowStock);
+        return ResponseEntity.ok(ApiResponse.success("Locations retrieved successfully", locations));
+    }
+
+    @GetMapping("/{location}")
+    public ResponseEntity<ApiResponse<LocationStockDto>> getLocation(@PathVariable String location, HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("products", "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        LocationStockDto totals = locationStockIndex.find(location);
+        if (totals == null) {
+            return ResponseEntity.status(404).body(ApiResponse.error("No products at location: " + location));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Location retrieved successfully", totals));
+    }
+
+    /**
+     * Products at the location, one page at a time; lowStock=true keeps only low-stock products
+     */
+    @GetMapping("/{location}/products")
+    public ResponseEntity<ApiResponse<List<ProductView>>> getProductsAtLocation(
+            @PathVariable String location,
+            @RequestParam(defaultValue = "false") boolean lowStock,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("products", "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+
+        Integer maxQty = lowStock ? locationStockIndex.getLowStockThreshold() : null;
+        ProductCache.SearchResult page = productCache.productsAt(location, maxQty, cursor, pageSize);
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("nextCursor", page.getNextCursor());
+        metadata.put("limit", pageSize);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Products retrieved successfully", page.getItems(), metadata));
+    }
+}
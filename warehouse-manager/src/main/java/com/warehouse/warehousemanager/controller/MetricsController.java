@@ -0,0 +1,141 @@
+package com.warehouse.warehousemanager.controller;
+
+import com.warehouse.warehousemanager.dto.ApiResponse;
+import com.warehouse.warehousemanager.security.CachedUserDetailsService;
+import com.warehouse.warehousemanager.security.LoginThrottle;
+import com.warehouse.warehousemanager.security.PasswordHashingService;
+import com.warehouse.warehousemanager.security.TeleportAssertionVerifier;
+import com.warehouse.warehousemanager.security.TeleportUserProvisioner;
+import com.warehouse.warehousemanager.security.TokenRevocationRegistry;
+import com.warehouse.warehousemanager.security.VerifiedTokenCache;
+import com.warehouse.warehousemanager.security.pipeline.AuthenticationPipeline;
+import com.warehouse.warehousemanager.service.AnalyticsService;
+import com.warehouse.warehousemanager.service.IdempotencyStore;
+import com.warehouse.warehousemanager.service.IngestService;
+import com.warehouse.warehousemanager.service.LocationStockIndex;
+import com.warehouse.warehousemanager.service.MovementRollup;
+import com.warehouse.warehousemanager.service.ProductCache;
+import com.warehouse.warehousemanager.service.RefreshTokenStore;
+import com.warehouse.warehousemanager.service.ReservationService;
+import com.warehouse.warehousemanager.service.StockAlertService;
+import com.warehouse.warehousemanager.service.StockHistoryService;
+import com.warehouse.warehousemanager.service.StockLedger;
+import com.warehouse.warehousemanager.service.StockMovementCombiner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes in-process cache and performance counters for administrators
+ */
+@RestController
+@RequestMapping("/api/metrics")
+@CrossOrigin(origins = "*")
+public class MetricsController {
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private CachedUserDetailsService cachedUserDetailsService;
+
+    @Autowired
+    private TeleportAssertionVerifier teleportAssertionVerifier;
+
+    @Autowired
+    private TeleportUserProvisioner teleportUserProvisioner;
+
+    @Autowired
+    private AuthenticationPipeline authenticationPipeline;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private StockMovementCombiner stockMovementCombiner;
+
+    @Autowired
+    private IngestService ingestService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private StockHistoryService stockHistoryService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private LocationStockIndex locationStockIndex;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private MovementRollup movementRollup;
+
+    @Autowired
+    private StockAlertService stockAlertService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getMetrics() {
+        // Checked without policy enforcement so that reading metrics does not write trust logs
+        if (!isUserAdmin()) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("tokenCache", verifiedTokenCache.stats());
+        metrics.put("userDetailsCache", cachedUserDetailsService.stats());
+        metrics.put("teleportIdentityCache", teleportAssertionVerifier.stats());
+        metrics.put("teleportProvisioning", teleportUserProvisioner.stats());
+        metrics.put("authResolvers", authenticationPipeline.stats());
+        metrics.put("passwordHashing", passwordHashingService.stats());
+        metrics.put("refreshTokens", refreshTokenStore.stats());
+        metrics.put("tokenRevocation", tokenRevocationRegistry.stats());
+        metrics.put("loginThrottle", loginThrottle.stats());
+        metrics.put("stockCombiner", stockMovementCombiner.stats());
+        metrics.put("ingest", ingestService.stats());
+        metrics.put("stockLedger", stockLedger.stats());
+        metrics.put("stockHistory", stockHistoryService.stats());
+        metrics.put("productCache", productCache.stats());
+        metrics.put("locationStock", locationStockIndex.stats());
+        metrics.put("reservations", reservationService.stats());
+        metrics.put("movementRollup", movementRollup.stats());
+        metrics.put("stockAlerts", stockAlertService.stats());
+        metrics.put("analytics", analyticsService.stats());
+        metrics.put("idempotency", idempotencyStore.stats());
+
+        return ResponseEntity.ok(ApiResponse.success("Metrics retrieved successfully", metrics));
+    }
+
+    private boolean isUserAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        return authentication.getAuthorities().stream()
+            .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals("ROLE_ADMIN"));
+    }
+}
@@ -1,24 +1,39 @@
 package com.warehouse.warehousemanager.controller;
 
 import com.warehouse.warehousemanager.dto.ApiResponse;
+import com.warehouse.warehousemanager.dto.AvailabilityDto;
+import com.warehouse.warehousemanager.dto.MovementDto;
 import com.warehouse.warehousemanager.dto.ProductDto;
+import com.warehouse.warehousemanager.dto.ProductView;
+import com.warehouse.warehousemanager.dto.StockLevelDto;
 import com.warehouse.warehousemanager.entity.Product;
 import com.warehouse.warehousemanager.security.policy.PolicyEnforcementPoint;
+import com.warehouse.warehousemanager.service.MovementHistoryService;
+import com.warehouse.warehousemanager.service.ProductCache;
 import com.warehouse.warehousemanager.service.ProductService;
+import com.warehouse.warehousemanager.service.ReservationService;
+import com.warehouse.warehousemanager.service.StockHistoryService;
 import com.warehouse.warehousemanager.service.TrustLogService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/products")
 @CrossOrigin(origins = "*")
 public class ProductController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private ProductService productService;
 
@@ -28,31 +43,140 @@ public class ProductController {
     @Autowired
     private TrustLogService trustLogService;
 
+    @Autowired
+    private StockHistoryService stockHistoryService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private MovementHistoryService movementHistoryService;
+
+    /**
+     * Without parameters returns the whole catalog. With any of q (name prefix), location
+     * (location prefix), minQty, maxQty, sort, cursor or limit it returns one page; the
+     * cursor for the next page is in metadata.nextCursor.
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ProductDto>>> getAllProducts(HttpServletRequest request) {
+    public ResponseEntity<ApiResponse<List<ProductView>>> getAllProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Integer minQty,
+            @RequestParam(required = false) Integer maxQty,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("products", "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        if (q != null || location != null || minQty != null || maxQty != null || sort != null || cursor != null || limit != null) {
+            int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+            if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+                return ResponseEntity.badRequest().body(ApiResponse.error("limit must be between 1 and " + MAX_PAGE_SIZE));
+            }
+            ProductCache.SearchResult page = productService.search(q, location, minQty, maxQty, sort, cursor, pageSize);
+            Map<String, Object> metadata = new LinkedHashMap<>();
+            metadata.put("nextCursor", page.getNextCursor());
+            metadata.put("limit", pageSize);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Products retrieved successfully", page.getItems(), metadata));
+        }
+
+        List<ProductView> products = productService.findAllCached();
+
+        return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", products));
+    }
+
+    /**
+     * Quantity of every product at a point in time (now if at is omitted), rebuilt from the stock ledger
+     */
+    @GetMapping("/stock")
+    public ResponseEntity<ApiResponse<List<StockLevelDto>>> getAllStockAt(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("products", "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        LocalDateTime pointInTime = at != null ? at : LocalDateTime.now();
+        List<StockLevelDto> levels = stockHistoryService.allQuantitiesAt(pointInTime);
+        return ResponseEntity.ok(ApiResponse.success("Stock levels retrieved successfully", levels));
+    }
+
+    /**
+     * Quantity of one product at a point in time (now if at is omitted), rebuilt from the stock ledger
+     */
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<ApiResponse<StockLevelDto>> getStockAt(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            HttpServletRequest request) {
         if (!policyEnforcementPoint.checkAccess("products", "read", request)) {
             return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
         }
 
-        List<Product> products = productService.findAll();
-        List<ProductDto> productDtos = products.stream()
-            .map(product -> new ProductDto(product.getId(), product.getName(), product.getQuantity(), product.getLocation()))
-            .collect(Collectors.toList());
+        LocalDateTime pointInTime = at != null ? at : LocalDateTime.now();
+        Integer quantity = stockHistoryService.quantityAt(id, pointInTime);
+        if (quantity == null) {
+            return ResponseEntity.status(404).body(ApiResponse.error("No stock history for product " + id + " at " + pointInTime));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Stock level retrieved successfully", new StockLevelDto(id, quantity, pointInTime)));
+    }
+
+    /**
+     * Imports and exports of one product with createdAt in [from, to), newest first, one page at a time
+     */
+    @GetMapping("/{id}/movements")
+    public ResponseEntity<ApiResponse<List<MovementDto>>> getMovements(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("imports", "read", request)
+                || !policyEnforcementPoint.checkAccess("exports", "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        MovementHistoryService.Page<MovementDto> page = movementHistoryService.productMovements(id, from, to, cursor, pageSize);
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("nextCursor", page.getNextCursor());
+        metadata.put("limit", pageSize);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Movements retrieved successfully", page.getItems(), metadata));
+    }
 
-        return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", productDtos));
+    /**
+     * Stock on hand, the part of it held by reservations and what is left to export
+     */
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<ApiResponse<AvailabilityDto>> getAvailability(@PathVariable Long id, HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("products", "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        AvailabilityDto availability = reservationService.availability(id);
+        if (availability == null) {
+            return ResponseEntity.status(404).body(ApiResponse.error("Product not found with id: " + id));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Availability retrieved successfully", availability));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<ProductDto>> getProductById(@PathVariable Long id, HttpServletRequest request) {
+    public ResponseEntity<ApiResponse<ProductView>> getProductById(@PathVariable Long id, HttpServletRequest request) {
         if (!policyEnforcementPoint.checkAccess("products", "read", request)) {
             return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
         }
 
-        Product product = productService.findById(id)
+        ProductView product = productService.findCachedById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
 
-        ProductDto productDto = new ProductDto(product.getId(), product.getName(), product.getQuantity(), product.getLocation());
-        return ResponseEntity.ok(ApiResponse.success("Product retrieved successfully", productDto));
+        return ResponseEntity.ok(ApiResponse.success("Product retrieved successfully", product));
     }
 
     @PostMapping
@@ -0,0 +1,99 @@
+package com.warehouse.warehousemanager.controller;
+
+import com.warehouse.warehousemanager.dto.ApiResponse;
+import com.warehouse.warehousemanager.dto.DailyFlowDto;
+import com.warehouse.warehousemanager.dto.DailyStockDto;
+import com.warehouse.warehousemanager.security.policy.PolicyEnforcementPoint;
+import com.warehouse.warehousemanager.service.MovementRollup;
+import com.warehouse.warehousemanager.service.ProductCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Daily time series read from the movement rollup. Ranges are whole days, both ends
+ * included; without from/to the last 30 days up to today are returned.
+ */
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "*")
+public class ReportController {
+
+    private static final int DEFAULT_DAYS = 30;
+
+    private static final int MAX_DAYS = 366;
+
+    @Autowired
+    private MovementRollup movementRollup;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private PolicyEnforcementPoint policyEnforcementPoint;
+
+    /**
+     * Units in and out per day for one product, or for all products when productId is omitted
+     */
+    @GetMapping("/flow")
+    public ResponseEntity<ApiResponse<List<DailyFlowDto>>> getFlow(
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("imports", "read", request)
+                || !policyEnforcementPoint.checkAccess("exports", "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        String rangeError = checkRange(start, end);
+        if (rangeError != null) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(rangeError));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Flow report retrieved successfully", movementRollup.flow(productId, start, end)));
+    }
+
+    /**
+     * Closing quantity of a product per day, with the units that moved that day
+     */
+    @GetMapping("/stock")
+    public ResponseEntity<ApiResponse<List<DailyStockDto>>> getStockLevels(
+            @RequestParam Long productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("products", "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        if (productCache.getView(productId) == null) {
+            return ResponseEntity.status(404).body(ApiResponse.error("Product not found with id: " + productId));
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        String rangeError = checkRange(start, end);
+        if (rangeError != null) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(rangeError));
+        }
+        List<DailyStockDto> series = movementRollup.stockLevels(productId, productCache.quantityOf(productId), start, end);
+        return ResponseEntity.ok(ApiResponse.success("Stock report retrieved successfully", series));
+    }
+
+    private String checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return "from must not be after to";
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            return "A report covers at most " + MAX_DAYS + " days";
+        }
+        return null;
+    }
+}
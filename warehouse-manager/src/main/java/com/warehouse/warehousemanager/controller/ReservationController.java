@@ -0,0 +1,95 @@
+package com.warehouse.warehousemanager.controller;
+
+import com.warehouse.warehousemanager.dto.ApiResponse;
+import com.warehouse.warehousemanager.dto.ExportDto;
+import com.warehouse.warehousemanager.dto.ReservationDto;
+import com.warehouse.warehousemanager.dto.ReservationRequest;
+import com.warehouse.warehousemanager.entity.Export;
+import com.warehouse.warehousemanager.entity.StockReservation;
+import com.warehouse.warehousemanager.mapper.ReservationMapper;
+import com.warehouse.warehousemanager.security.policy.PolicyEnforcementPoint;
+import com.warehouse.warehousemanager.service.ReservationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reservations hold stock for exports that have not left yet, so they share the exports permissions
+ */
+@RestController
+@RequestMapping("/api/reservations")
+@CrossOrigin(origins = "*")
+public class ReservationController {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private PolicyEnforcementPoint policyEnforcementPoint;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<ReservationDto>> createReservation(@RequestBody ReservationRequest reservationRequest, HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("exports", "create", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        StockReservation reservation = reservationService.reserve(reservationRequest, username);
+        return ResponseEntity.ok(ApiResponse.success("Reservation created successfully", ReservationMapper.toDto(reservation)));
+    }
+
+    /**
+     * Active reservations of one product, soonest expiry first
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<ReservationDto>>> getActiveReservations(@RequestParam Long productId, HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("exports", "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        List<ReservationDto> reservations = reservationService.findActiveByProduct(productId).stream()
+            .map(ReservationMapper::toDto)
+            .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success("Reservations retrieved successfully", reservations));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<ReservationDto>> getReservationById(@PathVariable Long id, HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("exports", "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        StockReservation reservation = reservationService.findById(id)
+                .orElseThrow(() -> new RuntimeException("Reservation not found with id: " + id));
+        return ResponseEntity.ok(ApiResponse.success("Reservation retrieved successfully", ReservationMapper.toDto(reservation)));
+    }
+
+    /**
+     * Creates the export and takes the reserved stock off the product in one transaction
+     */
+    @PostMapping("/{id}/convert")
+    public ResponseEntity<ApiResponse<ExportDto>> convertReservation(@PathVariable Long id, HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("exports", "create", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        Export exportRecord = reservationService.convert(id);
+        ExportDto exportDto = new ExportDto(exportRecord.getId(), exportRecord.getProductId(), exportRecord.getQuantity(), exportRecord.getCreatedAt());
+        return ResponseEntity.ok(ApiResponse.success("Reservation converted to export successfully", exportDto));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<ReservationDto>> releaseReservation(@PathVariable Long id, HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("exports", "delete", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        StockReservation reservation = reservationService.release(id);
+        return ResponseEntity.ok(ApiResponse.success("Reservation released successfully", ReservationMapper.toDto(reservation)));
+    }
+}
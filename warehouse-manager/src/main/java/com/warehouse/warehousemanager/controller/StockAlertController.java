@@ -0,0 +1,106 @@
+package com.warehouse.warehousemanager.controller;
+
+import com.warehouse.warehousemanager.dto.ApiResponse;
+import com.warehouse.warehousemanager.dto.StockAlertDto;
+import com.warehouse.warehousemanager.dto.StockThresholdDto;
+import com.warehouse.warehousemanager.mapper.StockAlertMapper;
+import com.warehouse.warehousemanager.security.policy.PolicyEnforcementPoint;
+import com.warehouse.warehousemanager.service.StockAlertService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/alerts")
+@CrossOrigin(origins = "*")
+public class StockAlertController {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    @Autowired
+    private StockAlertService stockAlertService;
+
+    @Autowired
+    private PolicyEnforcementPoint policyEnforcementPoint;
+
+    /**
+     * Stored alerts, newest first; pass metadata.nextBefore as before for the next page
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<StockAlertDto>>> getAlerts(
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("products", "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        List<StockAlertDto> alerts = stockAlertService.findAlerts(productId, before, pageSize).stream()
+            .map(StockAlertMapper::toDto)
+            .collect(Collectors.toList());
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("nextBefore", alerts.size() == pageSize ? alerts.get(alerts.size() - 1).getId() : null);
+        metadata.put("limit", pageSize);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Alerts retrieved successfully", alerts, metadata));
+    }
+
+    /**
+     * Server-sent events, one "stock-alert" event per new alert
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAlerts(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("products", "read", request)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        return ResponseEntity.ok(stockAlertService.subscribe(lastEventId));
+    }
+
+    @GetMapping("/thresholds")
+    public ResponseEntity<ApiResponse<List<StockThresholdDto>>> getThresholds(HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("products", "read", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        return ResponseEntity.ok(ApiResponse.success("Thresholds retrieved successfully", stockAlertService.findThresholds()));
+    }
+
+    @PutMapping("/thresholds/{productId}")
+    public ResponseEntity<ApiResponse<StockThresholdDto>> setThreshold(@PathVariable Long productId, @RequestBody StockThresholdDto threshold, HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("products", "update", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        StockThresholdDto saved = stockAlertService.setThreshold(productId, threshold.getReorderPoint());
+        return ResponseEntity.ok(ApiResponse.success("Threshold saved successfully", saved));
+    }
+
+    @DeleteMapping("/thresholds/{productId}")
+    public ResponseEntity<ApiResponse<String>> removeThreshold(@PathVariable Long productId, HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("products", "update", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        if (!stockAlertService.removeThreshold(productId)) {
+            return ResponseEntity.status(404).body(ApiResponse.error("No threshold for product " + productId));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Threshold removed successfully"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.warehouse.warehousemanager.controller;
+
+import com.warehouse.warehousemanager.dto.ApiResponse;
+import com.warehouse.warehousemanager.dto.TokenRevocationRequest;
+import com.warehouse.warehousemanager.security.TokenRevocationRegistry;
+import com.warehouse.warehousemanager.security.VerifiedToken;
+import com.warehouse.warehousemanager.security.VerifiedTokenCache;
+import com.warehouse.warehousemanager.security.policy.PolicyEnforcementPoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("/api/tokens")
+@CrossOrigin(origins = "*")
+public class TokenController {
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private PolicyEnforcementPoint policyEnforcementPoint;
+
+    @PostMapping("/revoke")
+    public ResponseEntity<ApiResponse<String>> revoke(@RequestBody TokenRevocationRequest revocationRequest,
+                                                      HttpServletRequest request) {
+        if (!policyEnforcementPoint.checkAccess("tokens", "revoke", request)) {
+            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+        }
+
+        if (revocationRequest.getToken() != null && !revocationRequest.getToken().isEmpty()) {
+            VerifiedToken verifiedToken = verifiedTokenCache.verify(revocationRequest.getToken());
+            if (verifiedToken == null) {
+                // Invalid or expired tokens are rejected anyway
+                return ResponseEntity.badRequest().body(ApiResponse.error("Token is invalid or already expired"));
+            }
+            tokenRevocationRegistry.revoke(verifiedToken, revocationRequest.getToken());
+            return ResponseEntity.ok(ApiResponse.success("Token revoked successfully"));
+        }
+
+        if (revocationRequest.getTokenId() != null && !revocationRequest.getTokenId().isEmpty()) {
+            tokenRevocationRegistry.revokeTokenId(revocationRequest.getTokenId());
+            return ResponseEntity.ok(ApiResponse.success("Token revoked successfully"));
+        }
+
+        if (revocationRequest.getUsername() != null && !revocationRequest.getUsername().isEmpty()) {
+            tokenRevocationRegistry.revokeUser(revocationRequest.getUsername());
+            return ResponseEntity.ok(ApiResponse.success("All tokens of user revoked successfully"));
+        }
+
+        return ResponseEntity.badRequest().body(ApiResponse.error("One of token, tokenId or username is required"));
+    }
+}
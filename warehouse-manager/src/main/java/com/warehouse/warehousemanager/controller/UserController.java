@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/users")
@@ -67,25 +68,27 @@ public class UserController {
     }
 
     @PostMapping
-    public ResponseEntity<ApiResponse<UserDto>> createUser(@RequestBody User user, HttpServletRequest request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<UserDto>>> createUser(@RequestBody User user, HttpServletRequest request) {
         if (!policyEnforcementPoint.checkAccess("users", "create", request)) {
-            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(403).body(ApiResponse.error("Access denied")));
         }
 
-        User savedUser = userService.save(user);
-        UserDto userDto = new UserDto(savedUser.getId(), savedUser.getUsername(), savedUser.getRole().name(), savedUser.getPermissions(), savedUser.getCreatedAt());
-        return ResponseEntity.ok(ApiResponse.success("User created successfully", userDto));
+        return userService.save(user).thenApply(savedUser -> {
+            UserDto userDto = new UserDto(savedUser.getId(), savedUser.getUsername(), savedUser.getRole().name(), savedUser.getPermissions(), savedUser.getCreatedAt());
+            return ResponseEntity.ok(ApiResponse.success("User created successfully", userDto));
+        });
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<ApiResponse<UserDto>> updateUser(@PathVariable Long id, @RequestBody User userDetails, HttpServletRequest request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<UserDto>>> updateUser(@PathVariable Long id, @RequestBody User userDetails, HttpServletRequest request) {
         if (!policyEnforcementPoint.checkAccess("users", "update", request)) {
-            return ResponseEntity.status(403).body(ApiResponse.error("Access denied"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(403).body(ApiResponse.error("Access denied")));
         }
 
-        User updatedUser = userService.update(id, userDetails);
-        UserDto userDto = new UserDto(updatedUser.getId(), updatedUser.getUsername(), updatedUser.getRole().name(), updatedUser.getPermissions(), updatedUser.getCreatedAt());
-        return ResponseEntity.ok(ApiResponse.success("User updated successfully", userDto));
+        return userService.update(id, userDetails).thenApply(updatedUser -> {
+            UserDto userDto = new UserDto(updatedUser.getId(), updatedUser.getUsername(), updatedUser.getRole().name(), updatedUser.getPermissions(), updatedUser.getCreatedAt());
+            return ResponseEntity.ok(ApiResponse.success("User updated successfully", userDto));
+        });
     }
 
     @DeleteMapping("/{id}")
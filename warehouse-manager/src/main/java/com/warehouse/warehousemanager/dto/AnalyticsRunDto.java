@@ -0,0 +1,84 @@
+package com.warehouse.warehousemanager.dto;
+
+import java.time.LocalDateTime;
+
+public class AnalyticsRunDto {
+    private Long id;
+    private boolean full;
+    private String status;
+    private int productsProcessed;
+    private String lastError;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    // Constructors
+    public AnalyticsRunDto() {}
+
+    public AnalyticsRunDto(Long id, boolean full, String status, int productsProcessed, String lastError,
+                           LocalDateTime startedAt, LocalDateTime finishedAt) {
+        this.id = id;
+        this.full = full;
+        this.status = status;
+        this.productsProcessed = productsProcessed;
+        this.lastError = lastError;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getProductsProcessed() {
+        return productsProcessed;
+    }
+
+    public void setProductsProcessed(int productsProcessed) {
+        this.productsProcessed = productsProcessed;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
@@ -0,0 +1,51 @@
+package com.warehouse.warehousemanager.dto;
+
+public class AvailabilityDto {
+    private Long productId;
+    private int onHand;
+    private int reserved;
+    private int available;
+
+    // Constructors
+    public AvailabilityDto() {}
+
+    public AvailabilityDto(Long productId, int onHand, int reserved, int available) {
+        this.productId = productId;
+        this.onHand = onHand;
+        this.reserved = reserved;
+        this.available = available;
+    }
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getOnHand() {
+        return onHand;
+    }
+
+    public void setOnHand(int onHand) {
+        this.onHand = onHand;
+    }
+
+    public int getReserved() {
+        return reserved;
+    }
+
+    public void setReserved(int reserved) {
+        this.reserved = reserved;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(int available) {
+        this.available = available;
+    }
+}
@@ -0,0 +1,66 @@
+package com.warehouse.warehousemanager.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Units in and out on one day, for one product or all products
+ */
+public class DailyFlowDto {
+    private LocalDate day;
+    private long unitsIn;
+    private long unitsOut;
+    private int imports;
+    private int exports;
+
+    // Constructors
+    public DailyFlowDto() {}
+
+    public DailyFlowDto(LocalDate day, long unitsIn, long unitsOut, int imports, int exports) {
+        this.day = day;
+        this.unitsIn = unitsIn;
+        this.unitsOut = unitsOut;
+        this.imports = imports;
+        this.exports = exports;
+    }
+
+    // Getters and Setters
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public long getUnitsIn() {
+        return unitsIn;
+    }
+
+    public void setUnitsIn(long unitsIn) {
+        this.unitsIn = unitsIn;
+    }
+
+    public long getUnitsOut() {
+        return unitsOut;
+    }
+
+    public void setUnitsOut(long unitsOut) {
+        this.unitsOut = unitsOut;
+    }
+
+    public int getImports() {
+        return imports;
+    }
+
+    public void setImports(int imports) {
+        this.imports = imports;
+    }
+
+    public int getExports() {
+        return exports;
+    }
+
+    public void setExports(int exports) {
+        this.exports = exports;
+    }
+}
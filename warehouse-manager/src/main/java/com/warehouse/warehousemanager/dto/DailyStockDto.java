@@ -0,0 +1,66 @@
+package com.warehouse.warehousemanager.dto;
+
+import java.time.LocalDate;
+
+/**
+ * A product's quantity at the end of a day and what moved that day
+ */
+public class DailyStockDto {
+    private LocalDate day;
+    private long closingQuantity;
+    private long unitsIn;
+    private long unitsOut;
+    private long adjustment;
+
+    // Constructors
+    public DailyStockDto() {}
+
+    public DailyStockDto(LocalDate day, long closingQuantity, long unitsIn, long unitsOut, long adjustment) {
+        this.day = day;
+        this.closingQuantity = closingQuantity;
+        this.unitsIn = unitsIn;
+        this.unitsOut = unitsOut;
+        this.adjustment = adjustment;
+    }
+
+    // Getters and Setters
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public long getClosingQuantity() {
+        return closingQuantity;
+    }
+
+    public void setClosingQuantity(long closingQuantity) {
+        this.closingQuantity = closingQuantity;
+    }
+
+    public long getUnitsIn() {
+        return unitsIn;
+    }
+
+    public void setUnitsIn(long unitsIn) {
+        this.unitsIn = unitsIn;
+    }
+
+    public long getUnitsOut() {
+        return unitsOut;
+    }
+
+    public void setUnitsOut(long unitsOut) {
+        this.unitsOut = unitsOut;
+    }
+
+    public long getAdjustment() {
+        return adjustment;
+    }
+
+    public void setAdjustment(long adjustment) {
+        this.adjustment = adjustment;
+    }
+}
@@ -0,0 +1,135 @@
+package com.warehouse.warehousemanager.dto;
+
+import java.time.LocalDateTime;
+
+public class IngestJobDto {
+    private Long id;
+    private String kind;
+    private String status;
+    private Long fileSize;
+    private String username;
+    private long rowsProcessed;
+    private long rowsAccepted;
+    private long rowsRejected;
+    private String lastRejection;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public IngestJobDto() {}
+
+    public IngestJobDto(Long id, String kind, String status, Long fileSize, String username,
+                        long rowsProcessed, long rowsAccepted, long rowsRejected,
+                        String lastRejection, String lastError, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.kind = kind;
+        this.status = status;
+        this.fileSize = fileSize;
+        this.username = username;
+        this.rowsProcessed = rowsProcessed;
+        this.rowsAccepted = rowsAccepted;
+        this.rowsRejected = rowsRejected;
+        this.lastRejection = lastRejection;
+        this.lastError = lastError;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    public void setRowsProcessed(long rowsProcessed) {
+        this.rowsProcessed = rowsProcessed;
+    }
+
+    public long getRowsAccepted() {
+        return rowsAccepted;
+    }
+
+    public void setRowsAccepted(long rowsAccepted) {
+        this.rowsAccepted = rowsAccepted;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public void setRowsRejected(long rowsRejected) {
+        this.rowsRejected = rowsRejected;
+    }
+
+    public String getLastRejection() {
+        return lastRejection;
+    }
+
+    public void setLastRejection(String lastRejection) {
+        this.lastRejection = lastRejection;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,51 @@
+package com.warehouse.warehousemanager.dto;
+
+public class LocationStockDto {
+    private String location;
+    private int productCount;
+    private long totalQuantity;
+    private int lowStockCount;
+
+    // Constructors
+    public LocationStockDto() {}
+
+    public LocationStockDto(String location, int productCount, long totalQuantity, int lowStockCount) {
+        this.location = location;
+        this.productCount = productCount;
+        this.totalQuantity = totalQuantity;
+        this.lowStockCount = lowStockCount;
+    }
+
+    // Getters and Setters
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public int getProductCount() {
+        return productCount;
+    }
+
+    public void setProductCount(int productCount) {
+        this.productCount = productCount;
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public void setTotalQuantity(long totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+
+    public int getLowStockCount() {
+        return lowStockCount;
+    }
+
+    public void setLowStockCount(int lowStockCount) {
+        this.lowStockCount = lowStockCount;
+    }
+}
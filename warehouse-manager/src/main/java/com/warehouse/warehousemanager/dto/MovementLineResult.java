@@ -0,0 +1,72 @@
+package com.warehouse.warehousemanager.dto;
+
+/**
+ * Outcome of one line of a batch import or export
+ */
+public class MovementLineResult {
+    private int line;
+    private Long productId;
+    private Integer quantity;
+    private boolean success;
+    private String error;
+
+    // Constructors
+    public MovementLineResult() {}
+
+    public MovementLineResult(int line, Long productId, Integer quantity, boolean success, String error) {
+        this.line = line;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.success = success;
+        this.error = error;
+    }
+
+    public static MovementLineResult accepted(int line, Long productId, Integer quantity) {
+        return new MovementLineResult(line, productId, quantity, true, null);
+    }
+
+    public static MovementLineResult rejected(int line, Long productId, Integer quantity, String error) {
+        return new MovementLineResult(line, productId, quantity, false, error);
+    }
+
+    // Getters and Setters
+    public int getLine() {
+        return line;
+    }
+
+    public void setLine(int line) {
+        this.line = line;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,94 @@
+package com.warehouse.warehousemanager.dto;
+
+import java.time.LocalDateTime;
+
+public class ProductAnalyticsDto {
+    private Long productId;
+    private long unitsOut;
+    private double averageDailyDemand;
+    private double demandStdDev;
+    private int suggestedReorderPoint;
+    private int suggestedOrderQuantity;
+    private String abcClass;
+    private LocalDateTime computedAt;
+
+    // Constructors
+    public ProductAnalyticsDto() {}
+
+    public ProductAnalyticsDto(Long productId, long unitsOut, double averageDailyDemand, double demandStdDev,
+                               int suggestedReorderPoint, int suggestedOrderQuantity, String abcClass, LocalDateTime computedAt) {
+        this.productId = productId;
+        this.unitsOut = unitsOut;
+        this.averageDailyDemand = averageDailyDemand;
+        this.demandStdDev = demandStdDev;
+        this.suggestedReorderPoint = suggestedReorderPoint;
+        this.suggestedOrderQuantity = suggestedOrderQuantity;
+        this.abcClass = abcClass;
+        this.computedAt = computedAt;
+    }
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public long getUnitsOut() {
+        return unitsOut;
+    }
+
+    public void setUnitsOut(long unitsOut) {
+        this.unitsOut = unitsOut;
+    }
+
+    public double getAverageDailyDemand() {
+        return averageDailyDemand;
+    }
+
+    public void setAverageDailyDemand(double averageDailyDemand) {
+        this.averageDailyDemand = averageDailyDemand;
+    }
+
+    public double getDemandStdDev() {
+        return demandStdDev;
+    }
+
+    public void setDemandStdDev(double demandStdDev) {
+        this.demandStdDev = demandStdDev;
+    }
+
+    public int getSuggestedReorderPoint() {
+        return suggestedReorderPoint;
+    }
+
+    public void setSuggestedReorderPoint(int suggestedReorderPoint) {
+        this.suggestedReorderPoint = suggestedReorderPoint;
+    }
+
+    public int getSuggestedOrderQuantity() {
+        return suggestedOrderQuantity;
+    }
+
+    public void setSuggestedOrderQuantity(int suggestedOrderQuantity) {
+        this.suggestedOrderQuantity = suggestedOrderQuantity;
+    }
+
+    public String getAbcClass() {
+        return abcClass;
+    }
+
+    public void setAbcClass(String abcClass) {
+        this.abcClass = abcClass;
+    }
+
+    public LocalDateTime getComputedAt() {
+        return computedAt;
+    }
+
+    public void setComputedAt(LocalDateTime computedAt) {
+        this.computedAt = computedAt;
+    }
+}
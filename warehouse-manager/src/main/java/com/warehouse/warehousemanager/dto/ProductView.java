@@ -0,0 +1,40 @@
+package com.warehouse.warehousemanager.dto;
+
+/**
+ * Immutable product as held and served by the product cache.
+ * Reads hand out the stored instance; a stock movement replaces it with a copy carrying
+ * the new quantity, so the allocation happens once per write instead of once per read.
+ */
+public final class ProductView {
+    private final Long id;
+    private final String name;
+    private final int quantity;
+    private final String location;
+
+    public ProductView(Long id, String name, int quantity, String location) {
+        this.id = id;
+        this.name = name;
+        this.quantity = quantity;
+        this.location = location;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public ProductView withQuantity(int quantity) {
+        return quantity == this.quantity ? this : new ProductView(id, name, quantity, location);
+    }
+}
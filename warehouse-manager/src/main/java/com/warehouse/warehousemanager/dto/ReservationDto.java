@@ -0,0 +1,104 @@
+package com.warehouse.warehousemanager.dto;
+
+import java.time.LocalDateTime;
+
+public class ReservationDto {
+    private Long id;
+    private Long productId;
+    private Integer quantity;
+    private String status;
+    private String reference;
+    private String username;
+    private LocalDateTime expiresAt;
+    private Long exportId;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public ReservationDto() {}
+
+    public ReservationDto(Long id, Long productId, Integer quantity, String status, String reference,
+                          String username, LocalDateTime expiresAt, Long exportId, LocalDateTime createdAt) {
+        this.id = id;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.status = status;
+        this.reference = reference;
+        this.username = username;
+        this.expiresAt = expiresAt;
+        this.exportId = exportId;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getExportId() {
+        return exportId;
+    }
+
+    public void setExportId(Long exportId) {
+        this.exportId = exportId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
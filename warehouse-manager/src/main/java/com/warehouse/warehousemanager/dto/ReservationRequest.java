@@ -0,0 +1,47 @@
+package com.warehouse.warehousemanager.dto;
+
+/**
+ * Hold quantity of a product for ttlSeconds (the configured default when omitted)
+ */
+public class ReservationRequest {
+    private Long productId;
+    private Integer quantity;
+    private Long ttlSeconds;
+    private String reference;
+
+    // Constructors
+    public ReservationRequest() {}
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+}
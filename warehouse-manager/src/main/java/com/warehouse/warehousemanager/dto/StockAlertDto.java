@@ -0,0 +1,73 @@
+package com.warehouse.warehousemanager.dto;
+
+import java.time.LocalDateTime;
+
+public class StockAlertDto {
+    private Long id;
+    private Long productId;
+    private String type;
+    private Integer quantity;
+    private Integer reorderPoint;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public StockAlertDto() {}
+
+    public StockAlertDto(Long id, Long productId, String type, Integer quantity, Integer reorderPoint, LocalDateTime createdAt) {
+        this.id = id;
+        this.productId = productId;
+        this.type = type;
+        this.quantity = quantity;
+        this.reorderPoint = reorderPoint;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Integer getReorderPoint() {
+        return reorderPoint;
+    }
+
+    public void setReorderPoint(Integer reorderPoint) {
+        this.reorderPoint = reorderPoint;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
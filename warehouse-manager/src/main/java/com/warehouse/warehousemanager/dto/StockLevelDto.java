@@ -0,0 +1,43 @@
+package com.warehouse.warehousemanager.dto;
+
+import java.time.LocalDateTime;
+
+public class StockLevelDto {
+    private Long productId;
+    private Integer quantity;
+    private LocalDateTime at;
+
+    // Constructors
+    public StockLevelDto() {}
+
+    public StockLevelDto(Long productId, Integer quantity, LocalDateTime at) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.at = at;
+    }
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public LocalDateTime getAt() {
+        return at;
+    }
+
+    public void setAt(LocalDateTime at) {
+        this.at = at;
+    }
+}
@@ -0,0 +1,44 @@
+package com.warehouse.warehousemanager.dto;
+
+/**
+ * Reorder point of a product; low tells whether it is currently alerted as below it
+ */
+public class StockThresholdDto {
+    private Long productId;
+    private Integer reorderPoint;
+    private Boolean low;
+
+    // Constructors
+    public StockThresholdDto() {}
+
+    public StockThresholdDto(Long productId, Integer reorderPoint, Boolean low) {
+        this.productId = productId;
+        this.reorderPoint = reorderPoint;
+        this.low = low;
+    }
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getReorderPoint() {
+        return reorderPoint;
+    }
+
+    public void setReorderPoint(Integer reorderPoint) {
+        this.reorderPoint = reorderPoint;
+    }
+
+    public Boolean getLow() {
+        return low;
+    }
+
+    public void setLow(Boolean low) {
+        this.low = low;
+    }
+}
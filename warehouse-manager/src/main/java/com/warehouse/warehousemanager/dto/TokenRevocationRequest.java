@@ -0,0 +1,39 @@
+package com.warehouse.warehousemanager.dto;
+
+/**
+ * Admin revocation request. Exactly one of token, tokenId or username is expected:
+ * a raw access token, a token id (jti), or a user whose tokens should all be revoked.
+ */
+public class TokenRevocationRequest {
+    private String token;
+    private String tokenId;
+    private String username;
+
+    // Constructors
+    public TokenRevocationRequest() {}
+
+    // Getters and Setters
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+}
@@ -0,0 +1,119 @@
+package com.warehouse.warehousemanager.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One analytics run. ledgerWatermark is the last stock ledger id the run saw; the next
+ * incremental run only reprocesses products with ledger entries after it.
+ */
+@Entity
+@Table(name = "analytics_runs")
+public class AnalyticsRun {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Full runs process every product; incremental runs only the changed ones
+    @Column(name = "full_run", nullable = false)
+    private boolean full;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(name = "ledger_watermark", nullable = false)
+    private long ledgerWatermark;
+
+    @Column(name = "products_processed", nullable = false)
+    private int productsProcessed;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    // Constructors
+    public AnalyticsRun() {
+        this.startedAt = LocalDateTime.now();
+    }
+
+    public AnalyticsRun(boolean full, long ledgerWatermark) {
+        this.full = full;
+        this.status = Status.RUNNING;
+        this.ledgerWatermark = ledgerWatermark;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getLedgerWatermark() {
+        return ledgerWatermark;
+    }
+
+    public void setLedgerWatermark(long ledgerWatermark) {
+        this.ledgerWatermark = ledgerWatermark;
+    }
+
+    public int getProductsProcessed() {
+        return productsProcessed;
+    }
+
+    public void setProductsProcessed(int productsProcessed) {
+        this.productsProcessed = productsProcessed;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
@@ -0,0 +1,109 @@
+package com.warehouse.warehousemanager.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Units moved per product per day. Written only through MovementRollup with
+ * INSERT ... ON CONFLICT upserts, in the transaction of the movement it counts.
+ */
+@Entity
+@Table(name = "daily_movement_rollup",
+    uniqueConstraints = @UniqueConstraint(name = "uk_daily_movement_rollup_product_day", columnNames = {"product_id", "day"}),
+    indexes = @Index(name = "idx_daily_movement_rollup_day", columnList = "day"))
+public class DailyMovementRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // ISO date (yyyy-MM-dd), so days sort and compare as text
+    @Column(name = "day", nullable = false, length = 10)
+    private String day;
+
+    @Column(name = "units_in", nullable = false)
+    private long unitsIn;
+
+    @Column(name = "units_out", nullable = false)
+    private long unitsOut;
+
+    @Column(name = "import_count", nullable = false)
+    private int importCount;
+
+    @Column(name = "export_count", nullable = false)
+    private int exportCount;
+
+    // Quantity set directly on the product (new products and edits), not through a movement
+    @Column(name = "adjustment", nullable = false)
+    private long adjustment;
+
+    // Constructors
+    public DailyMovementRollup() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getDay() {
+        return day;
+    }
+
+    public void setDay(String day) {
+        this.day = day;
+    }
+
+    public long getUnitsIn() {
+        return unitsIn;
+    }
+
+    public void setUnitsIn(long unitsIn) {
+        this.unitsIn = unitsIn;
+    }
+
+    public long getUnitsOut() {
+        return unitsOut;
+    }
+
+    public void setUnitsOut(long unitsOut) {
+        this.unitsOut = unitsOut;
+    }
+
+    public int getImportCount() {
+        return importCount;
+    }
+
+    public void setImportCount(int importCount) {
+        this.importCount = importCount;
+    }
+
+    public int getExportCount() {
+        return exportCount;
+    }
+
+    public void setExportCount(int exportCount) {
+        this.exportCount = exportCount;
+    }
+
+    public long getAdjustment() {
+        return adjustment;
+    }
+
+    public void setAdjustment(long adjustment) {
+        this.adjustment = adjustment;
+    }
+}
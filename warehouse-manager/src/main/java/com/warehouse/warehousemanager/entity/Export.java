@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "exports")
+@Table(name = "exports", indexes = {
+    @Index(name = "idx_exports_product_created", columnList = "product_id, created_at, id"),
+    @Index(name = "idx_exports_created", columnList = "created_at, id")
+})
 public class Export {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
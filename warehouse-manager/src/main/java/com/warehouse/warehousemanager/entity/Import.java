@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "imports")
+@Table(name = "imports", indexes = {
+    @Index(name = "idx_imports_product_created", columnList = "product_id, created_at, id"),
+    @Index(name = "idx_imports_created", columnList = "created_at, id")
+})
 public class Import {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
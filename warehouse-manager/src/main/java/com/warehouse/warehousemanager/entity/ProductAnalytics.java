@@ -0,0 +1,119 @@
+package com.warehouse.warehousemanager.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Latest demand forecast, reorder suggestion and ABC class of a product, written by AnalyticsService
+ */
+@Entity
+@Table(name = "product_analytics", indexes = {
+    @Index(name = "idx_product_analytics_units_out", columnList = "units_out")
+})
+public class ProductAnalytics {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false, unique = true)
+    private Long productId;
+
+    // Units exported during the analysis window
+    @Column(name = "units_out", nullable = false)
+    private long unitsOut;
+
+    @Column(name = "average_daily_demand", nullable = false)
+    private double averageDailyDemand;
+
+    @Column(name = "demand_std_dev", nullable = false)
+    private double demandStdDev;
+
+    @Column(name = "suggested_reorder_point", nullable = false)
+    private int suggestedReorderPoint;
+
+    @Column(name = "suggested_order_quantity", nullable = false)
+    private int suggestedOrderQuantity;
+
+    @Column(name = "abc_class", length = 1)
+    private String abcClass;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    // Constructors
+    public ProductAnalytics() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public long getUnitsOut() {
+        return unitsOut;
+    }
+
+    public void setUnitsOut(long unitsOut) {
+        this.unitsOut = unitsOut;
+    }
+
+    public double getAverageDailyDemand() {
+        return averageDailyDemand;
+    }
+
+    public void setAverageDailyDemand(double averageDailyDemand) {
+        this.averageDailyDemand = averageDailyDemand;
+    }
+
+    public double getDemandStdDev() {
+        return demandStdDev;
+    }
+
+    public void setDemandStdDev(double demandStdDev) {
+        this.demandStdDev = demandStdDev;
+    }
+
+    public int getSuggestedReorderPoint() {
+        return suggestedReorderPoint;
+    }
+
+    public void setSuggestedReorderPoint(int suggestedReorderPoint) {
+        this.suggestedReorderPoint = suggestedReorderPoint;
+    }
+
+    public int getSuggestedOrderQuantity() {
+        return suggestedOrderQuantity;
+    }
+
+    public void setSuggestedOrderQuantity(int suggestedOrderQuantity) {
+        this.suggestedOrderQuantity = suggestedOrderQuantity;
+    }
+
+    public String getAbcClass() {
+        return abcClass;
+    }
+
+    public void setAbcClass(String abcClass) {
+        this.abcClass = abcClass;
+    }
+
+    public LocalDateTime getComputedAt() {
+        return computedAt;
+    }
+
+    public void setComputedAt(LocalDateTime computedAt) {
+        this.computedAt = computedAt;
+    }
+}
@@ -11,6 +11,7 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // SHA-256 hex digest of the token; the raw value is only ever sent to the client
     @Column(nullable = false, unique = true)
     private String token;
 
@@ -0,0 +1,99 @@
+package com.warehouse.warehousemanager.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A product crossed its reorder point: LOW_STOCK when it fell below, RECOVERED when it came back
+ */
+@Entity
+@Table(name = "stock_alerts", indexes = {
+    @Index(name = "idx_stock_alerts_product_id", columnList = "product_id, id")
+})
+public class StockAlert {
+
+    public enum Type { LOW_STOCK, RECOVERED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    // Quantity when the alert fired
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "reorder_point", nullable = false)
+    private Integer reorderPoint;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public StockAlert() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public StockAlert(Long productId, Type type, Integer quantity, Integer reorderPoint) {
+        this.productId = productId;
+        this.type = type;
+        this.quantity = quantity;
+        this.reorderPoint = reorderPoint;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Integer getReorderPoint() {
+        return reorderPoint;
+    }
+
+    public void setReorderPoint(Integer reorderPoint) {
+        this.reorderPoint = reorderPoint;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
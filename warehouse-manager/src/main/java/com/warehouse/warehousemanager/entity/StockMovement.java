@@ -0,0 +1,111 @@
+package com.warehouse.warehousemanager.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the append-only stock ledger. Every change to a product's quantity is
+ * recorded here as a signed delta; rows are never updated or deleted.
+ */
+@Entity
+@Table(name = "stock_ledger", indexes = {
+    @Index(name = "idx_stock_ledger_product_id", columnList = "product_id, id"),
+    @Index(name = "idx_stock_ledger_product_created", columnList = "product_id, created_at")
+})
+public class StockMovement {
+
+    public enum Reason {
+        // Quantity a product started with, or had when the ledger was introduced
+        OPENING,
+        IMPORT,
+        EXPORT,
+        // An import or export record was edited or deleted
+        IMPORT_CORRECTION,
+        EXPORT_CORRECTION,
+        // Quantity set directly on the product
+        ADJUSTMENT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Reason reason;
+
+    // Import or export id for movement reasons, when known
+    @Column(name = "reference_id")
+    private Long referenceId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public StockMovement() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public StockMovement(Long productId, Integer delta, Reason reason, Long referenceId) {
+        this.productId = productId;
+        this.delta = delta;
+        this.reason = reason;
+        this.referenceId = referenceId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public void setReason(Reason reason) {
+        this.reason = reason;
+    }
+
+    public Long getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(Long referenceId) {
+        this.referenceId = referenceId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
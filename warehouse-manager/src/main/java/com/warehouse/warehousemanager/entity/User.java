@@ -27,6 +27,10 @@ public class User {
 
     private LocalDateTime createdAt;
 
+    // Bumped whenever role, permissions or credentials change so outstanding access tokens stop being accepted
+    @Column(name = "token_version")
+    private Long tokenVersion = 0L;
+
     public enum Role {
         USER, ADMIN
     }
@@ -91,4 +95,12 @@ public class User {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Long getTokenVersion() {
+        return tokenVersion != null ? tokenVersion : 0L;
+    }
+
+    public void setTokenVersion(Long tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.warehouse.warehousemanager.exception;
+
+/**
+ * Thrown when a stock decrease would take a product below zero
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long productId;
+    private final int available;
+    private final int requested;
+
+    public InsufficientStockException(Long productId, int available, int requested) {
+        super("Not enough quantity in stock to export. Available: " + available + ", Requested: " + requested);
+        this.productId = productId;
+        this.available = available;
+        this.requested = requested;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+}
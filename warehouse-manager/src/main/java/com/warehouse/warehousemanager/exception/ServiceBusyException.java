@@ -0,0 +1,13 @@
+package com.warehouse.warehousemanager.exception;
+
+/**
+ * Thrown when a bounded worker pool is saturated; mapped to 503 so clients back off and retry
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,42 @@
+package com.warehouse.warehousemanager.mapper;
+
+import com.warehouse.warehousemanager.dto.AnalyticsRunDto;
+import com.warehouse.warehousemanager.dto.ProductAnalyticsDto;
+import com.warehouse.warehousemanager.entity.AnalyticsRun;
+import com.warehouse.warehousemanager.entity.ProductAnalytics;
+
+public class AnalyticsMapper {
+
+    public static ProductAnalyticsDto toDto(ProductAnalytics analytics) {
+        if (analytics == null) {
+            return null;
+        }
+
+        return new ProductAnalyticsDto(
+            analytics.getProductId(),
+            analytics.getUnitsOut(),
+            analytics.getAverageDailyDemand(),
+            analytics.getDemandStdDev(),
+            analytics.getSuggestedReorderPoint(),
+            analytics.getSuggestedOrderQuantity(),
+            analytics.getAbcClass(),
+            analytics.getComputedAt()
+        );
+    }
+
+    public static AnalyticsRunDto toDto(AnalyticsRun run) {
+        if (run == null) {
+            return null;
+        }
+
+        return new AnalyticsRunDto(
+            run.getId(),
+            run.isFull(),
+            run.getStatus().name(),
+            run.getProductsProcessed(),
+            run.getLastError(),
+            run.getStartedAt(),
+            run.getFinishedAt()
+        );
+    }
+}
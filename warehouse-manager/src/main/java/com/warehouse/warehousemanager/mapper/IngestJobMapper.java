@@ -0,0 +1,28 @@
+package com.warehouse.warehousemanager.mapper;
+
+import com.warehouse.warehousemanager.dto.IngestJobDto;
+import com.warehouse.warehousemanager.entity.IngestJob;
+
+public class IngestJobMapper {
+
+    public static IngestJobDto toDto(IngestJob job) {
+        if (job == null) {
+            return null;
+        }
+
+        return new IngestJobDto(
+            job.getId(),
+            job.getKind().name(),
+            job.getStatus().name(),
+            job.getFileSize(),
+            job.getUsername(),
+            job.getRowsProcessed(),
+            job.getRowsAccepted(),
+            job.getRowsRejected(),
+            job.getLastRejection(),
+            job.getLastError(),
+            job.getCreatedAt(),
+            job.getUpdatedAt()
+        );
+    }
+}
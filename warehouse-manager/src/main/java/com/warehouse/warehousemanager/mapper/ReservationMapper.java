@@ -0,0 +1,25 @@
+package com.warehouse.warehousemanager.mapper;
+
+import com.warehouse.warehousemanager.dto.ReservationDto;
+import com.warehouse.warehousemanager.entity.StockReservation;
+
+public class ReservationMapper {
+
+    public static ReservationDto toDto(StockReservation reservation) {
+        if (reservation == null) {
+            return null;
+        }
+
+        return new ReservationDto(
+            reservation.getId(),
+            reservation.getProductId(),
+            reservation.getQuantity(),
+            reservation.getStatus().name(),
+            reservation.getReference(),
+            reservation.getUsername(),
+            reservation.getExpiresAt(),
+            reservation.getExportId(),
+            reservation.getCreatedAt()
+        );
+    }
+}
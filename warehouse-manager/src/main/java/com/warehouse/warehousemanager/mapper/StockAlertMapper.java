@@ -0,0 +1,22 @@
+package com.warehouse.warehousemanager.mapper;
+
+import com.warehouse.warehousemanager.dto.StockAlertDto;
+import com.warehouse.warehousemanager.entity.StockAlert;
+
+public class StockAlertMapper {
+
+    public static StockAlertDto toDto(StockAlert alert) {
+        if (alert == null) {
+            return null;
+        }
+
+        return new StockAlertDto(
+            alert.getId(),
+            alert.getProductId(),
+            alert.getType().name(),
+            alert.getQuantity(),
+            alert.getReorderPoint(),
+            alert.getCreatedAt()
+        );
+    }
+}
@@ -14,5 +14,7 @@ public interface UserMapper {
     UserDto toDto(User user);
 
     @Mapping(target = "role", expression = "java(com.warehouse.warehousemanager.entity.User.Role.valueOf(userDto.getRole()))")
+    // Only UserService moves the token version, when a user's access changes
+    @Mapping(target = "tokenVersion", ignore = true)
     User toEntity(UserDto userDto);
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.warehouse.warehousemanager.repository;
+
+import com.warehouse.warehousemanager.entity.AnalyticsRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AnalyticsRunRepository extends JpaRepository<AnalyticsRun, Long> {
+
+    Optional<AnalyticsRun> findTopByOrderByIdDesc();
+
+    Optional<AnalyticsRun> findTopByStatusOrderByIdDesc(AnalyticsRun.Status status);
+
+    Optional<AnalyticsRun> findTopByStatusAndFullOrderByIdDesc(AnalyticsRun.Status status, boolean full);
+
+    // Runs left in the current status (RUNNING) by a shutdown
+    @Modifying
+    @Query("UPDATE AnalyticsRun r SET r.status = :status, r.lastError = 'Interrupted by shutdown', r.finishedAt = :now " +
+           "WHERE r.status = :current")
+    int failInterrupted(AnalyticsRun.Status current, AnalyticsRun.Status status, LocalDateTime now);
+}
@@ -0,0 +1,9 @@
+package com.warehouse.warehousemanager.repository;
+
+import com.warehouse.warehousemanager.entity.DailyMovementRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DailyMovementRollupRepository extends JpaRepository<DailyMovementRollup, Long> {
+}
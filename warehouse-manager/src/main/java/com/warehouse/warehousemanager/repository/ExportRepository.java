@@ -1,9 +1,25 @@
 package com.warehouse.warehousemanager.repository;
 
 import com.warehouse.warehousemanager.entity.Export;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface ExportRepository extends JpaRepository<Export, Long> {
-}
\ No newline at end of file
+
+    // Keyset pages, newest first: rows from "from" on that sort after the (before, beforeId) position
+    @Query("SELECT e FROM Export e WHERE e.createdAt >= :from " +
+           "AND (e.createdAt < :before OR (e.createdAt = :before AND e.id < :beforeId)) " +
+           "ORDER BY e.createdAt DESC, e.id DESC")
+    List<Export> findPage(LocalDateTime from, LocalDateTime before, Long beforeId, Pageable pageable);
+
+    @Query("SELECT e FROM Export e WHERE e.productId = :productId AND e.createdAt >= :from " +
+           "AND (e.createdAt < :before OR (e.createdAt = :before AND e.id < :beforeId)) " +
+           "ORDER BY e.createdAt DESC, e.id DESC")
+    List<Export> findPageByProductId(Long productId, LocalDateTime from, LocalDateTime before, Long beforeId, Pageable pageable);
+}
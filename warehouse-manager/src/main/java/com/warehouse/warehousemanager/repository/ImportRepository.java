@@ -1,9 +1,25 @@
 package com.warehouse.warehousemanager.repository;
 
 import com.warehouse.warehousemanager.entity.Import;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface ImportRepository extends JpaRepository<Import, Long> {
-}
\ No newline at end of file
+
+    // Keyset pages, newest first: rows from "from" on that sort after the (before, beforeId) position
+    @Query("SELECT i FROM Import i WHERE i.createdAt >= :from " +
+           "AND (i.createdAt < :before OR (i.createdAt = :before AND i.id < :beforeId)) " +
+           "ORDER BY i.createdAt DESC, i.id DESC")
+    List<Import> findPage(LocalDateTime from, LocalDateTime before, Long beforeId, Pageable pageable);
+
+    @Query("SELECT i FROM Import i WHERE i.productId = :productId AND i.createdAt >= :from " +
+           "AND (i.createdAt < :before OR (i.createdAt = :before AND i.id < :beforeId)) " +
+           "ORDER BY i.createdAt DESC, i.id DESC")
+    List<Import> findPageByProductId(Long productId, LocalDateTime from, LocalDateTime before, Long beforeId, Pageable pageable);
+}
@@ -0,0 +1,14 @@
+package com.warehouse.warehousemanager.repository;
+
+import com.warehouse.warehousemanager.entity.IngestJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface IngestJobRepository extends JpaRepository<IngestJob, Long> {
+    List<IngestJob> findByStatusIn(Collection<IngestJob.Status> statuses);
+    List<IngestJob> findTop50ByOrderByIdDesc();
+}
@@ -0,0 +1,21 @@
+package com.warehouse.warehousemanager.repository;
+
+import com.warehouse.warehousemanager.entity.ProductAnalytics;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProductAnalyticsRepository extends JpaRepository<ProductAnalytics, Long> {
+
+    Optional<ProductAnalytics> findByProductId(Long productId);
+
+    List<ProductAnalytics> findAllByOrderByUnitsOutDescProductIdAsc(Pageable pageable);
+
+    List<ProductAnalytics> findByAbcClassOrderByUnitsOutDescProductIdAsc(String abcClass, Pageable pageable);
+
+    List<ProductAnalytics> findBySuggestedOrderQuantityGreaterThanOrderBySuggestedOrderQuantityDesc(int quantity, Pageable pageable);
+}
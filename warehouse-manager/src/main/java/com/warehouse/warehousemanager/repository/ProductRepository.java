@@ -2,8 +2,29 @@ package com.warehouse.warehousemanager.repository;
 
 import com.warehouse.warehousemanager.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-}
\ No newline at end of file
+
+    // Conditional update: affects no row when the product is missing or would go below keep (reserved stock)
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = COALESCE(p.quantity, 0) - :quantity " +
+           "WHERE p.id = :id AND COALESCE(p.quantity, 0) >= :quantity + :keep")
+    int decrementQuantity(Long id, int quantity, int keep);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = COALESCE(p.quantity, 0) + :quantity WHERE p.id = :id")
+    int incrementQuantity(Long id, int quantity);
+
+    // Optimistic write used by the movement combiner: only succeeds if nobody changed the quantity meanwhile
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = :newQuantity " +
+           "WHERE p.id = :id AND COALESCE(p.quantity, 0) = :expectedQuantity")
+    int compareAndSetQuantity(Long id, int expectedQuantity, int newQuantity);
+
+    @Query("SELECT COALESCE(p.quantity, 0) FROM Product p WHERE p.id = :id")
+    Integer findQuantityById(Long id);
+}
@@ -0,0 +1,22 @@
+package com.warehouse.warehousemanager.repository;
+
+import com.warehouse.warehousemanager.entity.StockAlert;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockAlertRepository extends JpaRepository<StockAlert, Long> {
+
+    // Newest first, before the given id (keyset pagination)
+    List<StockAlert> findByIdLessThanOrderByIdDesc(Long beforeId, Pageable pageable);
+
+    List<StockAlert> findByProductIdAndIdLessThanOrderByIdDesc(Long productId, Long beforeId, Pageable pageable);
+
+    // The most recent alert of every product, which tells whether it is currently alerted as low
+    @Query("SELECT a FROM StockAlert a WHERE a.id IN (SELECT MAX(b.id) FROM StockAlert b GROUP BY b.productId)")
+    List<StockAlert> findLatestPerProduct();
+}
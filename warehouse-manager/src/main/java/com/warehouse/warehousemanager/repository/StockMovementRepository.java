@@ -0,0 +1,29 @@
+package com.warehouse.warehousemanager.repository;
+
+import com.warehouse.warehousemanager.entity.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    // Sum of the ledger tail after a snapshot; served by the (product_id, id) index
+    @Query("SELECT COALESCE(SUM(m.delta), 0) FROM StockMovement m WHERE m.productId = :productId AND m.id > :afterId")
+    long sumDeltaAfter(Long productId, long afterId);
+
+    boolean existsByProductId(Long productId);
+
+    // Replay window for a point-in-time query; served by the (product_id, created_at) index
+    @Query("SELECT COALESCE(SUM(m.delta), 0) FROM StockMovement m WHERE m.productId = :productId " +
+           "AND m.createdAt >= :from AND m.createdAt <= :at AND m.id > :afterId")
+    long sumDeltaBetween(Long productId, LocalDateTime from, LocalDateTime at, long afterId);
+
+    // Full replay, only for products that have no snapshot yet (so a short history)
+    @Query("SELECT COALESCE(SUM(m.delta), 0) FROM StockMovement m WHERE m.productId = :productId AND m.createdAt <= :at")
+    long sumDeltaUpTo(Long productId, LocalDateTime at);
+
+    boolean existsByProductIdAndCreatedAtLessThanEqual(Long productId, LocalDateTime at);
+}
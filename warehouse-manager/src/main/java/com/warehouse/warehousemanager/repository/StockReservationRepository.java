@@ -0,0 +1,29 @@
+package com.warehouse.warehousemanager.repository;
+
+import com.warehouse.warehousemanager.entity.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    List<StockReservation> findByStatus(StockReservation.Status status);
+
+    List<StockReservation> findByProductIdAndStatusOrderByExpiresAtAsc(Long productId, StockReservation.Status status);
+
+    // Only a reservation still in the given status can be finished, so expiry, release and conversion cannot both win
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :status, r.exportId = :exportId " +
+           "WHERE r.id = :id AND r.status = :current")
+    int finish(Long id, StockReservation.Status current, StockReservation.Status status, Long exportId);
+
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :status " +
+           "WHERE r.status = :current AND r.expiresAt <= :now")
+    int finishOverdue(StockReservation.Status current, StockReservation.Status status, LocalDateTime now);
+}
@@ -0,0 +1,14 @@
+package com.warehouse.warehousemanager.repository;
+
+import com.warehouse.warehousemanager.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+    Optional<StockSnapshot> findTopByProductIdOrderByLastMovementIdDesc(Long productId);
+    Optional<StockSnapshot> findTopByProductIdAndCreatedAtLessThanEqualOrderByLastMovementIdDesc(Long productId, LocalDateTime at);
+}
@@ -0,0 +1,19 @@
+package com.warehouse.warehousemanager.repository;
+
+import com.warehouse.warehousemanager.entity.StockThreshold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StockThresholdRepository extends JpaRepository<StockThreshold, Long> {
+
+    Optional<StockThreshold> findByProductId(Long productId);
+
+    @Modifying
+    @Query("DELETE FROM StockThreshold t WHERE t.productId = :productId")
+    int deleteByProductId(Long productId);
+}
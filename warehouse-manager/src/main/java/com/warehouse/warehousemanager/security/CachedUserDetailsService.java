@@ -0,0 +1,106 @@
+package com.warehouse.warehousemanager.security;
+
+import com.warehouse.warehousemanager.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caching decorator around CustomUserDetailsService used by the request filters.
+ * Cached entries hold no password hash and an immutable authority set.
+ * Login does not go through this class: the DaoAuthenticationProvider in SecurityConfig
+ * is wired to CustomUserDetailsService so password checks always read the database.
+ */
+@Service
+@Primary
+public class CachedUserDetailsService implements UserDetailsService {
+
+    @Autowired
+    private CustomUserDetailsService delegate;
+
+    private final ExpiringCache<String, UserDetails> cache;
+
+    // Usernames with no database row, remembered briefly so unknown identities do not hit the database
+    private final ExpiringCache<String, Boolean> absent;
+
+    private final long ttlMs;
+
+    private final long negativeTtlMs;
+
+    private final LongAdder invalidations = new LongAdder();
+
+    public CachedUserDetailsService(@Value("${app.userDetailsCacheMaxSize:5000}") int maxSize,
+                                    @Value("${app.userDetailsCacheTtlMs:300000}") long ttlMs,
+                                    @Value("${app.userDetailsNegativeTtlMs:30000}") long negativeTtlMs) {
+        this.cache = new ExpiringCache<>(maxSize);
+        this.absent = new ExpiringCache<>(maxSize);
+        this.ttlMs = ttlMs;
+        this.negativeTtlMs = negativeTtlMs;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserDetails userDetails = loadUserIfPresent(username);
+        if (userDetails == null) {
+            throw new UsernameNotFoundException("User not found with username: " + username);
+        }
+        return userDetails;
+    }
+
+    /**
+     * Returns the cached user details, or null when the user does not exist
+     */
+    public UserDetails loadUserIfPresent(String username) {
+        UserDetails cached = cache.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        if (absent.get(username) != null) {
+            return null;
+        }
+
+        UserDetails loaded = delegate.findUserByUsername(username);
+        if (loaded == null) {
+            absent.put(username, Boolean.TRUE, System.currentTimeMillis() + negativeTtlMs);
+            return null;
+        }
+        UserDetails withoutPassword = User.withUsername(loaded.getUsername())
+                .password("")
+                .authorities(loaded.getAuthorities())
+                .accountExpired(!loaded.isAccountNonExpired())
+                .accountLocked(!loaded.isAccountNonLocked())
+                .credentialsExpired(!loaded.isCredentialsNonExpired())
+                .disabled(!loaded.isEnabled())
+                .build();
+
+        cache.put(username, withoutPassword, System.currentTimeMillis() + ttlMs);
+        return withoutPassword;
+    }
+
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        absent.remove(username);
+        if (cache.remove(username) != null) {
+            invalidations.increment();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>(cache.stats());
+        stats.put("ttlMs", ttlMs);
+        stats.put("invalidations", invalidations.sum());
+        stats.put("negativeEntries", absent.size());
+        return stats;
+    }
+}
@@ -1,69 +0,0 @@
-package com.warehouse.warehousemanager.security;
-
-import com.warehouse.warehousemanager.util.JwtUtil;
-import jakarta.servlet.FilterChain;
-import jakarta.servlet.ServletException;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.stereotype.Component;
-import org.springframework.web.filter.OncePerRequestFilter;
-
-import java.io.IOException;
-
-@Component
-public class JwtAuthenticationFilter extends OncePerRequestFilter {
-
-    @Autowired
-    private JwtUtil jwtUtil;
-
-    @Autowired
-    private UserDetailsService userDetailsService;
-
-    @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
-            throws ServletException, IOException {
-
-        System.out.println("JwtAuthenticationFilter processing request: " + request.getRequestURI() +
-                          " with method: " + request.getMethod());
-
-        String authHeader = request.getHeader("Authorization");
-        System.out.println("JwtAuthenticationFilter: Authorization header value: " + authHeader);
-
-        String token = extractTokenFromRequest(request);
-        System.out.println("JwtAuthenticationFilter: Extracted token: " + token);
-
-        if (token != null && jwtUtil.validateToken(token)) {
-            String username = jwtUtil.getUsernameFromToken(token);
-
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-            UsernamePasswordAuthenticationToken authentication =
-                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            System.out.println("JwtAuthenticationFilter: Authenticated user " + username);
-        } else {
-            System.out.println("JwtAuthenticationFilter: No valid token found for " + request.getRequestURI());
-            if (token != null) {
-                System.out.println("JwtAuthenticationFilter: Token was found but validation failed");
-            } else {
-                System.out.println("JwtAuthenticationFilter: No token found in request");
-            }
-        }
-
-        filterChain.doFilter(request, response);
-    }
-
-    private String extractTokenFromRequest(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
-        }
-        return null;
-    }
-}
\ No newline at end of file
@@ -0,0 +1,216 @@
+package com.warehouse.warehousemanager.security;
+
+import com.warehouse.warehousemanager.entity.TrustLog;
+import com.warehouse.warehousemanager.exception.LoginThrottledException;
+import com.warehouse.warehousemanager.service.TrustLogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sliding-window throttle for failed logins, per username and per client IP.
+ * Counters live in a fixed number of stripes, each an LRU map with its own lock and size cap,
+ * so memory stays bounded however many usernames an attacker tries. Exceeding a limit locks
+ * the key out; each consecutive lockout doubles in length up to app.loginThrottleMaxLockoutMs.
+ * Lockouts are written to the trust log once each, not once per rejected attempt.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private TrustLogService trustLogService;
+
+    @Value("${app.loginThrottleWindowMs:300000}")
+    private long windowMs;
+
+    @Value("${app.loginThrottleMaxPerUsername:5}")
+    private int maxPerUsername;
+
+    @Value("${app.loginThrottleMaxPerIp:20}")
+    private int maxPerIp;
+
+    @Value("${app.loginThrottleBaseLockoutMs:60000}")
+    private long baseLockoutMs;
+
+    @Value("${app.loginThrottleMaxLockoutMs:3600000}")
+    private long maxLockoutMs;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder lockouts = new LongAdder();
+
+    public LoginThrottle(@Value("${app.loginThrottleMaxEntries:100000}") int maxEntries) {
+        int perStripe = Math.max(16, maxEntries / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Throws LoginThrottledException when the username or the IP is locked out
+     */
+    public void check(String username, String ipAddress) {
+        long now = System.currentTimeMillis();
+        long lockedUntil = Math.max(lockedUntil(userKey(username), now), lockedUntil(ipKey(ipAddress), now));
+        if (lockedUntil > now) {
+            rejected.increment();
+            throw new LoginThrottledException(
+                    Math.max(1, (lockedUntil - now + 999) / 1000));
+        }
+    }
+
+    public void recordFailure(String username, String ipAddress) {
+        long now = System.currentTimeMillis();
+        recordFailure(userKey(username), maxPerUsername, username, ipAddress, now);
+        recordFailure(ipKey(ipAddress), maxPerIp, username, ipAddress, now);
+    }
+
+    /**
+     * A successful login clears the username's failures; the IP keeps its count
+     */
+    public void recordSuccess(String username) {
+        String key = userKey(username);
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            stripe.entries.remove(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        int tracked = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                tracked += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedKeys", tracked);
+        stats.put("rejected", rejected.sum());
+        stats.put("lockouts", lockouts.sum());
+        return stats;
+    }
+
+    private long lockedUntil(String key, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Attempts attempts = stripe.entries.get(key);
+            return attempts != null ? attempts.lockedUntil : 0L;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void recordFailure(String key, int limit, String username, String ipAddress, long now) {
+        long lockoutMs = 0;
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Attempts attempts = stripe.entries.computeIfAbsent(key, k -> new Attempts(now));
+            attempts.roll(now, windowMs);
+            attempts.current++;
+            if (attempts.lockedUntil <= now && attempts.estimate(now, windowMs) > limit) {
+                lockoutMs = Math.min(maxLockoutMs, baseLockoutMs << Math.min(attempts.lockoutLevel, 20));
+                attempts.lockoutLevel++;
+                attempts.lockedUntil = now + lockoutMs;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (lockoutMs > 0) {
+            lockouts.increment();
+            logLockout(key, username, ipAddress, lockoutMs);
+        }
+    }
+
+    private void logLockout(String key, String username, String ipAddress, long lockoutMs) {
+        try {
+            TrustLog trustLog = new TrustLog(null, "auth", "login", ipAddress, 1.0, false,
+                    "Login throttled: " + key + " locked for " + lockoutMs / 1000 + "s");
+            trustLog.setUsername(username);
+            trustLogService.save(trustLog);
+        } catch (Exception e) {
+            // A failing trust log must not turn a lockout into a 500
+            System.err.println("Error logging login throttle decision: " + e.getMessage());
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static String userKey(String username) {
+        return "user:" + (username != null ? username : "");
+    }
+
+    private static String ipKey(String ipAddress) {
+        return "ip:" + (ipAddress != null ? ipAddress : "");
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Attempts> entries;
+
+        private Stripe(int maxEntries) {
+            // Access order, so the least recently used key is dropped when the stripe is full
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Attempts> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+    }
+
+    /**
+     * Two adjacent fixed windows; the previous one is weighted by how much of it still overlaps the sliding window
+     */
+    private static final class Attempts {
+        private long windowStart;
+        private int current;
+        private int previous;
+        private int lockoutLevel;
+        private long lockedUntil;
+
+        private Attempts(long now) {
+            this.windowStart = now;
+        }
+
+        private void roll(long now, long windowMs) {
+            long elapsedWindows = (now - windowStart) / windowMs;
+            if (elapsedWindows == 1) {
+                previous = current;
+            } else if (elapsedWindows > 1) {
+                previous = 0;
+                // A full quiet window forgives earlier lockouts
+                lockoutLevel = 0;
+            }
+            if (elapsedWindows > 0) {
+                current = 0;
+                windowStart += elapsedWindows * windowMs;
+            }
+        }
+
+        private double estimate(long now, long windowMs) {
+            double overlap = 1.0 - (double) (now - windowStart) / windowMs;
+            return current + previous * Math.max(0.0, overlap);
+        }
+    }
+}
@@ -1,15 +1,18 @@
 package com.warehouse.warehousemanager.security;
 
+import com.warehouse.warehousemanager.security.pipeline.AuthenticationPipeline;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -26,13 +29,10 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     @Autowired
-    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    private AuthenticationPipeline authenticationPipeline;
 
-    @Autowired
-    private TeleportIdentityFilter teleportIdentityFilter;
-
-    @Autowired
-    private CustomCorsFilter customCorsFilter;
+    @Value("${app.passwordHashStrength:10}")
+    private int passwordHashStrength;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -49,19 +49,40 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 );
 
-        // Add custom CORS filter first to handle CORS headers on all responses including redirects
-        // Then TeleportIdentityFilter (for requests coming through Teleport)
-        // Then JwtAuthenticationFilter (for direct API calls with JWT tokens)
-        http.addFilterBefore(customCorsFilter, org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class);
-        http.addFilterBefore(teleportIdentityFilter, UsernamePasswordAuthenticationFilter.class);
-        http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // CustomCorsFilter is a servlet filter at HIGHEST_PRECEDENCE, so it has already run by now.
+        // One pipeline resolves identity: Teleport assertion, then Teleport headers, then bearer token
+        http.addFilterBefore(authenticationPipeline, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
+    /**
+     * Keep Spring Boot from also registering the pipeline as a plain servlet filter
+     */
+    @Bean
+    public FilterRegistrationBean<AuthenticationPipeline> authenticationPipelineRegistration() {
+        FilterRegistrationBean<AuthenticationPipeline> registration = new FilterRegistrationBean<>(authenticationPipeline);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new RehashingBCryptPasswordEncoder(passwordHashStrength);
+    }
+
+    /**
+     * Login checks passwords against CustomUserDetailsService directly,
+     * bypassing the CachedUserDetailsService used by the request filters.
+     * Hashes with a different cost than app.passwordHashStrength are rewritten after a successful login.
+     */
+    @Bean
+    public DaoAuthenticationProvider authenticationProvider(CustomUserDetailsService customUserDetailsService) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(customUserDetailsService);
+        provider.setPasswordEncoder(passwordEncoder());
+        provider.setUserDetailsPasswordService(customUserDetailsService);
+        return provider;
     }
 
     @Bean
@@ -0,0 +1,118 @@
+package com.warehouse.warehousemanager.security;
+
+import com.warehouse.warehousemanager.util.ExpiringCache;
+import com.warehouse.warehousemanager.util.HashUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Verifies the teleport-jwt-assertion header against Teleport's JWKS.
+ * Verified identities are cached by assertion digest until the assertion expires,
+ * so repeated requests through the proxy skip both parsing and the signature check.
+ */
+@Component
+public class TeleportAssertionVerifier {
+
+    // Teleport and this service do not share a clock
+    private static final long ALLOWED_CLOCK_SKEW_SECONDS = 30;
+
+    @Autowired
+    private TeleportJwksProvider jwksProvider;
+
+    private final ExpiringCache<String, TeleportIdentity> cache;
+
+    public TeleportAssertionVerifier(@Value("${app.teleportIdentityCacheMaxSize:10000}") int maxSize) {
+        this.cache = new ExpiringCache<>(maxSize);
+    }
+
+    /**
+     * Returns the identity in the assertion, or null if it cannot be verified
+     */
+    public TeleportIdentity verify(String assertion) {
+        String digest = HashUtil.sha256Hex(assertion);
+        TeleportIdentity cached = cache.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = verifySignature(assertion);
+        if (claims == null || claims.getExpiration() == null) {
+            return null;
+        }
+
+        TeleportIdentity identity = toIdentity(claims);
+        if (identity.getUsername() == null || identity.getUsername().isEmpty()) {
+            return null;
+        }
+        cache.put(digest, identity, identity.getExpiresAt());
+        return identity;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>(cache.stats());
+        stats.put("jwksConfigured", jwksProvider.isConfigured());
+        stats.put("jwksKeys", jwksProvider.getKeys().size());
+        return stats;
+    }
+
+    private Claims verifySignature(String assertion) {
+        Map<String, PublicKey> keys = jwksProvider.getKeys();
+        if (keys.isEmpty()) {
+            jwksProvider.reloadIfStale();
+            keys = jwksProvider.getKeys();
+        }
+
+        for (PublicKey key : keys.values()) {
+            try {
+                return Jwts.parserBuilder()
+                        .setSigningKey(key)
+                        .setAllowedClockSkewSeconds(ALLOWED_CLOCK_SKEW_SECONDS)
+                        .build()
+                        .parseClaimsJws(assertion)
+                        .getBody();
+            } catch (io.jsonwebtoken.security.SignatureException e) {
+                // Signed with a different key, try the next one
+            } catch (JwtException | IllegalArgumentException e) {
+                // Expired or malformed, no other key will help
+                return null;
+            }
+        }
+
+        // Nothing matched; Teleport may have rotated its keys
+        jwksProvider.reloadIfStale();
+        return null;
+    }
+
+    private TeleportIdentity toIdentity(Claims claims) {
+        // Username from 'sub' (subject) or 'username' claim
+        String username = claims.getSubject();
+        if (username == null || username.isEmpty()) {
+            username = claims.get("username", String.class);
+        }
+
+        String email = claims.get("email") instanceof String value ? value : "";
+
+        List<String> roles = new ArrayList<>();
+        Object rolesObj = claims.get("roles");
+        if (rolesObj instanceof Collection<?> rolesList) {
+            for (Object role : rolesList) {
+                roles.add(role.toString());
+            }
+        } else if (rolesObj instanceof String role) {
+            roles.add(role);
+        }
+
+        return new TeleportIdentity(username, email, roles, claims.getExpiration().getTime());
+    }
+}
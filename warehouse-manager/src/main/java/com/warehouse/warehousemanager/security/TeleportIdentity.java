@@ -0,0 +1,36 @@
+package com.warehouse.warehousemanager.security;
+
+import java.util.List;
+
+/**
+ * Identity carried by a verified Teleport JWT assertion
+ */
+public class TeleportIdentity {
+    private final String username;
+    private final String email;
+    private final List<String> roles;
+    private final long expiresAt;
+
+    public TeleportIdentity(String username, String email, List<String> roles, long expiresAt) {
+        this.username = username;
+        this.email = email;
+        this.roles = roles != null ? List.copyOf(roles) : List.of();
+        this.expiresAt = expiresAt;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+}
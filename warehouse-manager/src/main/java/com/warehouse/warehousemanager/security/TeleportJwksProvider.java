@@ -0,0 +1,112 @@
+package com.warehouse.warehousemanager.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds Teleport's JWT signing keys (JWKS).
+ * The key set is read from app.teleportJwksLocation, which can be a local file
+ * (file:...) or a local stand-in endpoint (http://...), and refreshed in the background.
+ * Readers always see a complete, immutable key map.
+ */
+@Component
+public class TeleportJwksProvider {
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${app.teleportJwksLocation:}")
+    private String jwksLocation;
+
+    // Minimum time between on-demand reloads triggered by an unknown key id
+    @Value("${app.teleportJwksMinReloadIntervalMs:30000}")
+    private long minReloadIntervalMs;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+
+    private volatile long lastLoadAttempt;
+
+    @PostConstruct
+    void init() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.teleportJwksRefreshMs:300000}",
+               initialDelayString = "${app.teleportJwksRefreshMs:300000}")
+    public void refresh() {
+        lastLoadAttempt = System.currentTimeMillis();
+        if (!isConfigured()) {
+            return;
+        }
+
+        try {
+            Resource resource = resourceLoader.getResource(jwksLocation);
+            try (InputStream in = resource.getInputStream()) {
+                keys = parseKeys(objectMapper.readTree(in));
+            }
+        } catch (Exception e) {
+            // Keep serving the previous key set; Teleport rotates keys rarely
+            System.err.println("Could not load Teleport JWKS from " + jwksLocation + ": " + e.getMessage());
+        }
+    }
+
+    public boolean isConfigured() {
+        return jwksLocation != null && !jwksLocation.isBlank();
+    }
+
+    /**
+     * Keys indexed by "kid". Teleport often leaves kid empty; such keys get a positional "#n" name.
+     */
+    public Map<String, PublicKey> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Reload the key set when a token names a key we do not know, at most once per interval
+     */
+    public void reloadIfStale() {
+        if (System.currentTimeMillis() - lastLoadAttempt >= minReloadIntervalMs) {
+            refresh();
+        }
+    }
+
+    private Map<String, PublicKey> parseKeys(JsonNode jwks) throws Exception {
+        Map<String, PublicKey> parsed = new LinkedHashMap<>();
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+
+        for (JsonNode key : jwks.path("keys")) {
+            if (!"RSA".equals(key.path("kty").asText())) {
+                continue;
+            }
+            if (key.hasNonNull("use") && !"sig".equals(key.path("use").asText())) {
+                continue;
+            }
+            BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(key.path("n").asText()));
+            BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(key.path("e").asText()));
+            PublicKey publicKey = keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent));
+            String kid = key.path("kid").asText("");
+            // Keys without an id are still usable: the verifier tries every key when kid does not match
+            parsed.put(kid.isEmpty() || parsed.containsKey(kid) ? "#" + parsed.size() : kid, publicKey);
+        }
+
+        return Map.copyOf(parsed);
+    }
+}
@@ -0,0 +1,141 @@
+package com.warehouse.warehousemanager.security;
+
+import com.warehouse.warehousemanager.entity.User;
+import com.warehouse.warehousemanager.repository.UserRepository;
+import com.warehouse.warehousemanager.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Just-in-time provisioning of Teleport users.
+ * Off by default. When enabled, the first time a Teleport identity without a database row
+ * is seen and one of its Teleport roles is on the allow-list, a shadow USER is written with
+ * the default permissions, so the policy enforcement point can evaluate it like any other
+ * user. Provisioning never grants ADMIN; admins are promoted explicitly through the users API.
+ * Rejected identities are remembered for a short time, keyed by everything the decision
+ * depends on, so they are not re-evaluated on every request.
+ */
+@Component
+public class TeleportUserProvisioner {
+
+    // Not a BCrypt hash, so password login can never succeed for a shadow user
+    public static final String UNUSABLE_PASSWORD = "!teleport";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CachedUserDetailsService cachedUserDetailsService;
+
+    @Autowired
+    private UserVersionRegistry userVersionRegistry;
+
+    @Value("${app.teleportJitProvisioning:false}")
+    private boolean enabled;
+
+    // Header identities are not signed, so they are only provisioned when explicitly allowed
+    @Value("${app.teleportJitFromHeaders:false}")
+    private boolean provisionFromHeaders;
+
+    // Teleport roles that may be provisioned; empty means none
+    @Value("${app.teleportJitAllowedRoles:}")
+    private Set<String> allowedRoles;
+
+    @Value("${app.teleportJitDefaultPermissions:products:read,imports:read,exports:read}")
+    private Set<String> defaultPermissions;
+
+    @Value("${app.teleportJitRejectTtlMs:60000}")
+    private long rejectTtlMs;
+
+    private final ExpiringCache<String, Boolean> rejected;
+
+    private final LongAdder provisioned = new LongAdder();
+
+    private final LongAdder rejections = new LongAdder();
+
+    public TeleportUserProvisioner(@Value("${app.teleportJitRejectCacheMaxSize:10000}") int maxSize) {
+        this.rejected = new ExpiringCache<>(maxSize);
+    }
+
+    /**
+     * Returns the user details for a Teleport identity, provisioning a shadow user if needed.
+     * Returns null when the identity has no row and must not be provisioned.
+     */
+    public UserDetails resolve(String username, Collection<String> teleportRoles, boolean verified) {
+        UserDetails existing = cachedUserDetailsService.loadUserIfPresent(username);
+        if (existing != null) {
+            return existing;
+        }
+
+        // An unsigned identity claiming the same name must not shadow the verified decision
+        String rejectKey = rejectKey(username, teleportRoles, verified);
+        if (rejected.get(rejectKey) != null) {
+            return null;
+        }
+
+        if (!isProvisionable(username, teleportRoles, verified)) {
+            rejections.increment();
+            rejected.put(rejectKey, Boolean.TRUE, System.currentTimeMillis() + rejectTtlMs);
+            return null;
+        }
+
+        provision(username);
+        return cachedUserDetailsService.loadUserIfPresent(username);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("provisioned", provisioned.sum());
+        stats.put("rejections", rejections.sum());
+        stats.put("rejectCache", rejected.stats());
+        return stats;
+    }
+
+    private boolean isProvisionable(String username, Collection<String> teleportRoles, boolean verified) {
+        if (!enabled || (!verified && !provisionFromHeaders)) {
+            return false;
+        }
+        if (username == null || username.isBlank() || teleportRoles == null || teleportRoles.isEmpty()) {
+            return false;
+        }
+        return teleportRoles.stream().anyMatch(allowedRoles::contains);
+    }
+
+    private void provision(String username) {
+        // Least privilege: Teleport roles decide whether a user is provisioned, never what it may do
+        User user = new User(username, UNUSABLE_PASSWORD, User.Role.USER);
+        user.setPermissions(new HashSet<>(defaultPermissions));
+
+        try {
+            User savedUser = userRepository.save(user);
+            userVersionRegistry.update(savedUser);
+            provisioned.increment();
+            System.out.println("Provisioned Teleport user " + username + " with role " + User.Role.USER);
+        } catch (DataIntegrityViolationException e) {
+            // Another request provisioned the same user first
+        }
+        cachedUserDetailsService.evict(username);
+    }
+
+    private static String rejectKey(String username, Collection<String> teleportRoles, boolean verified) {
+        String roles = teleportRoles == null ? "" : teleportRoles.stream()
+                .filter(Objects::nonNull)
+                .sorted()
+                .distinct()
+                .collect(Collectors.joining(","));
+        return username + "|" + verified + "|" + roles;
+    }
+}
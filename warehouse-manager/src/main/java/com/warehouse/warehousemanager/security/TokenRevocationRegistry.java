@@ -0,0 +1,145 @@
+package com.warehouse.warehousemanager.security;
+
+import com.warehouse.warehousemanager.util.BloomFilter;
+import com.warehouse.warehousemanager.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Revoked access tokens, by token id (jti), plus per-user "revoked before" cut-offs.
+ * A Bloom filter sits in front of the exact sets, so a token that was never revoked
+ * is accepted after a couple of lock-free bit reads. Entries only need to live until
+ * the tokens they refer to expire; the filter is rebuilt periodically without them.
+ * Revocations are kept in memory only and are lost on restart.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final String TOKEN_PREFIX = "j:";
+    private static final String USER_PREFIX = "u:";
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private final long bloomBits;
+    private final int bloomProbes;
+
+    private volatile BloomFilter filter;
+
+    // jti -> expiry of the revoked token
+    private final ConcurrentHashMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    // username -> tokens issued at or before this instant are revoked
+    private final ConcurrentHashMap<String, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder filterHits = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    public TokenRevocationRegistry(@Value("${app.tokenRevocationBloomBits:1048576}") long bloomBits,
+                                   @Value("${app.tokenRevocationBloomProbes:4}") int bloomProbes) {
+        this.bloomBits = bloomBits;
+        this.bloomProbes = bloomProbes;
+        this.filter = new BloomFilter(bloomBits, bloomProbes);
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        checks.increment();
+        BloomFilter current = filter;
+        boolean tokenMayBeRevoked = token.getTokenId() != null && current.mightContain(TOKEN_PREFIX + token.getTokenId());
+        boolean userMayBeRevoked = current.mightContain(USER_PREFIX + token.getUsername());
+        if (!tokenMayBeRevoked && !userMayBeRevoked) {
+            return false;
+        }
+
+        filterHits.increment();
+        boolean revoked = (tokenMayBeRevoked && revokedTokens.containsKey(token.getTokenId()))
+                || (userMayBeRevoked && token.getIssuedAt() <= revokedBefore.getOrDefault(token.getUsername(), Long.MIN_VALUE));
+        if (revoked) {
+            rejections.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * Revoke one token; used on logout
+     */
+    public void revoke(VerifiedToken token, String rawToken) {
+        if (token.getTokenId() != null) {
+            revokeTokenId(token.getTokenId(), token.getExpiresAt());
+        } else {
+            // Tokens from before jti was added can only be revoked together with the rest of the user's tokens
+            revokeUser(token.getUsername());
+        }
+        if (rawToken != null) {
+            verifiedTokenCache.invalidate(rawToken);
+        }
+    }
+
+    /**
+     * Revoke a token by id when only the id is known; it is kept for the longest possible token lifetime
+     */
+    public void revokeTokenId(String tokenId, long expiresAt) {
+        // Exact set first, so a concurrent rebuild that copies the set cannot miss it
+        revokedTokens.put(tokenId, expiresAt);
+        filter.add(TOKEN_PREFIX + tokenId);
+    }
+
+    public void revokeTokenId(String tokenId) {
+        revokeTokenId(tokenId, System.currentTimeMillis() + jwtUtil.getExpirationInMs());
+    }
+
+    /**
+     * Revoke every access token issued to the user up to now.
+     * iat only has one-second precision, so every token from the current second is rejected, including
+     * one from a login right after the revocation; that login has to be repeated once the second is over.
+     */
+    public void revokeUser(String username) {
+        revokedBefore.put(username, System.currentTimeMillis());
+        filter.add(USER_PREFIX + username);
+        verifiedTokenCache.invalidateUser(username);
+    }
+
+    /**
+     * Drop entries whose tokens have expired anyway and rebuild the filter without them
+     */
+    @Scheduled(fixedDelayString = "${app.tokenRevocationRebuildMs:300000}")
+    public synchronized void rebuild() {
+        long now = System.currentTimeMillis();
+        long maxTokenAge = jwtUtil.getExpirationInMs();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedBefore.values().removeIf(cutoff -> cutoff + maxTokenAge <= now);
+
+        BloomFilter rebuilt = new BloomFilter(bloomBits, bloomProbes);
+        copyInto(rebuilt);
+        filter = rebuilt;
+        // Revocations that landed in the old filter while copying are in the maps by now
+        copyInto(rebuilt);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("revokedTokens", revokedTokens.size());
+        stats.put("revokedUsers", revokedBefore.size());
+        stats.put("bloomBits", filter.getBitCount());
+        stats.put("checks", checks.sum());
+        stats.put("filterHits", filterHits.sum());
+        stats.put("rejections", rejections.sum());
+        return stats;
+    }
+
+    private void copyInto(BloomFilter target) {
+        revokedTokens.keySet().forEach(tokenId -> target.add(TOKEN_PREFIX + tokenId));
+        revokedBefore.keySet().forEach(username -> target.add(USER_PREFIX + username));
+    }
+}
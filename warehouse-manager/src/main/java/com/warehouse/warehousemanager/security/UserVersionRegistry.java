@@ -0,0 +1,73 @@
+package com.warehouse.warehousemanager.security;
+
+import com.warehouse.warehousemanager.entity.User;
+import com.warehouse.warehousemanager.repository.UserRepository;
+import com.warehouse.warehousemanager.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-side view of each user's current token version.
+ * A self-contained access token is only accepted while its "ver" claim matches,
+ * so changing a user's role or permissions forces them to log in again.
+ * Versions are loaded from the database on first use and kept up to date by UserService.
+ * The cache is bounded and entries expire, so only recently active users are held;
+ * the database stays the source of truth for the rest.
+ */
+@Component
+public class UserVersionRegistry {
+
+    // Marker for usernames that have no row in the database
+    private static final long MISSING = -1L;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ExpiringCache<String, Long> versions;
+
+    private final long ttlMs;
+
+    // Bumped by every update, so a database read that raced with one is not cached
+    private final AtomicLong updates = new AtomicLong();
+
+    public UserVersionRegistry(@Value("${app.userVersionCacheMaxSize:10000}") int maxSize,
+                               @Value("${app.userVersionCacheTtlMs:600000}") long ttlMs) {
+        this.versions = new ExpiringCache<>(maxSize);
+        this.ttlMs = ttlMs;
+    }
+
+    public boolean isCurrent(String username, long tokenVersion) {
+        Long current = versions.get(username);
+        if (current == null) {
+            long before = updates.get();
+            current = loadVersion(username);
+            if (updates.get() == before) {
+                versions.put(username, current, System.currentTimeMillis() + ttlMs);
+            }
+        }
+        return current != MISSING && current == tokenVersion;
+    }
+
+    public void update(User user) {
+        updates.incrementAndGet();
+        versions.put(user.getUsername(), user.getTokenVersion(), System.currentTimeMillis() + ttlMs);
+    }
+
+    public void remove(String username) {
+        updates.incrementAndGet();
+        versions.remove(username);
+    }
+
+    public int size() {
+        return versions.size();
+    }
+
+    private long loadVersion(String username) {
+        return userRepository.findByUsername(username)
+                .map(User::getTokenVersion)
+                .orElse(MISSING);
+    }
+}
@@ -0,0 +1,66 @@
+package com.warehouse.warehousemanager.security;
+
+import java.util.Set;
+
+/**
+ * Result of a successful access token verification, kept in the VerifiedTokenCache
+ */
+public class VerifiedToken {
+    private final String tokenId;
+    private final String username;
+    private final long issuedAt;
+    private final long expiresAt;
+    private final String role;
+    private final Set<String> permissions;
+    private final Long version;
+
+    public VerifiedToken(String tokenId, String username, long issuedAt, long expiresAt,
+                         String role, Set<String> permissions, Long version) {
+        this.tokenId = tokenId;
+        this.username = username;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+        this.role = role;
+        this.permissions = permissions != null ? Set.copyOf(permissions) : Set.of();
+        this.version = version;
+    }
+
+    /**
+     * The jti claim; null for tokens issued before token ids were added
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Set<String> getPermissions() {
+        return permissions;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Tokens issued before role/permission claims were added carry no role and
+     * still need the user to be loaded from the database
+     */
+    public boolean isSelfContained() {
+        return role != null && version != null;
+    }
+}
@@ -0,0 +1,95 @@
+package com.warehouse.warehousemanager.security;
+
+import com.warehouse.warehousemanager.util.ExpiringCache;
+import com.warehouse.warehousemanager.util.HashUtil;
+import com.warehouse.warehousemanager.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Caches verified access tokens by SHA-256 digest until the token's own expiry,
+ * so repeated requests with the same token skip HMAC verification and claim parsing.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final ExpiringCache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${app.tokenCacheMaxSize:10000}") int maxSize) {
+        this.cache = new ExpiringCache<>(maxSize);
+    }
+
+    /**
+     * Returns the verified token, or null if the token is invalid or expired
+     */
+    public VerifiedToken verify(String token) {
+        String digest = HashUtil.sha256Hex(token);
+        VerifiedToken cached = cache.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        VerifiedToken verified = new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L,
+                claims.getExpiration().getTime(),
+                claims.get(JwtUtil.CLAIM_ROLE, String.class),
+                readPermissions(claims),
+                readVersion(claims));
+        cache.put(digest, verified, verified.getExpiresAt());
+        return verified;
+    }
+
+    /**
+     * Revocation hook: drop a single token from the cache
+     */
+    public void invalidate(String token) {
+        cache.remove(HashUtil.sha256Hex(token));
+    }
+
+    /**
+     * Revocation hook: drop every cached token belonging to a user
+     */
+    public void invalidateUser(String username) {
+        cache.removeIf((digest, verified) -> verified.getUsername().equals(username));
+    }
+
+    private Set<String> readPermissions(Claims claims) {
+        Object value = claims.get(JwtUtil.CLAIM_PERMISSIONS);
+        Set<String> permissions = new HashSet<>();
+        if (value instanceof Collection<?> collection) {
+            for (Object permission : collection) {
+                permissions.add(permission.toString());
+            }
+        }
+        return permissions;
+    }
+
+    private Long readVersion(Claims claims) {
+        Object value = claims.get(JwtUtil.CLAIM_VERSION);
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    public Map<String, Object> stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,95 @@
+package com.warehouse.warehousemanager.security.pipeline;
+
+import com.warehouse.warehousemanager.security.TokenRevocationRegistry;
+import com.warehouse.warehousemanager.security.UserVersionRegistry;
+import com.warehouse.warehousemanager.security.VerifiedToken;
+import com.warehouse.warehousemanager.security.VerifiedTokenCache;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Priority 3: application access token in the Authorization header (direct API calls)
+ */
+@Component
+@Order(3)
+public class BearerTokenResolver implements IdentityResolver {
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserVersionRegistry userVersionRegistry;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Override
+    public String getName() {
+        return "bearer-token";
+    }
+
+    @Override
+    public Authentication resolve(HttpServletRequest request) {
+        String token = extractTokenFromRequest(request);
+        if (token == null) {
+            return null;
+        }
+
+        VerifiedToken verifiedToken = verifiedTokenCache.verify(token);
+        if (verifiedToken == null || tokenRevocationRegistry.isRevoked(verifiedToken)) {
+            return null;
+        }
+
+        String username = verifiedToken.getUsername();
+        UserDetails userDetails;
+        if (verifiedToken.isSelfContained()) {
+            if (!userVersionRegistry.isCurrent(username, verifiedToken.getVersion())) {
+                // Role or permissions changed since the token was issued, the user must log in again
+                return null;
+            }
+            // Build the principal straight from the verified claims, no database access
+            userDetails = createUserFromClaims(verifiedToken);
+        } else {
+            // Token issued before role and permission claims were added
+            userDetails = userDetailsService.loadUserByUsername(username);
+        }
+
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    private UserDetails createUserFromClaims(VerifiedToken verifiedToken) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority("ROLE_" + verifiedToken.getRole()));
+        for (String permission : verifiedToken.getPermissions()) {
+            authorities.add(new SimpleGrantedAuthority(permission));
+        }
+
+        return new org.springframework.security.core.userdetails.User(
+                verifiedToken.getUsername(),
+                "",
+                authorities
+        );
+    }
+
+    private String extractTokenFromRequest(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+}
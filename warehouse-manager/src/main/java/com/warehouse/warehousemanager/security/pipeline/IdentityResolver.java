@@ -0,0 +1,21 @@
+package com.warehouse.warehousemanager.security.pipeline;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.core.Authentication;
+
+/**
+ * One way of establishing who is making a request.
+ * Resolvers are run in @Order by the AuthenticationPipeline, which stops at the first match.
+ */
+public interface IdentityResolver {
+
+    /**
+     * Short name used in latency metrics
+     */
+    String getName();
+
+    /**
+     * Returns the authentication for this request, or null if this resolver does not apply
+     */
+    Authentication resolve(HttpServletRequest request);
+}
@@ -0,0 +1,83 @@
+package com.warehouse.warehousemanager.security.pipeline;
+
+import com.warehouse.warehousemanager.security.TeleportAssertionVerifier;
+import com.warehouse.warehousemanager.security.TeleportIdentity;
+import com.warehouse.warehousemanager.security.TeleportUserProvisioner;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Priority 1: identity from a verified teleport-jwt-assertion header
+ */
+@Component
+@Order(1)
+public class TeleportAssertionResolver implements IdentityResolver {
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    @Autowired
+    private TeleportAssertionVerifier teleportAssertionVerifier;
+
+    @Autowired
+    private TeleportUserProvisioner teleportUserProvisioner;
+
+    @Override
+    public String getName() {
+        return "teleport-assertion";
+    }
+
+    @Override
+    public Authentication resolve(HttpServletRequest request) {
+        String teleportJwt = request.getHeader("teleport-jwt-assertion");
+        if (teleportJwt == null || teleportJwt.isEmpty()) {
+            return null;
+        }
+
+        // Verify the assertion signature against Teleport's JWKS (cached per assertion)
+        TeleportIdentity identity = teleportAssertionVerifier.verify(teleportJwt);
+        if (identity == null) {
+            // Let the header resolver try instead
+            logger.warn("Teleport JWT assertion could not be verified, falling back to headers");
+            return null;
+        }
+
+        logger.debug(String.format("Teleport JWT authenticated: user=%s, email=%s, roles=%s",
+            identity.getUsername(),
+            identity.getEmail(),
+            identity.getRoles()));
+
+        return createTeleportAuthenticationFromJwt(identity);
+    }
+
+    /**
+     * Create authentication from Teleport JWT identity
+     */
+    private Authentication createTeleportAuthenticationFromJwt(TeleportIdentity identity) {
+        // Existing or just-provisioned user; null only when the identity may not be provisioned
+        UserDetails userDetails = teleportUserProvisioner.resolve(identity.getUsername(), identity.getRoles(), true);
+        if (userDetails == null) {
+            userDetails = createUserFromTeleportIdentity(identity);
+        }
+
+        // Teleport roles decide who gets in, never what they may do here; only the local user grants roles
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    /**
+     * Create user details from Teleport JWT identity when the user has no row and may not be provisioned
+     */
+    private UserDetails createUserFromTeleportIdentity(TeleportIdentity identity) {
+        return org.springframework.security.core.userdetails.User.builder()
+            .username(identity.getUsername())
+            .password("")
+            .authorities("ROLE_USER")
+            .build();
+    }
+}
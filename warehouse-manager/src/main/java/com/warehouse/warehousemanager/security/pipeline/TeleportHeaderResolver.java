@@ -0,0 +1,112 @@
+package com.warehouse.warehousemanager.security.pipeline;
+
+import com.warehouse.warehousemanager.security.TeleportUserProvisioner;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Priority 2: identity forwarded by the Teleport proxy in plain headers
+ */
+@Component
+@Order(2)
+public class TeleportHeaderResolver implements IdentityResolver {
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    @Autowired
+    private TeleportUserProvisioner teleportUserProvisioner;
+
+    @Override
+    public String getName() {
+        return "teleport-headers";
+    }
+
+    @Override
+    public Authentication resolve(HttpServletRequest request) {
+        String teleportUser = extractTeleportUser(request);
+        if (teleportUser == null || teleportUser.isEmpty()) {
+            return null;
+        }
+
+        Authentication authentication = createTeleportAuthentication(request, teleportUser);
+        logger.debug(String.format("Teleport identity authenticated from headers: user=%s", teleportUser));
+        return authentication;
+    }
+
+    /**
+     * Extract Teleport user from headers
+     * Teleport can send identity in different header formats
+     */
+    private String extractTeleportUser(HttpServletRequest request) {
+        // Try different header formats that Teleport might use
+        String user = request.getHeader("X-Forwarded-User");
+        if (user == null || user.isEmpty()) {
+            user = request.getHeader("X-Teleport-User");
+        }
+        if (user == null || user.isEmpty()) {
+            user = request.getHeader("X-Remote-User");
+        }
+        return user;
+    }
+
+    /**
+     * Create Spring Security authentication from Teleport identity
+     */
+    private Authentication createTeleportAuthentication(HttpServletRequest request, String teleportUser) {
+        // Load user from database by username, provisioning it when allowed
+        // If user doesn't exist, we'll create a basic authentication
+        UserDetails userDetails = teleportUserProvisioner.resolve(teleportUser, extractGroups(request), false);
+        if (userDetails == null) {
+            userDetails = createUserFromTeleportIdentity(teleportUser);
+        }
+
+        // Teleport groups decide who gets in, never what they may do here; only the local user grants roles
+        return new UsernamePasswordAuthenticationToken(
+            userDetails,
+            null, // No credentials needed (already authenticated by Teleport)
+            userDetails.getAuthorities()
+        );
+    }
+
+    /**
+     * Create user details from Teleport identity when user doesn't exist in database
+     */
+    private UserDetails createUserFromTeleportIdentity(String username) {
+        return org.springframework.security.core.userdetails.User.builder()
+            .username(username)
+            .password("") // No password needed (authenticated by Teleport)
+            .authorities("ROLE_USER")
+            .build();
+    }
+
+    /**
+     * Extract Teleport groups from headers
+     */
+    private List<String> extractGroups(HttpServletRequest request) {
+        String groupsHeader = request.getHeader("X-Forwarded-Groups");
+        if (groupsHeader == null) {
+            groupsHeader = request.getHeader("X-Teleport-Groups");
+        }
+
+        List<String> groups = new ArrayList<>();
+        if (groupsHeader != null && !groupsHeader.isEmpty()) {
+            for (String group : groupsHeader.split(",")) {
+                group = group.trim();
+                if (!group.isEmpty()) {
+                    groups.add(group);
+                }
+            }
+        }
+        return groups;
+    }
+}
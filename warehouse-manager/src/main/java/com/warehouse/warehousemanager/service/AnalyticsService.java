@@ -0,0 +1,449 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.entity.AnalyticsRun;
+import com.warehouse.warehousemanager.entity.ProductAnalytics;
+import com.warehouse.warehousemanager.exception.ServiceBusyException;
+import com.warehouse.warehousemanager.repository.AnalyticsRunRepository;
+import com.warehouse.warehousemanager.repository.ProductAnalyticsRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Batch demand forecasts, reorder suggestions and ABC classes for the catalog.
+ * A run reads the export history of the analysis window once, from the daily movement
+ * rollup (units out per product and day, corrections already applied), groups it by
+ * product and computes every product's forecast on a ForkJoinPool in slices. Results
+ * are upserted into product_analytics, then ABC classes are reassigned over all rows by
+ * cumulative share of units exported. Incremental runs only reprocess products with
+ * stock ledger entries after the previous run's watermark, plus products never analysed.
+ */
+@Service
+public class AnalyticsService {
+
+    // About 95% of demand during the lead time is covered by the safety stock
+    private static final double SERVICE_LEVEL_Z = 1.65;
+
+    private static final double CLASS_A_SHARE = 0.80;
+    private static final double CLASS_B_SHARE = 0.95;
+
+    // Products per ForkJoin leaf task
+    private static final int SLICE = 256;
+
+    // Product ids per IN (...) list when loading the history of changed products
+    private static final int ID_CHUNK = 500;
+
+    private static final String UPSERT = "INSERT INTO product_analytics " +
+            "(product_id, units_out, average_daily_demand, demand_std_dev, suggested_reorder_point, suggested_order_quantity, computed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT(product_id) DO UPDATE SET " +
+            "units_out = excluded.units_out, average_daily_demand = excluded.average_daily_demand, " +
+            "demand_std_dev = excluded.demand_std_dev, suggested_reorder_point = excluded.suggested_reorder_point, " +
+            "suggested_order_quantity = excluded.suggested_order_quantity, computed_at = excluded.computed_at";
+
+    @Autowired
+    private ProductAnalyticsRepository analyticsRepository;
+
+    @Autowired
+    private AnalyticsRunRepository runRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ReservedStock reservedStock;
+
+    @Value("${app.analyticsWindowDays:90}")
+    private int windowDays;
+
+    @Value("${app.analyticsMovingAverageDays:28}")
+    private int movingAverageDays;
+
+    @Value("${app.analyticsLeadTimeDays:7}")
+    private int leadTimeDays;
+
+    @Value("${app.analyticsCoverDays:14}")
+    private int coverDays;
+
+    @Value("${app.analyticsFullRunIntervalMs:86400000}")
+    private long fullRunIntervalMs;
+
+    private final ForkJoinPool pool;
+
+    // Runs execute here one at a time, whether started through the API or by the timer
+    private final ExecutorService runner;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder failedRuns = new LongAdder();
+    private final LongAdder productsProcessed = new LongAdder();
+
+    private volatile long lastRunMillis;
+
+    public AnalyticsService(@Value("${app.analyticsParallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analytics-run");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void init() {
+        transactionTemplate.executeWithoutResult(status -> runRepository.failInterrupted(
+                AnalyticsRun.Status.RUNNING, AnalyticsRun.Status.FAILED, LocalDateTime.now()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    /**
+     * Start a run in the background; an incremental run becomes a full one if nothing was analysed yet
+     */
+    public AnalyticsRun start(boolean full) {
+        if (!running.compareAndSet(false, true)) {
+            throw new ServiceBusyException("An analytics run is already in progress");
+        }
+        try {
+            return submit(full);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Incremental run on a timer, full once the last full run is older than app.analyticsFullRunIntervalMs.
+     * The run itself goes to the runner like one started through the API, so it does not hold up the
+     * scheduler thread shared with every other @Scheduled task.
+     */
+    @Scheduled(fixedDelayString = "${app.analyticsIntervalMs:3600000}", initialDelayString = "${app.analyticsIntervalMs:3600000}")
+    public void scheduledRun() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Optional<AnalyticsRun> lastFull = runRepository.findTopByStatusAndFullOrderByIdDesc(AnalyticsRun.Status.COMPLETED, true);
+            boolean full = lastFull.isEmpty()
+                    || lastFull.get().getStartedAt().isBefore(LocalDateTime.now().minus(fullRunIntervalMs, ChronoUnit.MILLIS));
+            submit(full);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    public Optional<AnalyticsRun> latestRun() {
+        return runRepository.findTopByOrderByIdDesc();
+    }
+
+    public Optional<ProductAnalytics> findByProductId(Long productId) {
+        return analyticsRepository.findByProductId(productId);
+    }
+
+    /**
+     * Products by units exported, highest first, optionally of one ABC class
+     */
+    public List<ProductAnalytics> findProducts(String abcClass, int limit) {
+        return abcClass != null
+                ? analyticsRepository.findByAbcClassOrderByUnitsOutDescProductIdAsc(abcClass, PageRequest.of(0, limit))
+                : analyticsRepository.findAllByOrderByUnitsOutDescProductIdAsc(PageRequest.of(0, limit));
+    }
+
+    /**
+     * Products that should be reordered, largest suggested order first
+     */
+    public List<ProductAnalytics> findReorderSuggestions(int limit) {
+        return analyticsRepository.findBySuggestedOrderQuantityGreaterThanOrderBySuggestedOrderQuantityDesc(0, PageRequest.of(0, limit));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", running.get());
+        stats.put("runs", runs.sum());
+        stats.put("failedRuns", failedRuns.sum());
+        stats.put("productsProcessed", productsProcessed.sum());
+        stats.put("lastRunMillis", lastRunMillis);
+        stats.put("parallelism", pool.getParallelism());
+        return stats;
+    }
+
+    /**
+     * Record the run and hand it to the runner; the caller holds the running flag, which the run clears when done
+     */
+    private AnalyticsRun submit(boolean full) {
+        AnalyticsRun run = createRun(full);
+        runner.execute(() -> {
+            try {
+                execute(run);
+            } finally {
+                running.set(false);
+            }
+        });
+        return run;
+    }
+
+    private AnalyticsRun createRun(boolean full) {
+        boolean analysedBefore = runRepository.findTopByStatusOrderByIdDesc(AnalyticsRun.Status.COMPLETED).isPresent();
+        long watermark = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM stock_ledger", Long.class);
+        return runRepository.save(new AnalyticsRun(full || !analysedBefore, watermark));
+    }
+
+    private void execute(AnalyticsRun run) {
+        long started = System.currentTimeMillis();
+        try {
+            LocalDate windowStart = LocalDate.now().minusDays(windowDays - 1);
+            List<Long> productIds = run.isFull() ? allProductIds() : changedProductIds(run);
+            Map<Long, DemandHistory> histories = loadHistories(run.isFull() ? null : productIds, windowStart);
+
+            Forecast[] forecasts = new Forecast[productIds.size()];
+            pool.invoke(new ForecastTask(productIds, histories, forecasts, 0, forecasts.length));
+
+            Timestamp computedAt = Timestamp.valueOf(LocalDateTime.now());
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Object[]> rows = new ArrayList<>(forecasts.length);
+                for (Forecast forecast : forecasts) {
+                    rows.add(new Object[]{forecast.productId, forecast.unitsOut, forecast.averageDailyDemand, forecast.demandStdDev,
+                            forecast.reorderPoint, forecast.orderQuantity, computedAt});
+                }
+                if (!rows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPSERT, rows);
+                }
+                jdbcTemplate.update("DELETE FROM product_analytics WHERE product_id NOT IN (SELECT id FROM products)");
+                classify();
+            });
+
+            run.setProductsProcessed(forecasts.length);
+            run.setStatus(AnalyticsRun.Status.COMPLETED);
+            productsProcessed.add(forecasts.length);
+        } catch (RuntimeException e) {
+            System.err.println("Analytics run " + run.getId() + " failed: " + e.getMessage());
+            run.setStatus(AnalyticsRun.Status.FAILED);
+            run.setLastError(e.getMessage());
+            failedRuns.increment();
+        }
+        run.setFinishedAt(LocalDateTime.now());
+        runRepository.save(run);
+        runs.increment();
+        lastRunMillis = System.currentTimeMillis() - started;
+    }
+
+    private List<Long> allProductIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM products ORDER BY id", Long.class);
+    }
+
+    /**
+     * Products with stock changes since the previous completed run, and products not analysed yet
+     */
+    private List<Long> changedProductIds(AnalyticsRun run) {
+        long previousWatermark = runRepository.findTopByStatusOrderByIdDesc(AnalyticsRun.Status.COMPLETED)
+                .map(AnalyticsRun::getLedgerWatermark)
+                .orElse(0L);
+        return jdbcTemplate.queryForList(
+                "SELECT DISTINCT l.product_id FROM stock_ledger l JOIN products p ON p.id = l.product_id " +
+                "WHERE l.id > ? AND l.id <= ? " +
+                "UNION SELECT p.id FROM products p WHERE p.id NOT IN (SELECT product_id FROM product_analytics) ORDER BY 1",
+                Long.class, previousWatermark, run.getLedgerWatermark());
+    }
+
+    /**
+     * Units out per day in the window, for the given products or (null) for all of them, in one pass
+     */
+    private Map<Long, DemandHistory> loadHistories(List<Long> productIds, LocalDate windowStart) {
+        Map<Long, DemandHistory> histories = new HashMap<>();
+        String base = "SELECT product_id, day, units_out FROM daily_movement_rollup WHERE day >= ? AND units_out > 0";
+        if (productIds == null) {
+            jdbcTemplate.query(base, (ResultSet rs) -> addDay(histories, rs, windowStart), windowStart.toString());
+            return histories;
+        }
+        for (int from = 0; from < productIds.size(); from += ID_CHUNK) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + ID_CHUNK, productIds.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            Object[] args = new Object[chunk.size() + 1];
+            args[0] = windowStart.toString();
+            for (int i = 0; i < chunk.size(); i++) {
+                args[i + 1] = chunk.get(i);
+            }
+            jdbcTemplate.query(base + " AND product_id IN (" + placeholders + ")",
+                    (ResultSet rs) -> addDay(histories, rs, windowStart), args);
+        }
+        return histories;
+    }
+
+    private void addDay(Map<Long, DemandHistory> histories, ResultSet rs, LocalDate windowStart) throws SQLException {
+        int offset = (int) ChronoUnit.DAYS.between(windowStart, LocalDate.parse(rs.getString(2)));
+        if (offset >= 0 && offset < windowDays) {
+            histories.computeIfAbsent(rs.getLong(1), id -> new DemandHistory()).add(offset, rs.getLong(3));
+        }
+    }
+
+    /**
+     * Assign A to the products making up the first 80% of all units exported, B up to 95%, C to the rest
+     */
+    private void classify() {
+        List<long[]> volumes = new ArrayList<>();
+        Map<Long, String> currentClasses = new HashMap<>();
+        jdbcTemplate.query("SELECT product_id, units_out, abc_class FROM product_analytics ORDER BY units_out DESC, product_id", (ResultSet rs) -> {
+            volumes.add(new long[]{rs.getLong(1), rs.getLong(2)});
+            currentClasses.put(rs.getLong(1), rs.getString(3));
+        });
+        long total = 0;
+        for (long[] volume : volumes) {
+            total += volume[1];
+        }
+
+        List<Object[]> changes = new ArrayList<>();
+        long cumulative = 0;
+        for (long[] volume : volumes) {
+            String abcClass;
+            if (total == 0 || volume[1] == 0) {
+                abcClass = "C";
+            } else {
+                // Classed by the share before this product, so the product that crosses 80% is still an A
+                double shareBefore = (double) cumulative / total;
+                abcClass = shareBefore < CLASS_A_SHARE ? "A" : shareBefore < CLASS_B_SHARE ? "B" : "C";
+            }
+            cumulative += volume[1];
+            if (!abcClass.equals(currentClasses.get(volume[0]))) {
+                changes.add(new Object[]{abcClass, volume[0]});
+            }
+        }
+        if (!changes.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE product_analytics SET abc_class = ? WHERE product_id = ?", changes);
+        }
+    }
+
+    private Forecast forecast(Long productId, DemandHistory history) {
+        int averageDays = Math.min(movingAverageDays, windowDays);
+        long unitsOut = 0;
+        double sum = 0;
+        double sumOfSquares = 0;
+        if (history != null) {
+            for (int i = 0; i < history.size; i++) {
+                unitsOut += history.units[i];
+                if (history.offsets[i] >= windowDays - averageDays) {
+                    sum += history.units[i];
+                    sumOfSquares += (double) history.units[i] * history.units[i];
+                }
+            }
+        }
+        // Days without exports count as zero demand
+        double average = sum / averageDays;
+        double stdDev = Math.sqrt(Math.max(0, sumOfSquares / averageDays - average * average));
+
+        double safetyStock = SERVICE_LEVEL_Z * stdDev * Math.sqrt(leadTimeDays);
+        int reorderPoint = (int) Math.ceil(average * leadTimeDays + safetyStock);
+        int target = (int) Math.ceil(average * (leadTimeDays + coverDays) + safetyStock);
+        int available = productCache.quantityOf(productId) - reservedStock.reserved(productId);
+        return new Forecast(productId, unitsOut, average, stdDev, reorderPoint, Math.max(0, target - available));
+    }
+
+    /**
+     * Splits the product list in halves until a slice is small enough to compute directly
+     */
+    private final class ForecastTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Long> productIds;
+        private final Map<Long, DemandHistory> histories;
+        private final Forecast[] forecasts;
+        private final int from;
+        private final int to;
+
+        private ForecastTask(List<Long> productIds, Map<Long, DemandHistory> histories, Forecast[] forecasts, int from, int to) {
+            this.productIds = productIds;
+            this.histories = histories;
+            this.forecasts = forecasts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SLICE) {
+                for (int i = from; i < to; i++) {
+                    Long productId = productIds.get(i);
+                    forecasts[i] = forecast(productId, histories.get(productId));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ForecastTask(productIds, histories, forecasts, from, middle),
+                      new ForecastTask(productIds, histories, forecasts, middle, to));
+        }
+    }
+
+    /**
+     * Non-zero days of one product's export history, as offsets into the window
+     */
+    private static final class DemandHistory {
+        private int[] offsets = new int[8];
+        private long[] units = new long[8];
+        private int size;
+
+        private void add(int offset, long quantity) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+                units = Arrays.copyOf(units, size * 2);
+            }
+            offsets[size] = offset;
+            units[size] = quantity;
+            size++;
+        }
+    }
+
+    private static final class Forecast {
+        private final Long productId;
+        private final long unitsOut;
+        private final double averageDailyDemand;
+        private final double demandStdDev;
+        private final int reorderPoint;
+        private final int orderQuantity;
+
+        private Forecast(Long productId, long unitsOut, double averageDailyDemand, double demandStdDev, int reorderPoint, int orderQuantity) {
+            this.productId = productId;
+            this.unitsOut = unitsOut;
+            this.averageDailyDemand = averageDailyDemand;
+            this.demandStdDev = demandStdDev;
+            this.reorderPoint = reorderPoint;
+            this.orderQuantity = orderQuantity;
+        }
+    }
+}
@@ -1,13 +1,15 @@
 package com.warehouse.warehousemanager.service;
 
 import com.warehouse.warehousemanager.entity.Export;
-import com.warehouse.warehousemanager.entity.Product;
+import com.warehouse.warehousemanager.entity.StockMovement;
 import com.warehouse.warehousemanager.repository.ExportRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class ExportService {
@@ -16,7 +18,13 @@ public class ExportService {
     private ExportRepository exportRepository;
 
     @Autowired
-    private ProductService productService;
+    private StockService stockService;
+
+    @Autowired
+    private StockMovementCombiner stockMovementCombiner;
+
+    @Autowired
+    private MovementRollup movementRollup;
 
     public List<Export> findAll() {
         return exportRepository.findAll();
@@ -26,58 +34,62 @@ public class ExportService {
         return exportRepository.findById(id);
     }
 
+    /**
+     * Recorded together with concurrent movements of the same product, in one transaction per batch.
+     * Throws InsufficientStockException if the stock left at this export's turn is not enough.
+     */
     public Export save(Export exportRecord) {
-        // Check if there's enough quantity to export
-        Product product = productService.findById(exportRecord.getProductId())
-            .orElseThrow(() -> new RuntimeException("Product not found"));
-
-        if (product.getQuantity() < exportRecord.getQuantity()) {
-            throw new RuntimeException("Not enough quantity in stock to export. Available: " +
-                product.getQuantity() + ", Requested: " + exportRecord.getQuantity());
-        }
-
-        Export savedExport = exportRepository.save(exportRecord);
-
-        // Update product quantity
-        product.setQuantity(product.getQuantity() - exportRecord.getQuantity());
-        productService.save(product);
+        return save(exportRecord, null);
+    }
 
-        return savedExport;
+    /**
+     * Same as save, running onSaved inside the transaction that inserts the record
+     */
+    public Export save(Export exportRecord, Consumer<Export> onSaved) {
+        quantityOf(exportRecord);
+        return stockMovementCombiner.submitExport(exportRecord, onSaved);
     }
 
+    @Transactional
     public Export update(Long id, Export exportDetails) {
         Export existingExport = exportRepository.findById(id).orElseThrow(() -> new RuntimeException("Export record not found"));
+        Long previousProductId = existingExport.getProductId();
+        int previousQuantity = existingExport.getQuantity();
+        int newQuantity = quantityOf(exportDetails);
 
         // Calculate the difference to adjust product quantity
-        int quantityDifference = exportDetails.getQuantity() - existingExport.getQuantity();
-
-        // Check if there's enough quantity to export (after adjustment)
-        Product product = productService.findById(exportDetails.getProductId())
-            .orElseThrow(() -> new RuntimeException("Product not found"));
-
-        if (product.getQuantity() - quantityDifference < 0) {
-            throw new RuntimeException("Not enough quantity in stock to export. Available: " +
-                product.getQuantity() + ", Additional to Export: " + quantityDifference);
+        if (previousProductId.equals(exportDetails.getProductId())) {
+            stockService.adjust(previousProductId, previousQuantity - newQuantity, StockMovement.Reason.EXPORT_CORRECTION, id);
+        } else {
+            stockService.increase(previousProductId, previousQuantity, StockMovement.Reason.EXPORT_CORRECTION, id);
+            stockService.decrease(exportDetails.getProductId(), newQuantity, StockMovement.Reason.EXPORT_CORRECTION, id);
         }
 
-        Export updatedExport = exportRepository.save(exportDetails);
-
-        // Update product quantity based on the difference
-        product.setQuantity(product.getQuantity() - quantityDifference);
-        productService.save(product);
+        // The corrected quantity still counts on the day of the original export
+        movementRollup.record(List.of(
+            MovementRollup.Change.exportRemoved(previousProductId, existingExport.getCreatedAt(), previousQuantity),
+            MovementRollup.Change.exported(exportDetails.getProductId(), existingExport.getCreatedAt(), newQuantity)));
 
-        return updatedExport;
+        existingExport.setProductId(exportDetails.getProductId());
+        existingExport.setQuantity(newQuantity);
+        return exportRepository.save(existingExport);
     }
 
+    @Transactional
     public void deleteById(Long id) {
         Export existingExport = exportRepository.findById(id).orElseThrow(() -> new RuntimeException("Export record not found"));
 
         // Adjust product quantity before deletion
-        Product product = productService.findById(existingExport.getProductId())
-            .orElseThrow(() -> new RuntimeException("Product not found"));
-        product.setQuantity(product.getQuantity() + existingExport.getQuantity());
-        productService.save(product);
+        stockService.increase(existingExport.getProductId(), existingExport.getQuantity(), StockMovement.Reason.EXPORT_CORRECTION, id);
+        movementRollup.record(MovementRollup.Change.exportRemoved(existingExport.getProductId(), existingExport.getCreatedAt(), existingExport.getQuantity()));
 
         exportRepository.deleteById(id);
     }
-}
\ No newline at end of file
+
+    private int quantityOf(Export exportRecord) {
+        if (exportRecord.getQuantity() == null || exportRecord.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        return exportRecord.getQuantity();
+    }
+}
@@ -0,0 +1,246 @@
+package com.warehouse.warehousemanager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.warehouse.warehousemanager.entity.IdempotencyRecord;
+import com.warehouse.warehousemanager.exception.ServiceBusyException;
+import com.warehouse.warehousemanager.repository.IdempotencyRecordRepository;
+import com.warehouse.warehousemanager.util.ExpiringCache;
+import com.warehouse.warehousemanager.util.HashUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Dedupe store for creations sent with an Idempotency-Key header, so clients can retry without
+ * creating the same record twice. Keys are scoped to the endpoint and the user.
+ * The first request's result is inserted into idempotency_keys in the same transaction as the
+ * record it created, so a committed record always has its key and a rolled back one never does.
+ * Completed keys are served from a bounded in-memory cache in front of the table until they expire.
+ * A retry that arrives while the first request is still running waits for its result.
+ */
+@Service
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.idempotencyTtlMs:86400000}")
+    private long ttlMs;
+
+    // How long a retry waits for the first request before answering 503
+    @Value("${app.idempotencyWaitMs:10000}")
+    private long waitMs;
+
+    private final ExpiringCache<String, Stored> completed;
+
+    // Keys whose first request is running; completed with null when it failed
+    private final ConcurrentHashMap<String, CompletableFuture<Stored>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+    private final LongAdder purged = new LongAdder();
+
+    public IdempotencyStore(@Value("${app.idempotencyCacheMaxSize:50000}") int maxSize) {
+        this.completed = new ExpiringCache<>(maxSize);
+    }
+
+    /**
+     * Create at most once per key: a repeated key returns the first result read back as the given type.
+     * create is handed a callback that it must run inside the creating transaction with the created object.
+     * The fingerprint describes the request; reusing a key with a different fingerprint is rejected.
+     */
+    public <T> T execute(String endpoint, String key, String fingerprint, Class<T> type, Function<Consumer<T>, T> create) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String username = currentUsername();
+        String scope = endpoint + "\n" + username + "\n" + key;
+        String requestHash = HashUtil.sha256Hex(fingerprint);
+
+        while (true) {
+            Stored stored = lookup(scope, endpoint, username, key);
+            if (stored != null) {
+                return replay(stored, requestHash, type);
+            }
+
+            CompletableFuture<Stored> claim = new CompletableFuture<>();
+            CompletableFuture<Stored> running = inFlight.putIfAbsent(scope, claim);
+            if (running == null) {
+                return createOnce(scope, endpoint, username, key, requestHash, type, claim, create);
+            }
+            stored = await(running);
+            if (stored != null) {
+                return replay(stored, requestHash, type);
+            }
+            // The first request failed without creating anything; this one takes its place
+        }
+    }
+
+    /**
+     * Drop expired keys from the table; the cache drops its own on access
+     */
+    @Scheduled(fixedDelayString = "${app.idempotencyPurgeMs:3600000}")
+    public void purgeExpired() {
+        Integer removed = transactionTemplate.execute(status -> repository.deleteExpired(LocalDateTime.now()));
+        if (removed != null) {
+            purged.add(removed);
+        }
+        completed.purgeExpired();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>(completed.stats());
+        stats.put("inFlight", inFlight.size());
+        stats.put("created", created.sum());
+        stats.put("replays", replays.sum());
+        stats.put("mismatches", mismatches.sum());
+        stats.put("purged", purged.sum());
+        return stats;
+    }
+
+    private <T> T createOnce(String scope, String endpoint, String username, String key, String requestHash,
+                             Class<T> type, CompletableFuture<Stored> claim, Function<Consumer<T>, T> create) {
+        Stored stored = null;
+        try {
+            // The first request may have finished between the lookup and the claim
+            stored = lookup(scope, endpoint, username, key);
+            if (stored != null) {
+                return replay(stored, requestHash, type);
+            }
+
+            Stored[] recorded = new Stored[1];
+            T result = create.apply(createdObject -> recorded[0] = persist(endpoint, username, key, requestHash, createdObject));
+            // Only reached once the creating transaction has committed
+            stored = recorded[0];
+            if (stored != null) {
+                completed.put(scope, stored, stored.expiresAt);
+                created.increment();
+            }
+            return result;
+        } finally {
+            claim.complete(stored);
+            inFlight.remove(scope, claim);
+        }
+    }
+
+    /**
+     * Runs inside the creating transaction
+     */
+    private Stored persist(String endpoint, String username, String key, String requestHash, Object createdObject) {
+        String response;
+        try {
+            response = objectMapper.writeValueAsString(createdObject);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not store the response for " + HEADER + ": " + e.getMessage(), e);
+        }
+
+        // An expired row for the same key may still be waiting for the purge
+        IdempotencyRecord record = repository.findByEndpointAndUsernameAndIdempotencyKey(endpoint, username, key)
+                .orElseGet(IdempotencyRecord::new);
+        LocalDateTime now = LocalDateTime.now();
+        record.setEndpoint(endpoint);
+        record.setUsername(username);
+        record.setIdempotencyKey(key);
+        record.setRequestHash(requestHash);
+        record.setResponse(response);
+        record.setCreatedAt(now);
+        record.setExpiresAt(now.plus(ttlMs, ChronoUnit.MILLIS));
+        repository.save(record);
+        return new Stored(requestHash, response, System.currentTimeMillis() + ttlMs);
+    }
+
+    private Stored lookup(String scope, String endpoint, String username, String key) {
+        Stored stored = completed.get(scope);
+        if (stored != null) {
+            return stored;
+        }
+
+        // Evicted from the cache, or stored before a restart
+        Optional<IdempotencyRecord> record = repository.findByEndpointAndUsernameAndIdempotencyKey(endpoint, username, key);
+        if (record.isEmpty()) {
+            return null;
+        }
+        long expiresAt = record.get().getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+        stored = new Stored(record.get().getRequestHash(), record.get().getResponse(), expiresAt);
+        completed.put(scope, stored, expiresAt);
+        return stored;
+    }
+
+    private <T> T replay(Stored stored, String requestHash, Class<T> type) {
+        if (!stored.requestHash.equals(requestHash)) {
+            mismatches.increment();
+            throw new IllegalArgumentException(HEADER + " was already used for a different request");
+        }
+        replays.increment();
+        try {
+            return objectMapper.readValue(stored.response, type);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not read the stored response for " + HEADER + ": " + e.getMessage(), e);
+        }
+    }
+
+    private Stored await(CompletableFuture<Stored> running) {
+        try {
+            return running.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ServiceBusyException("A request with this " + HEADER + " is still in progress");
+        } catch (ExecutionException e) {
+            // Never completed exceptionally; treat like a failed first request
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a request with the same " + HEADER, e);
+        }
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "";
+    }
+
+    private static final class Stored {
+        private final String requestHash;
+        private final String response;
+        private final long expiresAt;
+
+        private Stored(String requestHash, String response, long expiresAt) {
+            this.requestHash = requestHash;
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
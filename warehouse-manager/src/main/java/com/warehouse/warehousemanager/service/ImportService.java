@@ -1,13 +1,15 @@
 package com.warehouse.warehousemanager.service;
 
 import com.warehouse.warehousemanager.entity.Import;
-import com.warehouse.warehousemanager.entity.Product;
+import com.warehouse.warehousemanager.entity.StockMovement;
 import com.warehouse.warehousemanager.repository.ImportRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class ImportService {
@@ -16,7 +18,13 @@ public class ImportService {
     private ImportRepository importRepository;
 
     @Autowired
-    private ProductService productService;
+    private StockService stockService;
+
+    @Autowired
+    private StockMovementCombiner stockMovementCombiner;
+
+    @Autowired
+    private MovementRollup movementRollup;
 
     public List<Import> findAll() {
         return importRepository.findAll();
@@ -26,44 +34,63 @@ public class ImportService {
         return importRepository.findById(id);
     }
 
+    /**
+     * Recorded together with concurrent movements of the same product, in one transaction per batch
+     */
     public Import save(Import importRecord) {
-        Import savedImport = importRepository.save(importRecord);
-
-        // Update product quantity
-        Product product = productService.findById(importRecord.getProductId())
-            .orElseThrow(() -> new RuntimeException("Product not found"));
-        product.setQuantity(product.getQuantity() + importRecord.getQuantity());
-        productService.save(product);
+        return save(importRecord, null);
+    }
 
-        return savedImport;
+    /**
+     * Same as save, running onSaved inside the transaction that inserts the record
+     */
+    public Import save(Import importRecord, Consumer<Import> onSaved) {
+        quantityOf(importRecord);
+        return stockMovementCombiner.submitImport(importRecord, onSaved);
     }
 
+    @Transactional
     public Import update(Long id, Import importDetails) {
         Import existingImport = importRepository.findById(id).orElseThrow(() -> new RuntimeException("Import record not found"));
+        Long previousProductId = existingImport.getProductId();
+        int previousQuantity = existingImport.getQuantity();
+        int newQuantity = quantityOf(importDetails);
 
-        // Calculate the difference to adjust product quantity
-        int quantityDifference = importDetails.getQuantity() - existingImport.getQuantity();
-
-        Import updatedImport = importRepository.save(importDetails);
+        existingImport.setProductId(importDetails.getProductId());
+        existingImport.setQuantity(newQuantity);
+        Import updatedImport = importRepository.save(existingImport);
 
         // Update product quantity based on the difference
-        Product product = productService.findById(importDetails.getProductId())
-            .orElseThrow(() -> new RuntimeException("Product not found"));
-        product.setQuantity(product.getQuantity() + quantityDifference);
-        productService.save(product);
+        if (previousProductId.equals(importDetails.getProductId())) {
+            stockService.adjust(previousProductId, newQuantity - previousQuantity, StockMovement.Reason.IMPORT_CORRECTION, id);
+        } else {
+            stockService.decrease(previousProductId, previousQuantity, StockMovement.Reason.IMPORT_CORRECTION, id);
+            stockService.increase(importDetails.getProductId(), newQuantity, StockMovement.Reason.IMPORT_CORRECTION, id);
+        }
+
+        // The corrected quantity still counts on the day of the original import
+        movementRollup.record(List.of(
+            MovementRollup.Change.importRemoved(previousProductId, updatedImport.getCreatedAt(), previousQuantity),
+            MovementRollup.Change.imported(updatedImport.getProductId(), updatedImport.getCreatedAt(), newQuantity)));
 
         return updatedImport;
     }
 
+    @Transactional
     public void deleteById(Long id) {
         Import existingImport = importRepository.findById(id).orElseThrow(() -> new RuntimeException("Import record not found"));
 
-        // Adjust product quantity before deletion
-        Product product = productService.findById(existingImport.getProductId())
-            .orElseThrow(() -> new RuntimeException("Product not found"));
-        product.setQuantity(product.getQuantity() - existingImport.getQuantity());
-        productService.save(product);
+        // Adjust product quantity before deletion; fails if the imported stock has already left
+        stockService.decrease(existingImport.getProductId(), existingImport.getQuantity(), StockMovement.Reason.IMPORT_CORRECTION, id);
+        movementRollup.record(MovementRollup.Change.importRemoved(existingImport.getProductId(), existingImport.getCreatedAt(), existingImport.getQuantity()));
 
         importRepository.deleteById(id);
     }
-}
\ No newline at end of file
+
+    private int quantityOf(Import importRecord) {
+        if (importRecord.getQuantity() == null || importRecord.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        return importRecord.getQuantity();
+    }
+}
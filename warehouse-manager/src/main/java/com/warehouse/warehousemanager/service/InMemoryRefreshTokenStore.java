@@ -0,0 +1,221 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.entity.RefreshToken;
+import com.warehouse.warehousemanager.repository.RefreshTokenRepository;
+import com.warehouse.warehousemanager.repository.UserRepository;
+import com.warehouse.warehousemanager.util.HashUtil;
+import com.warehouse.warehousemanager.util.TimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Refresh tokens served from memory with write-behind persistence to refresh_tokens.
+ * Lookups never touch the database. Changes are coalesced per user and flushed in one
+ * transaction every app.refreshTokenFlushMs, so a crash can lose at most that window of
+ * logins (those users simply log in again). Expired tokens are removed by a timing wheel.
+ */
+@Component
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    // Pending write meaning "the user has no refresh token"
+    private static final StoredRefreshToken REMOVED = new StoredRefreshToken("", -1L, 0L);
+
+    // Raw UUID tokens from before hashing; a SHA-256 hex digest is 64 characters
+    private static final int HASH_LENGTH = 64;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<String, StoredRefreshToken> tokens = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Long, String> tokenHashByUser = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Long, StoredRefreshToken> pendingWrites = new ConcurrentHashMap<>();
+
+    private final TimingWheel<String> expiryWheel;
+
+    private final Object flushLock = new Object();
+
+    private final LongAdder flushedWrites = new LongAdder();
+
+    private final LongAdder flushFailures = new LongAdder();
+
+    private final LongAdder expired = new LongAdder();
+
+    public InMemoryRefreshTokenStore(@Value("${app.refreshTokenSweepMs:60000}") long sweepMs) {
+        this.expiryWheel = new TimingWheel<>(sweepMs, 512);
+    }
+
+    /**
+     * Purge expired rows, hash legacy raw tokens in place and load the rest
+     */
+    @PostConstruct
+    void load() {
+        transactionTemplate.executeWithoutResult(status -> {
+            int purged = refreshTokenRepository.deleteExpired(Instant.now());
+            int hashed = 0;
+            for (RefreshToken row : refreshTokenRepository.findAll()) {
+                if (row.getToken().length() != HASH_LENGTH) {
+                    row.setToken(HashUtil.sha256Hex(row.getToken()));
+                    refreshTokenRepository.save(row);
+                    hashed++;
+                }
+                index(new StoredRefreshToken(row.getToken(), row.getUser().getId(), row.getExpiryDate().toEpochMilli()));
+            }
+            System.out.println("Refresh token store loaded " + tokens.size() + " tokens (purged "
+                    + purged + " expired, hashed " + hashed + " legacy)");
+        });
+    }
+
+    @Override
+    public void put(StoredRefreshToken token) {
+        tokenHashByUser.compute(token.getUserId(), (userId, previousHash) -> {
+            if (previousHash != null) {
+                tokens.remove(previousHash);
+            }
+            tokens.put(token.getTokenHash(), token);
+            pendingWrites.put(userId, token);
+            return token.getTokenHash();
+        });
+        expiryWheel.schedule(token.getTokenHash(), token.getExpiresAt());
+    }
+
+    @Override
+    public StoredRefreshToken findByHash(String tokenHash) {
+        return tokens.get(tokenHash);
+    }
+
+    @Override
+    public void remove(String tokenHash) {
+        StoredRefreshToken token = tokens.get(tokenHash);
+        if (token == null) {
+            return;
+        }
+        tokenHashByUser.computeIfPresent(token.getUserId(), (userId, currentHash) -> {
+            if (!currentHash.equals(tokenHash)) {
+                return currentHash;
+            }
+            tokens.remove(tokenHash);
+            pendingWrites.put(userId, REMOVED);
+            return null;
+        });
+    }
+
+    /**
+     * Written through immediately: callers delete the user row right after this
+     */
+    @Override
+    public void removeByUserId(Long userId) {
+        synchronized (flushLock) {
+            String tokenHash = tokenHashByUser.remove(userId);
+            if (tokenHash != null) {
+                tokens.remove(tokenHash);
+            }
+            pendingWrites.remove(userId);
+            transactionTemplate.executeWithoutResult(status -> refreshTokenRepository.deleteByUserId(userId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.refreshTokenSweepMs:60000}")
+    public void sweepExpired() {
+        expiryWheel.advance(System.currentTimeMillis(), tokenHash -> {
+            StoredRefreshToken token = tokens.get(tokenHash);
+            // The wheel never cancels, so the token may have been replaced or renewed since
+            if (token != null && token.isExpired()) {
+                remove(tokenHash);
+                expired.increment();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.refreshTokenFlushMs:2000}")
+    public void flush() {
+        synchronized (flushLock) {
+            if (pendingWrites.isEmpty()) {
+                return;
+            }
+
+            Map<Long, StoredRefreshToken> batch = new HashMap<>();
+            for (Long userId : pendingWrites.keySet()) {
+                StoredRefreshToken token = pendingWrites.remove(userId);
+                if (token != null) {
+                    batch.put(userId, token);
+                }
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    refreshTokenRepository.deleteByUserIdIn(batch.keySet());
+                    List<RefreshToken> rows = new ArrayList<>();
+                    batch.forEach((userId, token) -> {
+                        if (token != REMOVED) {
+                            rows.add(new RefreshToken(token.getTokenHash(),
+                                    userRepository.getReferenceById(userId),
+                                    Instant.ofEpochMilli(token.getExpiresAt())));
+                        }
+                    });
+                    refreshTokenRepository.saveAll(rows);
+                });
+                flushedWrites.add(batch.size());
+            } catch (RuntimeException e) {
+                // Retry next time unless a newer change for the user arrived meanwhile
+                batch.forEach(pendingWrites::putIfAbsent);
+                flushFailures.increment();
+                System.err.println("Failed to persist refresh tokens: " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", tokens.size());
+        stats.put("pendingWrites", pendingWrites.size());
+        stats.put("flushedWrites", flushedWrites.sum());
+        stats.put("flushFailures", flushFailures.sum());
+        stats.put("expired", expired.sum());
+        stats.put("scheduledExpiries", expiryWheel.size());
+        return stats;
+    }
+
+    private void index(StoredRefreshToken token) {
+        tokenHashByUser.compute(token.getUserId(), (userId, previousHash) -> {
+            StoredRefreshToken previous = previousHash != null ? tokens.get(previousHash) : null;
+            // Older rows may hold several tokens per user; keep the one that lives longest
+            if (previous != null && previous.getExpiresAt() >= token.getExpiresAt()) {
+                return previousHash;
+            }
+            if (previousHash != null) {
+                tokens.remove(previousHash);
+            }
+            tokens.put(token.getTokenHash(), token);
+            return token.getTokenHash();
+        });
+        expiryWheel.schedule(token.getTokenHash(), token.getExpiresAt());
+    }
+}
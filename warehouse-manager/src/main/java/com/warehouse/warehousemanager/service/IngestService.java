@@ -0,0 +1,440 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.dto.MovementLineResult;
+import com.warehouse.warehousemanager.entity.IngestJob;
+import com.warehouse.warehousemanager.entity.Product;
+import com.warehouse.warehousemanager.exception.ServiceBusyException;
+import com.warehouse.warehousemanager.repository.IngestJobRepository;
+import com.warehouse.warehousemanager.repository.ProductRepository;
+import com.warehouse.warehousemanager.util.CsvReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loads large product, import and export CSV files in the background.
+ * The upload is streamed to a spool file, then a worker pulls rows from it one chunk at a
+ * time and commits each chunk together with the job's progress. The reader only advances
+ * after the previous chunk is committed, so the database sets the pace and memory use is
+ * bounded by the chunk size. A failed job keeps its spool file and can be resumed; jobs
+ * interrupted by a shutdown are picked up again on the next start.
+ */
+@Service
+public class IngestService {
+
+    @Autowired
+    private IngestJobRepository ingestJobRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MovementBatchService movementBatchService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.ingestDirectory:ingest}")
+    private String directory;
+
+    @Value("${app.ingestChunkSize:500}")
+    private int chunkSize;
+
+    private final ThreadPoolExecutor executor;
+
+    // Jobs queued or running in this process, so a resume cannot start the same job twice
+    private final Set<Long> active = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder jobsCompleted = new LongAdder();
+
+    private final LongAdder jobsFailed = new LongAdder();
+
+    private final LongAdder chunksCommitted = new LongAdder();
+
+    private final LongAdder rowsCommitted = new LongAdder();
+
+    public IngestService(@Value("${app.ingestWorkers:1}") int workers,
+                         @Value("${app.ingestQueueCapacity:10}") int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ingest-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PostConstruct
+    void resumeInterrupted() {
+        for (IngestJob job : ingestJobRepository.findByStatusIn(EnumSet.of(IngestJob.Status.PENDING, IngestJob.Status.RUNNING))) {
+            try {
+                enqueue(job.getId());
+            } catch (ServiceBusyException e) {
+                // Left as FAILED by enqueue; can be resumed by hand
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // The running job stops between chunks and stays RUNNING, so it resumes on the next start
+        executor.shutdownNow();
+    }
+
+    /**
+     * Spool the uploaded CSV to disk and queue it for loading
+     */
+    public IngestJob start(IngestJob.Kind kind, InputStream body, String username) throws IOException {
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw new ServiceBusyException("Too many ingest jobs queued, please retry later");
+        }
+
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        Path file = Files.createTempFile(dir, kind.name().toLowerCase() + "-", ".csv");
+        long size;
+        try {
+            size = Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        IngestJob job = ingestJobRepository.save(new IngestJob(kind, file.toAbsolutePath().toString(), size, username));
+        enqueue(job.getId());
+        return job;
+    }
+
+    /**
+     * Queue a failed job again; it continues after the last committed chunk
+     */
+    public IngestJob resume(Long id) {
+        IngestJob job = ingestJobRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Ingest job not found with id: " + id));
+        if (job.getStatus() != IngestJob.Status.FAILED) {
+            throw new RuntimeException("Only failed ingest jobs can be resumed");
+        }
+        if (!Files.exists(Paths.get(job.getFilePath()))) {
+            throw new RuntimeException("Spool file for ingest job " + id + " no longer exists");
+        }
+
+        job.setStatus(IngestJob.Status.PENDING);
+        job.setLastError(null);
+        job.setUpdatedAt(LocalDateTime.now());
+        job = ingestJobRepository.save(job);
+        enqueue(job.getId());
+        return job;
+    }
+
+    public Optional<IngestJob> findById(Long id) {
+        return ingestJobRepository.findById(id);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activeJobs", executor.getActiveCount());
+        stats.put("queuedJobs", executor.getQueue().size());
+        stats.put("jobsCompleted", jobsCompleted.sum());
+        stats.put("jobsFailed", jobsFailed.sum());
+        stats.put("chunksCommitted", chunksCommitted.sum());
+        stats.put("rowsCommitted", rowsCommitted.sum());
+        stats.put("chunkSize", chunkSize);
+        return stats;
+    }
+
+    private void enqueue(Long jobId) {
+        if (!active.add(jobId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    active.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            active.remove(jobId);
+            markFailed(jobId, "Ingest queue was full; resume the job later");
+            throw new ServiceBusyException("Too many ingest jobs queued, please retry later");
+        }
+    }
+
+    private void run(Long jobId) {
+        IngestJob job = ingestJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        job.setStatus(IngestJob.Status.RUNNING);
+        job.setUpdatedAt(LocalDateTime.now());
+        job = ingestJobRepository.save(job);
+
+        Path file = Paths.get(job.getFilePath());
+        try (CsvReader csv = new CsvReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            List<String> header = csv.readRecord();
+            Map<String, Integer> columns = header != null ? columnIndex(header) : Map.of();
+            requireColumns(job.getKind(), columns);
+
+            // Skip rows committed by an earlier attempt
+            for (long i = 0; i < job.getRowsProcessed(); i++) {
+                if (csv.readRecord() == null) {
+                    break;
+                }
+            }
+
+            List<List<String>> chunk = new ArrayList<>(chunkSize);
+            while (!Thread.currentThread().isInterrupted()) {
+                chunk.clear();
+                List<String> record;
+                while (chunk.size() < chunkSize && (record = csv.readRecord()) != null) {
+                    chunk.add(record);
+                }
+                if (chunk.isEmpty()) {
+                    job.setStatus(IngestJob.Status.COMPLETED);
+                    job.setUpdatedAt(LocalDateTime.now());
+                    ingestJobRepository.save(job);
+                    jobsCompleted.increment();
+                    break;
+                }
+                job = commitChunk(job, columns, chunk);
+            }
+        } catch (Exception e) {
+            System.err.println("Ingest job " + jobId + " failed: " + e.getMessage());
+            markFailed(jobId, e.getMessage());
+            return;
+        }
+
+        if (job.getStatus() == IngestJob.Status.COMPLETED) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("Could not delete ingest spool file " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Apply one chunk and advance the job's offset in the same transaction
+     */
+    private IngestJob commitChunk(IngestJob job, Map<String, Integer> columns, List<List<String>> chunk) {
+        long firstRow = job.getRowsProcessed() + 1;
+        IngestJob saved = transactionTemplate.execute(status -> {
+            ChunkOutcome outcome = job.getKind() == IngestJob.Kind.PRODUCTS
+                    ? applyProducts(columns, chunk, firstRow)
+                    : applyMovements(job.getKind(), columns, chunk, firstRow);
+            job.setRowsProcessed(job.getRowsProcessed() + chunk.size());
+            job.setRowsAccepted(job.getRowsAccepted() + outcome.accepted);
+            job.setRowsRejected(job.getRowsRejected() + outcome.rejected);
+            if (outcome.lastRejection != null) {
+                job.setLastRejection(outcome.lastRejection);
+            }
+            job.setUpdatedAt(LocalDateTime.now());
+            return ingestJobRepository.save(job);
+        });
+        chunksCommitted.increment();
+        rowsCommitted.add(chunk.size());
+        return saved;
+    }
+
+    private ChunkOutcome applyMovements(IngestJob.Kind kind, Map<String, Integer> columns, List<List<String>> chunk, long firstRow) {
+        ChunkOutcome outcome = new ChunkOutcome();
+        List<MovementBatchService.Line> lines = new ArrayList<>();
+        List<Long> lineRows = new ArrayList<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            List<String> record = chunk.get(i);
+            long row = firstRow + i;
+            try {
+                Long productId = parseLong(field(record, columns, "productid"), "product_id");
+                Integer quantity = parseInt(field(record, columns, "quantity"), "quantity");
+                lines.add(new MovementBatchService.Line(productId, quantity));
+                lineRows.add(row);
+            } catch (IllegalArgumentException e) {
+                outcome.reject(row, e.getMessage());
+            }
+        }
+
+        if (!lines.isEmpty()) {
+            List<MovementLineResult> results = kind == IngestJob.Kind.IMPORTS
+                    ? movementBatchService.importBatch(lines)
+                    : movementBatchService.exportBatch(lines);
+            for (MovementLineResult result : results) {
+                if (result.isSuccess()) {
+                    outcome.accepted++;
+                } else {
+                    outcome.reject(lineRows.get(result.getLine()), result.getError());
+                }
+            }
+        }
+        return outcome;
+    }
+
+    private ChunkOutcome applyProducts(Map<String, Integer> columns, List<List<String>> chunk, long firstRow) {
+        ChunkOutcome outcome = new ChunkOutcome();
+        List<Product> parsed = new ArrayList<>();
+        List<Long> parsedRows = new ArrayList<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            List<String> record = chunk.get(i);
+            long row = firstRow + i;
+            try {
+                String idValue = field(record, columns, "id");
+                String name = field(record, columns, "name");
+                if (name == null || name.isBlank()) {
+                    throw new IllegalArgumentException("name is required");
+                }
+                String quantityValue = field(record, columns, "quantity");
+                Integer quantity = quantityValue == null || quantityValue.isBlank() ? 0 : parseInt(quantityValue, "quantity");
+                if (quantity < 0) {
+                    throw new IllegalArgumentException("quantity cannot be negative");
+                }
+                Product product = new Product(name.trim(), quantity, field(record, columns, "location"));
+                product.setId(idValue == null || idValue.isBlank() ? null : parseLong(idValue, "id"));
+                parsed.add(product);
+                parsedRows.add(row);
+            } catch (IllegalArgumentException e) {
+                outcome.reject(row, e.getMessage());
+            }
+        }
+
+        // Rows with an id refresh the existing product, the rest are new products
+        List<Long> ids = new ArrayList<>();
+        for (Product product : parsed) {
+            if (product.getId() != null) {
+                ids.add(product.getId());
+            }
+        }
+        Map<Long, Product> existing = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            existing.put(product.getId(), product);
+        }
+
+        List<Product> toSave = new ArrayList<>();
+        List<Integer> previousQuantities = new ArrayList<>();
+        for (int i = 0; i < parsed.size(); i++) {
+            Product row = parsed.get(i);
+            if (row.getId() == null) {
+                toSave.add(row);
+                previousQuantities.add(null);
+                continue;
+            }
+            Product product = existing.get(row.getId());
+            if (product == null) {
+                outcome.reject(parsedRows.get(i), "Product not found with id: " + row.getId());
+                continue;
+            }
+            previousQuantities.add(product.getQuantity() != null ? product.getQuantity() : 0);
+            product.setName(row.getName());
+            product.setQuantity(row.getQuantity());
+            product.setLocation(row.getLocation());
+            toSave.add(product);
+        }
+        productRepository.saveAll(toSave);
+        for (int i = 0; i < toSave.size(); i++) {
+            stockService.recordQuantitySet(toSave.get(i).getId(), previousQuantities.get(i), toSave.get(i).getQuantity());
+            productCache.productSaved(toSave.get(i));
+        }
+        outcome.accepted += toSave.size();
+        return outcome;
+    }
+
+    private static Map<String, Integer> columnIndex(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // Accept "product_id", "productId" and "Product ID"; drop a UTF-8 byte order mark
+            String name = header.get(i).replace("\uFEFF", "").replaceAll("[\\s_]", "").toLowerCase();
+            columns.putIfAbsent(name, i);
+        }
+        return columns;
+    }
+
+    private static void requireColumns(IngestJob.Kind kind, Map<String, Integer> columns) {
+        List<String> required = kind == IngestJob.Kind.PRODUCTS ? List.of("name") : List.of("productid", "quantity");
+        for (String column : required) {
+            if (!columns.containsKey(column)) {
+                throw new RuntimeException("CSV header is missing column: " + column);
+            }
+        }
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        return index != null && index < record.size() ? record.get(index) : null;
+    }
+
+    private static Long parseLong(String value, String column) {
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new IllegalArgumentException("invalid " + column + ": " + value);
+        }
+    }
+
+    private static Integer parseInt(String value, String column) {
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new IllegalArgumentException("invalid " + column + ": " + value);
+        }
+    }
+
+    private void markFailed(Long jobId, String error) {
+        jobsFailed.increment();
+        ingestJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(IngestJob.Status.FAILED);
+            job.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+            job.setUpdatedAt(LocalDateTime.now());
+            ingestJobRepository.save(job);
+        });
+    }
+
+    private static final class ChunkOutcome {
+        long accepted;
+        long rejected;
+        String lastRejection;
+
+        void reject(long row, String error) {
+            rejected++;
+            String message = "Row " + row + ": " + error;
+            lastRejection = message.length() > 1000 ? message.substring(0, 1000) : message;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.dto.LocationStockDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running per-location totals: product count, total quantity and number of low-stock
+ * products. Fed by ProductCache with every committed product, quantity and relocation
+ * change, each applied in O(1); ProductCache serializes the calls, readers never lock.
+ * Locations are matched case-insensitively, like the product search.
+ */
+@Service
+public class LocationStockIndex {
+
+    private final ConcurrentSkipListMap<String, Totals> locations = new ConcurrentSkipListMap<>();
+
+    private final int lowStockThreshold;
+
+    public LocationStockIndex(@Value("${app.lowStockThreshold:10}") int lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    public int getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+
+    public boolean isLowStock(int quantity) {
+        return quantity <= lowStockThreshold;
+    }
+
+    void productAdded(String location, int quantity) {
+        Totals totals = locations.computeIfAbsent(keyOf(location), key -> new Totals(location));
+        totals.productCount.incrementAndGet();
+        totals.totalQuantity.addAndGet(quantity);
+        if (isLowStock(quantity)) {
+            totals.lowStockCount.incrementAndGet();
+        }
+    }
+
+    void productRemoved(String location, int quantity) {
+        String key = keyOf(location);
+        Totals totals = locations.get(key);
+        if (totals == null) {
+            return;
+        }
+        totals.totalQuantity.addAndGet(-quantity);
+        if (isLowStock(quantity)) {
+            totals.lowStockCount.decrementAndGet();
+        }
+        if (totals.productCount.decrementAndGet() <= 0) {
+            locations.remove(key, totals);
+        }
+    }
+
+    void quantityChanged(String location, int previousQuantity, int newQuantity) {
+        Totals totals = locations.get(keyOf(location));
+        if (totals == null) {
+            return;
+        }
+        totals.totalQuantity.addAndGet(newQuantity - previousQuantity);
+        boolean wasLow = isLowStock(previousQuantity);
+        boolean isLow = isLowStock(newQuantity);
+        if (wasLow != isLow) {
+            if (isLow) {
+                totals.lowStockCount.incrementAndGet();
+            } else {
+                totals.lowStockCount.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * All locations in name order
+     */
+    public List<LocationStockDto> findAll(boolean lowStockOnly) {
+        List<LocationStockDto> result = new ArrayList<>(locations.size());
+        for (Totals totals : locations.values()) {
+            if (!lowStockOnly || totals.lowStockCount.get() > 0) {
+                result.add(totals.toDto());
+            }
+        }
+        return result;
+    }
+
+    public LocationStockDto find(String location) {
+        Totals totals = locations.get(keyOf(location));
+        return totals != null ? totals.toDto() : null;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("locations", locations.size());
+        stats.put("lowStockThreshold", lowStockThreshold);
+        return stats;
+    }
+
+    static String keyOf(String location) {
+        return location == null ? "" : location.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Totals {
+        // Spelling of the first product seen at this location
+        private final String displayName;
+        private final AtomicInteger productCount = new AtomicInteger();
+        private final AtomicLong totalQuantity = new AtomicLong();
+        private final AtomicInteger lowStockCount = new AtomicInteger();
+
+        private Totals(String displayName) {
+            this.displayName = displayName;
+        }
+
+        private LocationStockDto toDto() {
+            return new LocationStockDto(displayName, productCount.get(), totalQuantity.get(), lowStockCount.get());
+        }
+    }
+}
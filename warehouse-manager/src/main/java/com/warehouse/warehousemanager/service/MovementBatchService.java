@@ -0,0 +1,166 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.dto.MovementLineResult;
+import com.warehouse.warehousemanager.entity.StockMovement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies a whole batch of imports or exports in one transaction.
+ * Lines are grouped per product so each product's stock is read and written once;
+ * export lines are accepted or rejected in the order they appear. Movement rows are
+ * written with one JDBC batch insert, because IDENTITY keys stop Hibernate from batching.
+ * The batch runs under the write lock, so its rows get consecutive ids ending at
+ * last_insert_rowid(), which is how ledger entries point back at them.
+ */
+@Service
+public class MovementBatchService {
+
+    private static final String INSERT_IMPORT = "INSERT INTO imports (product_id, quantity, created_at) VALUES (?, ?, ?)";
+    private static final String INSERT_EXPORT = "INSERT INTO exports (product_id, quantity, created_at) VALUES (?, ?, ?)";
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ReservedStock reservedStock;
+
+    @Autowired
+    private MovementRollup movementRollup;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.movementBatchMaxLines:1000}")
+    private int maxLines;
+
+    /**
+     * One line of a batch: product and quantity, in request order
+     */
+    public static final class Line {
+        private final Long productId;
+        private final Integer quantity;
+
+        public Line(Long productId, Integer quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+    }
+
+    public int getMaxLines() {
+        return maxLines;
+    }
+
+    @Transactional
+    public List<MovementLineResult> importBatch(List<Line> lines) {
+        return applyBatch(lines, true);
+    }
+
+    @Transactional
+    public List<MovementLineResult> exportBatch(List<Line> lines) {
+        return applyBatch(lines, false);
+    }
+
+    private List<MovementLineResult> applyBatch(List<Line> lines, boolean inbound) {
+        MovementLineResult[] results = new MovementLineResult[lines.size()];
+
+        // Group valid line numbers per product, keeping request order inside each group
+        Map<Long, List<Integer>> linesByProduct = new LinkedHashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            Line line = lines.get(i);
+            if (line == null || line.getProductId() == null) {
+                results[i] = MovementLineResult.rejected(i, null, line != null ? line.getQuantity() : null, "Product id is required");
+            } else if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                results[i] = MovementLineResult.rejected(i, line.getProductId(), line.getQuantity(), "Quantity must be positive");
+            } else {
+                linesByProduct.computeIfAbsent(line.getProductId(), id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>();
+        List<MovementRollup.Change> rollup = new ArrayList<>();
+        StockMovement.Reason reason = inbound ? StockMovement.Reason.IMPORT : StockMovement.Reason.EXPORT;
+        linesByProduct.forEach((productId, lineNumbers) -> {
+            Integer startQuantity = stockService.currentQuantity(productId);
+            if (startQuantity == null) {
+                for (int i : lineNumbers) {
+                    results[i] = MovementLineResult.rejected(i, productId, lines.get(i).getQuantity(), "Product not found");
+                }
+                return;
+            }
+
+            int reserved = inbound ? 0 : reservedStock.reserved(productId);
+            int running = startQuantity;
+            for (int i : lineNumbers) {
+                int quantity = lines.get(i).getQuantity();
+                if (!inbound && running - reserved < quantity) {
+                    results[i] = MovementLineResult.rejected(i, productId, quantity,
+                            "Not enough quantity in stock to export. Available: " + Math.max(running - reserved, 0) + ", Requested: " + quantity);
+                    continue;
+                }
+                running += inbound ? quantity : -quantity;
+                results[i] = MovementLineResult.accepted(i, productId, quantity);
+                rows.add(new Object[]{productId, quantity, Timestamp.valueOf(createdAt)});
+                rollup.add(inbound
+                        ? MovementRollup.Change.imported(productId, createdAt, quantity)
+                        : MovementRollup.Change.exported(productId, createdAt, quantity));
+            }
+
+            if (running != startQuantity && !stockService.compareAndSet(productId, startQuantity, running)) {
+                // Cannot happen while this transaction holds the write lock; abort rather than write a wrong total
+                throw new RuntimeException("Stock for product " + productId + " changed during the batch, please retry");
+            }
+        });
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(inbound ? INSERT_IMPORT : INSERT_EXPORT, rows);
+            long firstId = firstInsertedId(inbound ? "imports" : "exports", rows.size());
+
+            List<StockMovement> ledger = new ArrayList<>(rows.size());
+            for (int k = 0; k < rows.size(); k++) {
+                Long productId = (Long) rows.get(k)[0];
+                int quantity = (Integer) rows.get(k)[1];
+                ledger.add(new StockMovement(productId, inbound ? quantity : -quantity, reason, firstId + k));
+            }
+            stockService.recordMovements(ledger);
+            movementRollup.record(rollup);
+        }
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Id of the first of the rows just batch-inserted into the table on this transaction's connection
+     */
+    private long firstInsertedId(String table, int count) {
+        long lastId = jdbcTemplate.queryForObject("SELECT last_insert_rowid()", Long.class);
+        long firstId = lastId - count + 1;
+        Long inRange = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE id BETWEEN ? AND ?", Long.class, firstId, lastId);
+        if (inRange == null || inRange != count) {
+            // Only possible if another writer slipped in; abort rather than point ledger entries at the wrong rows
+            throw new RuntimeException("Could not resolve ids of the inserted " + table + " rows, please retry");
+        }
+        return firstId;
+    }
+}
@@ -0,0 +1,192 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.dto.ExportDto;
+import com.warehouse.warehousemanager.dto.ImportDto;
+import com.warehouse.warehousemanager.dto.MovementDto;
+import com.warehouse.warehousemanager.entity.Export;
+import com.warehouse.warehousemanager.entity.Import;
+import com.warehouse.warehousemanager.repository.ExportRepository;
+import com.warehouse.warehousemanager.repository.ImportRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Keyset-paginated import and export history, newest first.
+ * Pages are read through the (product_id, created_at, id) and (created_at, id) indexes,
+ * so a page costs the same no matter how deep into the history it is. A product's
+ * history merges both tables: each page reads at most limit + 1 rows from each and
+ * keeps the newest limit. At the same timestamp imports sort before exports.
+ */
+@Service
+public class MovementHistoryService {
+
+    public static final String IMPORT = "IMPORT";
+    public static final String EXPORT = "EXPORT";
+
+    // Bounds used when from/to are omitted; both bind as ordinary timestamps
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @Autowired
+    private ImportRepository importRepository;
+
+    @Autowired
+    private ExportRepository exportRepository;
+
+    /**
+     * One page of results and the cursor for the next one (null on the last page)
+     */
+    public static final class Page<T> {
+        private final List<T> items;
+        private final String nextCursor;
+
+        private Page(List<T> items, String nextCursor) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<T> getItems() {
+            return items;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+
+    /**
+     * Imports with createdAt in [from, to), optionally of one product
+     */
+    public Page<ImportDto> imports(Long productId, LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        Position position = positionOf(cursor, to);
+        List<Import> rows = productId != null
+                ? importRepository.findPageByProductId(productId, lowerBound(from), position.createdAt, position.beforeId(IMPORT), PageRequest.of(0, limit + 1))
+                : importRepository.findPage(lowerBound(from), position.createdAt, position.beforeId(IMPORT), PageRequest.of(0, limit + 1));
+
+        List<ImportDto> items = new ArrayList<>();
+        for (int i = 0; i < Math.min(rows.size(), limit); i++) {
+            Import row = rows.get(i);
+            items.add(new ImportDto(row.getId(), row.getProductId(), row.getQuantity(), row.getCreatedAt()));
+        }
+        String next = rows.size() > limit ? encodeCursor(items.get(limit - 1).getCreatedAt(), IMPORT, items.get(limit - 1).getId()) : null;
+        return new Page<>(items, next);
+    }
+
+    /**
+     * Exports with createdAt in [from, to), optionally of one product
+     */
+    public Page<ExportDto> exports(Long productId, LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        Position position = positionOf(cursor, to);
+        List<Export> rows = productId != null
+                ? exportRepository.findPageByProductId(productId, lowerBound(from), position.createdAt, position.beforeId(EXPORT), PageRequest.of(0, limit + 1))
+                : exportRepository.findPage(lowerBound(from), position.createdAt, position.beforeId(EXPORT), PageRequest.of(0, limit + 1));
+
+        List<ExportDto> items = new ArrayList<>();
+        for (int i = 0; i < Math.min(rows.size(), limit); i++) {
+            Export row = rows.get(i);
+            items.add(new ExportDto(row.getId(), row.getProductId(), row.getQuantity(), row.getCreatedAt()));
+        }
+        String next = rows.size() > limit ? encodeCursor(items.get(limit - 1).getCreatedAt(), EXPORT, items.get(limit - 1).getId()) : null;
+        return new Page<>(items, next);
+    }
+
+    /**
+     * Imports and exports of one product with createdAt in [from, to), merged by time
+     */
+    public Page<MovementDto> productMovements(Long productId, LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        Position position = positionOf(cursor, to);
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<Import> imports = importRepository.findPageByProductId(productId, lowerBound(from), position.createdAt, position.beforeId(IMPORT), page);
+        List<Export> exports = exportRepository.findPageByProductId(productId, lowerBound(from), position.createdAt, position.beforeId(EXPORT), page);
+
+        List<MovementDto> items = new ArrayList<>();
+        int i = 0;
+        int e = 0;
+        while (items.size() < limit && (i < imports.size() || e < exports.size())) {
+            boolean takeImport = e >= exports.size()
+                    || (i < imports.size() && !imports.get(i).getCreatedAt().isBefore(exports.get(e).getCreatedAt()));
+            if (takeImport) {
+                Import row = imports.get(i++);
+                items.add(new MovementDto(IMPORT, row.getId(), row.getProductId(), row.getQuantity(), row.getCreatedAt()));
+            } else {
+                Export row = exports.get(e++);
+                items.add(new MovementDto(EXPORT, row.getId(), row.getProductId(), row.getQuantity(), row.getCreatedAt()));
+            }
+        }
+
+        boolean more = i < imports.size() || e < exports.size();
+        MovementDto last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return new Page<>(items, more ? encodeCursor(last.getCreatedAt(), last.getKind(), last.getId()) : null);
+    }
+
+    private static LocalDateTime lowerBound(LocalDateTime from) {
+        return from != null ? from : EARLIEST;
+    }
+
+    private static Position positionOf(String cursor, LocalDateTime to) {
+        if (cursor == null || cursor.isBlank()) {
+            // Everything strictly before "to"
+            return new Position(to != null ? to : LATEST, null, 0);
+        }
+        return decodeCursor(cursor);
+    }
+
+    /**
+     * Opaque cursor: timestamp, kind and id of the last item on the page
+     */
+    private static String encodeCursor(LocalDateTime createdAt, String kind, Long id) {
+        String raw = createdAt + "\n" + kind + "\n" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 3);
+            if (parts.length != 3 || !(parts[1].equals(IMPORT) || parts[1].equals(EXPORT))) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new Position(LocalDateTime.parse(parts[0]), parts[1], Long.parseLong(parts[2]));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Where the previous page ended. Rows at the same timestamp continue by kind
+     * (imports first) and then by descending id.
+     */
+    private static final class Position {
+        private final LocalDateTime createdAt;
+        private final String kind;
+        private final long id;
+
+        private Position(LocalDateTime createdAt, String kind, long id) {
+            this.createdAt = createdAt;
+            this.kind = kind;
+            this.id = id;
+        }
+
+        /**
+         * Rows of this table at exactly createdAt that still belong to later pages have ids below the returned value
+         */
+        private long beforeId(String table) {
+            if (kind == null) {
+                return 0;
+            }
+            if (kind.equals(table)) {
+                return id;
+            }
+            // An import ended the page: every export at that timestamp is still to come; an export: no import is
+            return table.equals(EXPORT) ? Long.MAX_VALUE : 0;
+        }
+    }
+}
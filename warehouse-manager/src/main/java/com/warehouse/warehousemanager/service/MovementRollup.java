@@ -0,0 +1,260 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.dto.DailyFlowDto;
+import com.warehouse.warehousemanager.dto.DailyStockDto;
+import com.warehouse.warehousemanager.entity.Export;
+import com.warehouse.warehousemanager.entity.Import;
+import com.warehouse.warehousemanager.repository.DailyMovementRollupRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-product, per-day totals of stock movements in daily_movement_rollup.
+ * Every import and export create, update and delete adds its change here in its own
+ * transaction, counted on the day of the movement it belongs to, so corrections and
+ * deletions move the original day's totals back. Quantities set directly on a product
+ * are counted as adjustments on the day they happen. Reports read one row per product
+ * and day instead of scanning imports and exports.
+ */
+@Service
+public class MovementRollup {
+
+    private static final String UPSERT = "INSERT INTO daily_movement_rollup " +
+            "(product_id, day, units_in, units_out, import_count, export_count, adjustment) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT(product_id, day) DO UPDATE SET " +
+            "units_in = units_in + excluded.units_in, units_out = units_out + excluded.units_out, " +
+            "import_count = import_count + excluded.import_count, export_count = export_count + excluded.export_count, " +
+            "adjustment = adjustment + excluded.adjustment";
+
+    @Autowired
+    private DailyMovementRollupRepository rollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final LongAdder changes = new LongAdder();
+    private final LongAdder upserts = new LongAdder();
+
+    /**
+     * A signed change to one product's totals on one day
+     */
+    public static final class Change {
+        private final Long productId;
+        private final LocalDate day;
+        private final long unitsIn;
+        private final long unitsOut;
+        private final int imports;
+        private final int exports;
+        private final long adjustment;
+
+        private Change(Long productId, LocalDate day, long unitsIn, long unitsOut, int imports, int exports, long adjustment) {
+            this.productId = productId;
+            this.day = day;
+            this.unitsIn = unitsIn;
+            this.unitsOut = unitsOut;
+            this.imports = imports;
+            this.exports = exports;
+            this.adjustment = adjustment;
+        }
+
+        public static Change imported(Long productId, LocalDateTime createdAt, int quantity) {
+            return new Change(productId, createdAt.toLocalDate(), quantity, 0, 1, 0, 0);
+        }
+
+        public static Change importRemoved(Long productId, LocalDateTime createdAt, int quantity) {
+            return new Change(productId, createdAt.toLocalDate(), -quantity, 0, -1, 0, 0);
+        }
+
+        public static Change exported(Long productId, LocalDateTime createdAt, int quantity) {
+            return new Change(productId, createdAt.toLocalDate(), 0, quantity, 0, 1, 0);
+        }
+
+        public static Change exportRemoved(Long productId, LocalDateTime createdAt, int quantity) {
+            return new Change(productId, createdAt.toLocalDate(), 0, -quantity, 0, -1, 0);
+        }
+
+        public static Change adjusted(Long productId, LocalDateTime at, int delta) {
+            return new Change(productId, at.toLocalDate(), 0, 0, 0, 0, delta);
+        }
+    }
+
+    /**
+     * Fill the table from existing imports and exports the first time it is created.
+     * Quantities set on products before then are not known; stock levels before that day
+     * only reflect movements.
+     */
+    @PostConstruct
+    void backfill() {
+        if (rollupRepository.count() > 0) {
+            return;
+        }
+        List<Change> history = new ArrayList<>();
+        jdbcTemplate.query("SELECT product_id, quantity, created_at FROM imports", (ResultSet rs) -> {
+            history.add(Change.imported(rs.getLong(1), rs.getTimestamp(3).toLocalDateTime(), rs.getInt(2)));
+        });
+        jdbcTemplate.query("SELECT product_id, quantity, created_at FROM exports", (ResultSet rs) -> {
+            history.add(Change.exported(rs.getLong(1), rs.getTimestamp(3).toLocalDateTime(), rs.getInt(2)));
+        });
+        if (history.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> record(history));
+        System.out.println("Movement rollup: backfilled " + history.size() + " imports and exports");
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Change change) {
+        record(List.of(change));
+    }
+
+    /**
+     * Add changes in the caller's transaction; changes to the same product and day become one upsert
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(List<Change> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<Key, long[]> totals = new LinkedHashMap<>();
+        for (Change change : batch) {
+            long[] sums = totals.computeIfAbsent(new Key(change.productId, change.day), key -> new long[5]);
+            sums[0] += change.unitsIn;
+            sums[1] += change.unitsOut;
+            sums[2] += change.imports;
+            sums[3] += change.exports;
+            sums[4] += change.adjustment;
+        }
+
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((key, sums) -> {
+            if (sums[0] != 0 || sums[1] != 0 || sums[2] != 0 || sums[3] != 0 || sums[4] != 0) {
+                rows.add(new Object[]{key.productId, key.day.toString(), sums[0], sums[1], sums[2], sums[3], sums[4]});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT, rows);
+        }
+        changes.add(batch.size());
+        upserts.add(rows.size());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordImports(List<Import> imports) {
+        List<Change> batch = new ArrayList<>(imports.size());
+        for (Import importRecord : imports) {
+            batch.add(Change.imported(importRecord.getProductId(), importRecord.getCreatedAt(), importRecord.getQuantity()));
+        }
+        record(batch);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExports(List<Export> exports) {
+        List<Change> batch = new ArrayList<>(exports.size());
+        for (Export exportRecord : exports) {
+            batch.add(Change.exported(exportRecord.getProductId(), exportRecord.getCreatedAt(), exportRecord.getQuantity()));
+        }
+        record(batch);
+    }
+
+    /**
+     * Daily flow of one product, or of all products when productId is null; every day in [from, to] is present
+     */
+    public List<DailyFlowDto> flow(Long productId, LocalDate from, LocalDate to) {
+        Map<LocalDate, DailyFlowDto> byDay = new HashMap<>();
+        String sql = "SELECT day, SUM(units_in), SUM(units_out), SUM(import_count), SUM(export_count) FROM daily_movement_rollup " +
+                "WHERE day >= ? AND day <= ?" + (productId != null ? " AND product_id = ?" : "") + " GROUP BY day";
+        Object[] args = productId != null
+                ? new Object[]{from.toString(), to.toString(), productId}
+                : new Object[]{from.toString(), to.toString()};
+        jdbcTemplate.query(sql, (ResultSet rs) -> {
+            LocalDate day = LocalDate.parse(rs.getString(1));
+            byDay.put(day, new DailyFlowDto(day, rs.getLong(2), rs.getLong(3), rs.getInt(4), rs.getInt(5)));
+        }, args);
+
+        List<DailyFlowDto> series = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            DailyFlowDto flow = byDay.get(day);
+            series.add(flow != null ? flow : new DailyFlowDto(day, 0, 0, 0, 0));
+        }
+        return series;
+    }
+
+    /**
+     * Closing quantity of a product on every day in [from, to], worked back from its current
+     * quantity by undoing each later day's net change
+     */
+    public List<DailyStockDto> stockLevels(Long productId, int currentQuantity, LocalDate from, LocalDate to) {
+        Map<LocalDate, long[]> byDay = new HashMap<>();
+        jdbcTemplate.query("SELECT day, units_in, units_out, adjustment FROM daily_movement_rollup WHERE product_id = ? AND day >= ?",
+                (ResultSet rs) -> {
+                    byDay.put(LocalDate.parse(rs.getString(1)), new long[]{rs.getLong(2), rs.getLong(3), rs.getLong(4)});
+                }, productId, from.toString());
+
+        long closing = currentQuantity;
+        for (Map.Entry<LocalDate, long[]> entry : byDay.entrySet()) {
+            if (entry.getKey().isAfter(to)) {
+                closing -= net(entry.getValue());
+            }
+        }
+
+        List<DailyStockDto> series = new ArrayList<>();
+        for (LocalDate day = to; !day.isBefore(from); day = day.minusDays(1)) {
+            long[] totals = byDay.getOrDefault(day, new long[3]);
+            series.add(new DailyStockDto(day, closing, totals[0], totals[1], totals[2]));
+            closing -= net(totals);
+        }
+        Collections.reverse(series);
+        return series;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("changes", changes.sum());
+        stats.put("upserts", upserts.sum());
+        return stats;
+    }
+
+    private static long net(long[] totals) {
+        return totals[0] - totals[1] + totals[2];
+    }
+
+    private static final class Key {
+        private final Long productId;
+        private final LocalDate day;
+
+        private Key(Long productId, LocalDate day) {
+            this.productId = productId;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && productId.equals(other.productId) && day.equals(other.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(productId, day);
+        }
+    }
+}
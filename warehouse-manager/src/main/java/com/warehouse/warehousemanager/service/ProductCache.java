@@ -0,0 +1,371 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.dto.ProductView;
+import com.warehouse.warehousemanager.entity.Product;
+import com.warehouse.warehousemanager.repository.ProductRepository;
+import com.warehouse.warehousemanager.util.LongIntHashMap;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-through cache of the product catalog, warmed at startup.
+ * Products are immutable ProductView objects ordered by id, and reads return them as they are;
+ * quantities are also kept in a primitive long-to-int map, which deltas are applied to before the
+ * product's view is replaced. Writers report their changes here and the changes are applied
+ * once the writing transaction commits, so readers never see rolled-back data. Quantity
+ * changes are applied as deltas, which commute, so callbacks from concurrent transactions
+ * can run in any order and still end at the committed total.
+ * Lower-cased name and location are kept in skip-list indexes for prefix search and
+ * keyset pagination, and every change is passed on to the per-location totals.
+ */
+@Service
+public class ProductCache {
+
+    private static final Comparator<IndexKey> INDEX_ORDER =
+            Comparator.comparing((IndexKey key) -> key.value).thenComparingLong(key -> key.id);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Also makes sure the schema exists before warm() runs
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private LocationStockIndex locationStockIndex;
+
+    @Autowired
+    private StockAlertService stockAlertService;
+
+    private final ConcurrentSkipListMap<Long, ProductView> views = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentSkipListSet<IndexKey> nameIndex = new ConcurrentSkipListSet<>(INDEX_ORDER);
+
+    private final ConcurrentSkipListSet<IndexKey> locationIndex = new ConcurrentSkipListSet<>(INDEX_ORDER);
+
+    // Serializes writers so a view, its index entries and the location totals change together; readers never lock
+    private final Object catalogLock = new Object();
+
+    private final LongIntHashMap quantities = new LongIntHashMap(1024);
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder searches = new LongAdder();
+
+    private volatile long warmMillis;
+
+    /**
+     * One page of search results; nextCursor is null on the last page
+     */
+    public static final class SearchResult {
+        private final List<ProductView> items;
+        private final String nextCursor;
+
+        private SearchResult(List<ProductView> items, String nextCursor) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<ProductView> getItems() {
+            return items;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+
+    @PostConstruct
+    void warm() {
+        long started = System.currentTimeMillis();
+        jdbcTemplate.query("SELECT id, name, quantity, location FROM products", rs -> {
+            long id = rs.getLong("id");
+            quantities.put(id, rs.getInt("quantity"));
+            putView(id, rs.getString("name"), rs.getString("location"));
+        });
+        warmMillis = System.currentTimeMillis() - started;
+        System.out.println("Product cache warmed with " + views.size() + " products in " + warmMillis + " ms");
+    }
+
+    /**
+     * Product by id, or null if it does not exist. A product missing from the cache
+     * (written around the services) is read from the database once and cached.
+     */
+    public ProductView get(Long id) {
+        ProductView view = views.get(id);
+        if (view != null) {
+            hits.increment();
+            return view;
+        }
+        misses.increment();
+        return productRepository.findById(id).map(product -> {
+            load(product);
+            return views.get(product.getId());
+        }).orElse(null);
+    }
+
+    /**
+     * Every cached product in id order
+     */
+    public List<ProductView> findAll() {
+        hits.increment();
+        return new ArrayList<>(views.values());
+    }
+
+    /**
+     * Filter and page the catalog. q and location are case-insensitive prefixes; sort is
+     * id, name or location, with a leading '-' for descending order. The walk follows the
+     * index of the sort field, starting right after the cursor, and stops as soon as the
+     * page is full; a prefix on the sort field narrows the walk to the matching range.
+     */
+    public SearchResult search(String q, String location, Integer minQty, Integer maxQty,
+                               String sort, String cursor, int limit) {
+        return search(q, location, false, minQty, maxQty, sort, cursor, limit);
+    }
+
+    /**
+     * Page through the products at exactly this location (case-insensitive), in id order
+     */
+    public SearchResult productsAt(String location, Integer maxQty, String cursor, int limit) {
+        return search(null, location, true, null, maxQty, "location", cursor, limit);
+    }
+
+    private SearchResult search(String q, String location, boolean exactLocation, Integer minQty, Integer maxQty,
+                                String sort, String cursor, int limit) {
+        searches.increment();
+        String namePrefix = prefixOf(q);
+        String locationPrefix = exactLocation ? LocationStockIndex.keyOf(location) : prefixOf(location);
+        String sortKey = sort != null && !sort.isBlank() ? sort.trim()
+                : namePrefix != null ? "name" : locationPrefix != null ? "location" : "id";
+        boolean descending = sortKey.startsWith("-");
+        String field = descending ? sortKey.substring(1) : sortKey;
+        if (!field.equals("id") && !field.equals("name") && !field.equals("location")) {
+            throw new IllegalArgumentException("Unsupported sort: " + sort + " (use id, name or location, optionally prefixed with -)");
+        }
+        IndexKey after = cursor != null && !cursor.isBlank() ? decodeCursor(cursor, sortKey) : null;
+
+        Iterator<Long> ids = walk(field, descending, field.equals("name") ? namePrefix : field.equals("location") ? locationPrefix : null,
+                exactLocation && field.equals("location"), after);
+        List<ProductView> items = new ArrayList<>(Math.min(limit, 256));
+        ProductView last = null;
+        boolean more = false;
+        while (ids.hasNext()) {
+            ProductView view = views.get(ids.next());
+            if (view == null
+                    || (namePrefix != null && !normalize(view.getName()).startsWith(namePrefix))
+                    || (locationPrefix != null && !matches(normalize(view.getLocation()), locationPrefix, exactLocation))) {
+                continue;
+            }
+            int quantity = view.getQuantity();
+            if ((minQty != null && quantity < minQty) || (maxQty != null && quantity > maxQty)) {
+                continue;
+            }
+            if (items.size() == limit) {
+                more = true;
+                break;
+            }
+            items.add(view);
+            last = view;
+        }
+        return new SearchResult(items, more ? encodeCursor(sortKey, field, last) : null);
+    }
+
+    public ProductView getView(Long id) {
+        return views.get(id);
+    }
+
+    public int quantityOf(Long id) {
+        return quantities.get(id, 0);
+    }
+
+    /**
+     * Catalog fields of a created or edited product; quantity changes are reported separately
+     */
+    public void productSaved(Product product) {
+        Long id = product.getId();
+        String name = product.getName();
+        String location = product.getLocation();
+        afterCommit(() -> putView(id, name, location));
+    }
+
+    public void quantityChanged(Long productId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (catalogLock) {
+                int quantity = quantities.addTo(productId, delta);
+                ProductView view = views.get(productId);
+                if (view != null) {
+                    views.put(productId, view.withQuantity(quantity));
+                    locationStockIndex.quantityChanged(view.getLocation(), quantity - delta, quantity);
+                }
+                stockAlertService.quantityChanged(productId, quantity - delta, quantity);
+            }
+        });
+    }
+
+    public void productDeleted(Long productId) {
+        afterCommit(() -> {
+            synchronized (catalogLock) {
+                removeView(productId);
+                quantities.remove(productId);
+            }
+        });
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", views.size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("searches", searches.sum());
+        stats.put("warmMillis", warmMillis);
+        return stats;
+    }
+
+    private Iterator<Long> walk(String field, boolean descending, String prefix, boolean exact, IndexKey after) {
+        if (field.equals("id")) {
+            NavigableMap<Long, ProductView> range = views;
+            if (after != null) {
+                range = descending ? range.headMap(after.id, false) : range.tailMap(after.id, false);
+            }
+            return (descending ? range.descendingMap() : range).keySet().iterator();
+        }
+
+        NavigableSet<IndexKey> range = field.equals("name") ? nameIndex : locationIndex;
+        if (prefix != null) {
+            range = range.subSet(new IndexKey(prefix, Long.MIN_VALUE), true,
+                    new IndexKey(exact ? prefix : prefix + Character.MAX_VALUE, Long.MAX_VALUE), true);
+        }
+        if (after != null) {
+            range = descending ? range.headSet(after, false) : range.tailSet(after, false);
+        }
+        Iterator<IndexKey> keys = (descending ? range.descendingSet() : range).iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public Long next() {
+                return keys.next().id;
+            }
+        };
+    }
+
+    private void putView(Long id, String name, String location) {
+        synchronized (catalogLock) {
+            int quantity = quantities.get(id, 0);
+            ProductView view = new ProductView(id, name, quantity, location);
+            ProductView previous = views.put(id, view);
+            if (previous != null) {
+                nameIndex.remove(new IndexKey(normalize(previous.getName()), previous.getId()));
+                locationIndex.remove(new IndexKey(normalize(previous.getLocation()), previous.getId()));
+                locationStockIndex.productRemoved(previous.getLocation(), quantity);
+            }
+            nameIndex.add(new IndexKey(normalize(view.getName()), view.getId()));
+            locationIndex.add(new IndexKey(normalize(view.getLocation()), view.getId()));
+            locationStockIndex.productAdded(view.getLocation(), quantity);
+        }
+    }
+
+    private void removeView(Long productId) {
+        synchronized (catalogLock) {
+            ProductView previous = views.remove(productId);
+            if (previous != null) {
+                nameIndex.remove(new IndexKey(normalize(previous.getName()), previous.getId()));
+                locationIndex.remove(new IndexKey(normalize(previous.getLocation()), previous.getId()));
+                locationStockIndex.productRemoved(previous.getLocation(), quantities.get(productId, 0));
+            }
+        }
+    }
+
+    private void load(Product product) {
+        synchronized (catalogLock) {
+            removeView(product.getId());
+            quantities.put(product.getId(), product.getQuantity() != null ? product.getQuantity() : 0);
+            putView(product.getId(), product.getName(), product.getLocation());
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean matches(String value, String prefix, boolean exact) {
+        return exact ? value.equals(prefix) : value.startsWith(prefix);
+    }
+
+    private static String prefixOf(String value) {
+        return value == null || value.isBlank() ? null : normalize(value.trim());
+    }
+
+    /**
+     * Opaque cursor: sort, id and sort value of the last item on the page
+     */
+    private static String encodeCursor(String sortKey, String field, ProductView last) {
+        String value = field.equals("name") ? normalize(last.getName())
+                : field.equals("location") ? normalize(last.getLocation()) : "";
+        String raw = sortKey + "\n" + last.getId() + "\n" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static IndexKey decodeCursor(String cursor, String sortKey) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 3);
+            if (parts.length != 3 || !parts[0].equals(sortKey)) {
+                throw new IllegalArgumentException("Cursor does not belong to sort " + sortKey);
+            }
+            return new IndexKey(parts[2], Long.parseLong(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static final class IndexKey {
+        private final String value;
+        private final long id;
+
+        private IndexKey(String value, long id) {
+            this.value = value;
+            this.id = id;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.warehouse.warehousemanager.service;
 
+import com.warehouse.warehousemanager.dto.ProductView;
 import com.warehouse.warehousemanager.entity.Product;
 import com.warehouse.warehousemanager.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +16,15 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private StockAlertService stockAlertService;
+
     public List<Product> findAll() {
         return productRepository.findAll();
     }
@@ -22,19 +33,48 @@ public class ProductService {
         return productRepository.findById(id);
     }
 
+    /**
+     * All products from the in-memory cache, in id order
+     */
+    public List<ProductView> findAllCached() {
+        return productCache.findAll();
+    }
+
+    public Optional<ProductView> findCachedById(Long id) {
+        return Optional.ofNullable(productCache.get(id));
+    }
+
+    public ProductCache.SearchResult search(String q, String location, Integer minQty, Integer maxQty,
+                                            String sort, String cursor, int limit) {
+        return productCache.search(q, location, minQty, maxQty, sort, cursor, limit);
+    }
+
+    @Transactional
     public Product save(Product product) {
-        return productRepository.save(product);
+        Integer previousQuantity = product.getId() != null ? stockService.currentQuantity(product.getId()) : null;
+        Product savedProduct = productRepository.save(product);
+        stockService.recordQuantitySet(savedProduct.getId(), previousQuantity, savedProduct.getQuantity());
+        productCache.productSaved(savedProduct);
+        return savedProduct;
     }
 
+    @Transactional
     public Product update(Long id, Product productDetails) {
         Product product = productRepository.findById(id).orElseThrow(() -> new RuntimeException("Product not found"));
+        Integer previousQuantity = product.getQuantity() != null ? product.getQuantity() : 0;
         product.setName(productDetails.getName());
         product.setQuantity(productDetails.getQuantity());
         product.setLocation(productDetails.getLocation());
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        stockService.recordQuantitySet(id, previousQuantity, savedProduct.getQuantity());
+        productCache.productSaved(savedProduct);
+        return savedProduct;
     }
 
+    @Transactional
     public void deleteById(Long id) {
         productRepository.deleteById(id);
+        stockAlertService.productDeleted(id);
+        productCache.productDeleted(id);
     }
 }
\ No newline at end of file
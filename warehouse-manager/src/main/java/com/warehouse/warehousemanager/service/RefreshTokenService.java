@@ -1,16 +1,13 @@
 package com.warehouse.warehousemanager.service;
 
-import com.warehouse.warehousemanager.entity.RefreshToken;
 import com.warehouse.warehousemanager.entity.User;
 import com.warehouse.warehousemanager.exception.TokenRefreshException;
-import com.warehouse.warehousemanager.repository.RefreshTokenRepository;
+import com.warehouse.warehousemanager.repository.UserRepository;
+import com.warehouse.warehousemanager.util.HashUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
-import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -20,35 +17,42 @@ public class RefreshTokenService {
     private Long refreshTokenDurationMs;
 
     @Autowired
-    private RefreshTokenRepository refreshTokenRepository;
+    private RefreshTokenStore refreshTokenStore;
 
-    public RefreshToken createRefreshToken(User user) {
-        // Delete any existing refresh tokens for this user
-        refreshTokenRepository.findByUser(user).ifPresent(refreshTokenRepository::delete);
-
-        RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setUser(user);
-        refreshToken.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
-        refreshToken.setToken(UUID.randomUUID().toString());
-
-        refreshToken = refreshTokenRepository.save(refreshToken);
-        return refreshToken;
-    }
-
-    public RefreshToken verifyExpiration(RefreshToken token) {
-        if (token.isExpired()) {
-            refreshTokenRepository.delete(token);
-            throw new TokenRefreshException(token.getToken(), "Refresh token was expired. Please make a new login request");
-        }
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Issue a new refresh token for the user, replacing the previous one.
+     * Returns the raw token; only its digest is stored.
+     */
+    public String createRefreshToken(User user) {
+        String token = UUID.randomUUID().toString();
+        refreshTokenStore.put(new StoredRefreshToken(
+                HashUtil.sha256Hex(token),
+                user.getId(),
+                System.currentTimeMillis() + refreshTokenDurationMs));
         return token;
     }
 
-    @Transactional
-    public int deleteByUser(User user) {
-        return refreshTokenRepository.deleteByUser(user);
+    /**
+     * Returns the owner of a valid refresh token, or throws TokenRefreshException
+     */
+    public User verifyRefreshToken(String token) {
+        String tokenHash = HashUtil.sha256Hex(token);
+        StoredRefreshToken storedToken = refreshTokenStore.findByHash(tokenHash);
+        if (storedToken == null) {
+            throw new TokenRefreshException(token, "Refresh token is not in database!");
+        }
+        if (storedToken.isExpired()) {
+            refreshTokenStore.remove(tokenHash);
+            throw new TokenRefreshException(token, "Refresh token was expired. Please make a new login request");
+        }
+        return userRepository.findById(storedToken.getUserId())
+                .orElseThrow(() -> new TokenRefreshException(token, "User no longer exists"));
     }
 
-    public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+    public void deleteByUser(User user) {
+        refreshTokenStore.removeByUserId(user.getId());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package com.warehouse.warehousemanager.service;
+
+import java.util.Map;
+
+/**
+ * Storage for refresh tokens, keyed by token digest. A user holds at most one refresh token.
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Store the token, replacing any token the user already has
+     */
+    void put(StoredRefreshToken token);
+
+    /**
+     * Returns the token with this digest, or null if it is unknown
+     */
+    StoredRefreshToken findByHash(String tokenHash);
+
+    void remove(String tokenHash);
+
+    void removeByUserId(Long userId);
+
+    Map<String, Object> stats();
+}
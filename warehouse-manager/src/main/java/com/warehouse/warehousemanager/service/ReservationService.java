@@ -0,0 +1,275 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.dto.AvailabilityDto;
+import com.warehouse.warehousemanager.dto.ReservationRequest;
+import com.warehouse.warehousemanager.entity.Export;
+import com.warehouse.warehousemanager.entity.StockMovement;
+import com.warehouse.warehousemanager.entity.StockReservation;
+import com.warehouse.warehousemanager.exception.InsufficientStockException;
+import com.warehouse.warehousemanager.repository.ExportRepository;
+import com.warehouse.warehousemanager.repository.StockReservationRepository;
+import com.warehouse.warehousemanager.util.TimingWheel;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stock reservations for pick lists that will become exports later.
+ * A reservation holds quantity in {@link ReservedStock} until it is released, expires or
+ * is converted into an Export. Every state change leaves ACTIVE with one conditional
+ * UPDATE, so exactly one of release, expiry and conversion wins, and only the winner
+ * gives the held quantity back, after its transaction commits. Active reservations are
+ * also kept in memory and their deadlines in a timing wheel, so the sweeper only visits
+ * reservations that are due instead of scanning the table.
+ */
+@Service
+public class ReservationService {
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private ExportRepository exportRepository;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ReservedStock reservedStock;
+
+    @Autowired
+    private MovementRollup movementRollup;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.reservationDefaultTtlSeconds:3600}")
+    private long defaultTtlSeconds;
+
+    @Value("${app.reservationMaxTtlSeconds:86400}")
+    private long maxTtlSeconds;
+
+    private final TimingWheel<Long> expiryWheel;
+
+    // Active reservations by id; the sweeper checks deadlines here
+    private final ConcurrentHashMap<Long, StockReservation> active = new ConcurrentHashMap<>();
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder converted = new LongAdder();
+
+    public ReservationService(@Value("${app.reservationSweepMs:1000}") long sweepMs) {
+        this.expiryWheel = new TimingWheel<>(sweepMs, 512);
+    }
+
+    /**
+     * Reservations that ran out while the service was down are expired first;
+     * the remaining active ones are held again
+     */
+    @PostConstruct
+    void load() {
+        Integer overdue = transactionTemplate.execute(status -> reservationRepository.finishOverdue(
+                StockReservation.Status.ACTIVE, StockReservation.Status.EXPIRED, LocalDateTime.now()));
+        List<StockReservation> stillActive = reservationRepository.findByStatus(StockReservation.Status.ACTIVE);
+        for (StockReservation reservation : stillActive) {
+            reservedStock.restore(reservation.getProductId(), reservation.getQuantity());
+            track(reservation);
+        }
+        System.out.println("Loaded " + stillActive.size() + " active stock reservations, expired " + overdue + " overdue");
+    }
+
+    public StockReservation reserve(ReservationRequest request, String username) {
+        if (request.getProductId() == null) {
+            throw new IllegalArgumentException("Product id is required");
+        }
+        if (request.getQuantity() == null || request.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        long ttlSeconds = request.getTtlSeconds() != null ? request.getTtlSeconds() : defaultTtlSeconds;
+        if (ttlSeconds <= 0 || ttlSeconds > maxTtlSeconds) {
+            throw new IllegalArgumentException("ttlSeconds must be between 1 and " + maxTtlSeconds);
+        }
+
+        Long productId = request.getProductId();
+        int quantity = request.getQuantity();
+        StockReservation saved = transactionTemplate.execute(status -> {
+            // Read under the write lock, so no movement can change the quantity until we commit
+            Integer onHand = stockService.currentQuantity(productId);
+            if (onHand == null) {
+                throw new RuntimeException("Product not found");
+            }
+            if (!reservedStock.tryReserve(productId, quantity, onHand)) {
+                rejected.increment();
+                throw new InsufficientStockException(productId, Math.max(onHand - reservedStock.reserved(productId), 0), quantity);
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int completionStatus) {
+                    if (completionStatus != STATUS_COMMITTED) {
+                        reservedStock.release(productId, quantity);
+                    }
+                }
+            });
+            return reservationRepository.save(new StockReservation(productId, quantity, request.getReference(),
+                    username, LocalDateTime.now().plusSeconds(ttlSeconds)));
+        });
+
+        created.increment();
+        track(saved);
+        return saved;
+    }
+
+    public Optional<StockReservation> findById(Long id) {
+        return reservationRepository.findById(id);
+    }
+
+    public List<StockReservation> findActiveByProduct(Long productId) {
+        return reservationRepository.findByProductIdAndStatusOrderByExpiresAtAsc(productId, StockReservation.Status.ACTIVE);
+    }
+
+    /**
+     * Give the held quantity back; fails if the reservation is no longer active
+     */
+    public StockReservation release(Long id) {
+        StockReservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Reservation not found"));
+        if (!finish(reservation, StockReservation.Status.RELEASED)) {
+            throw new IllegalArgumentException("Reservation " + id + " is no longer active");
+        }
+        released.increment();
+        reservation.setStatus(StockReservation.Status.RELEASED);
+        return reservation;
+    }
+
+    /**
+     * Turn the reservation into an Export in one transaction: the reservation is marked converted,
+     * the export row is inserted and the stock it held is taken off the product
+     */
+    public Export convert(Long id) {
+        StockReservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Reservation not found"));
+        if (reservation.getStatus() != StockReservation.Status.ACTIVE) {
+            throw new IllegalArgumentException("Reservation " + id + " is no longer active");
+        }
+
+        Export saved = transactionTemplate.execute(status -> {
+            Export exportRecord = exportRepository.save(new Export(reservation.getProductId(), reservation.getQuantity()));
+            if (reservationRepository.finish(id, StockReservation.Status.ACTIVE, StockReservation.Status.CONVERTED, exportRecord.getId()) != 1) {
+                // Expired or released since we read it; roll the export back
+                throw new IllegalArgumentException("Reservation " + id + " is no longer active");
+            }
+            stockService.consumeReservation(reservation.getProductId(), reservation.getQuantity(),
+                    StockMovement.Reason.EXPORT, exportRecord.getId());
+            movementRollup.recordExports(List.of(exportRecord));
+            return exportRecord;
+        });
+
+        giveBack(reservation);
+        converted.increment();
+        return saved;
+    }
+
+    /**
+     * On-hand quantity from the product cache next to the quantity reserved, or null for an unknown product
+     */
+    public AvailabilityDto availability(Long productId) {
+        if (productCache.getView(productId) == null) {
+            return null;
+        }
+        int onHand = productCache.quantityOf(productId);
+        int reserved = reservedStock.reserved(productId);
+        return new AvailabilityDto(productId, onHand, reserved, Math.max(onHand - reserved, 0));
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservationSweepMs:1000}")
+    public void sweepExpired() {
+        // One clock reading for the wheel and the deadline check, both in the wheel's millisecond precision
+        long now = System.currentTimeMillis();
+        expiryWheel.advance(now, id -> {
+            StockReservation reservation = active.get(id);
+            // The wheel never cancels, so the reservation may have been released or converted since
+            if (reservation == null) {
+                return;
+            }
+            long deadline = deadlineOf(reservation);
+            if (deadline > now) {
+                // Handed over early; the wheel forgets it now, so it must be scheduled again
+                expiryWheel.schedule(id, deadline);
+                return;
+            }
+            try {
+                if (finish(reservation, StockReservation.Status.EXPIRED)) {
+                    expired.increment();
+                } else {
+                    active.remove(id);
+                }
+            } catch (RuntimeException e) {
+                // Try again on the next sweep
+                System.err.println("Could not expire reservation " + id + ": " + e.getMessage());
+                expiryWheel.schedule(id, System.currentTimeMillis());
+            }
+        });
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("active", active.size());
+        stats.put("productsWithHolds", reservedStock.productCount());
+        stats.put("scheduledExpiries", expiryWheel.size());
+        stats.put("created", created.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("released", released.sum());
+        stats.put("expired", expired.sum());
+        stats.put("converted", converted.sum());
+        return stats;
+    }
+
+    /**
+     * Move an active reservation to a final status; only the caller that wins gives the hold back
+     */
+    private boolean finish(StockReservation reservation, StockReservation.Status newStatus) {
+        Integer updated = transactionTemplate.execute(status ->
+                reservationRepository.finish(reservation.getId(), StockReservation.Status.ACTIVE, newStatus, null));
+        if (updated == null || updated != 1) {
+            return false;
+        }
+        giveBack(reservation);
+        return true;
+    }
+
+    private void track(StockReservation reservation) {
+        active.put(reservation.getId(), reservation);
+        expiryWheel.schedule(reservation.getId(), deadlineOf(reservation));
+    }
+
+    private static long deadlineOf(StockReservation reservation) {
+        return reservation.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Called once per reservation, by whoever moved it out of ACTIVE, after that commit
+     */
+    private void giveBack(StockReservation reservation) {
+        active.remove(reservation.getId());
+        reservedStock.release(reservation.getProductId(), reservation.getQuantity());
+    }
+}
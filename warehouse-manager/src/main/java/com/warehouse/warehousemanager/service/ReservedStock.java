@@ -0,0 +1,59 @@
+package com.warehouse.warehousemanager.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Quantity held by active reservations, one lock-free counter per product.
+ * Product.quantity stays the stock on hand; available stock is on hand minus reserved.
+ * Stock decreases read these counters inside their transaction, and because every
+ * transaction holds the database write lock, a reservation's check against the quantity
+ * on hand and the movements it competes with are serialized.
+ */
+@Service
+public class ReservedStock {
+
+    private final ConcurrentHashMap<Long, AtomicInteger> counters = new ConcurrentHashMap<>();
+
+    public int reserved(Long productId) {
+        AtomicInteger counter = counters.get(productId);
+        return counter != null ? counter.get() : 0;
+    }
+
+    /**
+     * Hold quantity only if it fits into what onHand leaves after the existing holds
+     */
+    public boolean tryReserve(Long productId, int quantity, int onHand) {
+        AtomicInteger counter = counters.computeIfAbsent(productId, id -> new AtomicInteger());
+        while (true) {
+            int current = counter.get();
+            if (onHand - current < quantity) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + quantity)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Re-add a hold that was already checked, when active reservations are loaded at startup
+     */
+    void restore(Long productId, int quantity) {
+        counters.computeIfAbsent(productId, id -> new AtomicInteger()).addAndGet(quantity);
+    }
+
+    public void release(Long productId, int quantity) {
+        AtomicInteger counter = counters.get(productId);
+        if (counter != null) {
+            // Entries are kept at zero: removing one could lose a concurrent tryReserve on it
+            counter.addAndGet(-quantity);
+        }
+    }
+
+    public int productCount() {
+        return counters.size();
+    }
+}
@@ -0,0 +1,320 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.dto.StockAlertDto;
+import com.warehouse.warehousemanager.dto.StockThresholdDto;
+import com.warehouse.warehousemanager.entity.Product;
+import com.warehouse.warehousemanager.entity.StockAlert;
+import com.warehouse.warehousemanager.entity.StockThreshold;
+import com.warehouse.warehousemanager.mapper.StockAlertMapper;
+import com.warehouse.warehousemanager.repository.ProductRepository;
+import com.warehouse.warehousemanager.repository.StockAlertRepository;
+import com.warehouse.warehousemanager.repository.StockThresholdRepository;
+import com.warehouse.warehousemanager.util.TimingWheel;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Low-stock alerts on per-product reorder points.
+ * ProductCache reports every committed quantity change; for a product with a threshold
+ * that is one hash lookup and two comparisons, and only a change that crosses the reorder
+ * point does anything more. A crossing is debounced: the product is looked at again
+ * app.stockAlertDebounceMs later, and an alert fires only if its state then differs from
+ * the last alert, so a product bouncing around its reorder point produces one alert or
+ * none. Alerts are stored in stock_alerts and pushed to subscribers of the SSE feed;
+ * the most recent ones are kept in memory so reconnecting clients can catch up.
+ */
+@Service
+public class StockAlertService {
+
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+
+    @Autowired
+    private StockThresholdRepository thresholdRepository;
+
+    @Autowired
+    private StockAlertRepository alertRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.stockAlertDebounceMs:30000}")
+    private long debounceMs;
+
+    @Value("${app.stockAlertFeedSize:200}")
+    private int feedSize;
+
+    @Value("${app.stockAlertStreamTimeoutMs:1800000}")
+    private long streamTimeoutMs;
+
+    private final ConcurrentHashMap<Long, Rule> rules = new ConcurrentHashMap<>();
+
+    private final TimingWheel<Long> debounceWheel;
+
+    // Most recent alerts, oldest first; guarded by its own monitor together with the subscriber list
+    private final ArrayDeque<StockAlertDto> feed = new ArrayDeque<>();
+
+    private final CopyOnWriteArrayList<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder crossings = new LongAdder();
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder debounced = new LongAdder();
+
+    public StockAlertService(@Value("${app.stockAlertSweepMs:1000}") long sweepMs) {
+        this.debounceWheel = new TimingWheel<>(sweepMs, 512);
+    }
+
+    /**
+     * Rebuild the rules and re-check every product once, so crossings missed while the service was down still alert
+     */
+    @PostConstruct
+    void load() {
+        Map<Long, StockAlert.Type> lastAlerts = new HashMap<>();
+        for (StockAlert alert : alertRepository.findLatestPerProduct()) {
+            lastAlerts.put(alert.getProductId(), alert.getType());
+        }
+        List<StockThreshold> thresholds = thresholdRepository.findAll();
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (Product product : productRepository.findAllById(thresholds.stream().map(StockThreshold::getProductId).toList())) {
+            quantities.put(product.getId(), product.getQuantity() != null ? product.getQuantity() : 0);
+        }
+
+        long now = System.currentTimeMillis();
+        for (StockThreshold threshold : thresholds) {
+            Rule rule = new Rule(threshold.getReorderPoint(), lastAlerts.get(threshold.getProductId()) == StockAlert.Type.LOW_STOCK);
+            rule.quantity.set(quantities.getOrDefault(threshold.getProductId(), UNKNOWN));
+            rules.put(threshold.getProductId(), rule);
+            schedule(threshold.getProductId(), rule, now);
+        }
+        System.out.println("Loaded " + rules.size() + " stock alert thresholds");
+    }
+
+    /**
+     * Called by ProductCache for every committed quantity change, one product at a time
+     */
+    void quantityChanged(Long productId, int previousQuantity, int newQuantity) {
+        Rule rule = rules.get(productId);
+        if (rule == null) {
+            return;
+        }
+        evaluations.increment();
+        rule.quantity.set(newQuantity);
+        int reorderPoint = rule.reorderPoint;
+        if ((previousQuantity < reorderPoint) != (newQuantity < reorderPoint)) {
+            crossings.increment();
+            schedule(productId, rule, System.currentTimeMillis() + debounceMs);
+        }
+    }
+
+    public StockThresholdDto setThreshold(Long productId, Integer reorderPoint) {
+        if (reorderPoint == null || reorderPoint < 0) {
+            throw new IllegalArgumentException("Reorder point must be zero or more");
+        }
+        Integer quantity = transactionTemplate.execute(status -> {
+            Integer current = productRepository.findQuantityById(productId);
+            if (current == null) {
+                throw new RuntimeException("Product not found");
+            }
+            StockThreshold threshold = thresholdRepository.findByProductId(productId)
+                    .orElseGet(() -> new StockThreshold(productId, reorderPoint));
+            threshold.setReorderPoint(reorderPoint);
+            threshold.setUpdatedAt(LocalDateTime.now());
+            thresholdRepository.save(threshold);
+            return current;
+        });
+
+        Rule rule = rules.computeIfAbsent(productId, id -> new Rule(reorderPoint, lastAlertWasLow(id)));
+        rule.reorderPoint = reorderPoint;
+        // A change reported since we read the quantity is newer than our read
+        rule.quantity.compareAndSet(UNKNOWN, quantity);
+        schedule(productId, rule, System.currentTimeMillis());
+        return new StockThresholdDto(productId, reorderPoint, rule.alertedLow);
+    }
+
+    public boolean removeThreshold(Long productId) {
+        Integer deleted = transactionTemplate.execute(status -> thresholdRepository.deleteByProductId(productId));
+        rules.remove(productId);
+        return deleted != null && deleted > 0;
+    }
+
+    /**
+     * Drop the threshold together with the product, in the product's delete transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void productDeleted(Long productId) {
+        thresholdRepository.deleteByProductId(productId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rules.remove(productId);
+            }
+        });
+    }
+
+    public List<StockThresholdDto> findThresholds() {
+        List<StockThresholdDto> thresholds = new ArrayList<>();
+        rules.forEach((productId, rule) -> thresholds.add(new StockThresholdDto(productId, rule.reorderPoint, rule.alertedLow)));
+        thresholds.sort((a, b) -> Long.compare(a.getProductId(), b.getProductId()));
+        return thresholds;
+    }
+
+    /**
+     * Stored alerts, newest first, with ids below before (all when null)
+     */
+    public List<StockAlert> findAlerts(Long productId, Long before, int limit) {
+        long beforeId = before != null ? before : Long.MAX_VALUE;
+        return productId != null
+                ? alertRepository.findByProductIdAndIdLessThanOrderByIdDesc(productId, beforeId, PageRequest.of(0, limit))
+                : alertRepository.findByIdLessThanOrderByIdDesc(beforeId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Live feed of new alerts. With lastEventId (the SSE Last-Event-ID header) the alerts
+     * after it that are still in memory are sent first.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+
+        List<StockAlertDto> missed = new ArrayList<>();
+        synchronized (feed) {
+            subscribers.add(emitter);
+            if (lastEventId != null) {
+                for (StockAlertDto alert : feed) {
+                    if (alert.getId() > lastEventId) {
+                        missed.add(alert);
+                    }
+                }
+            }
+        }
+        for (StockAlertDto alert : missed) {
+            send(emitter, alert);
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${app.stockAlertSweepMs:1000}")
+    public void sweep() {
+        debounceWheel.advance(System.currentTimeMillis(), productId -> {
+            Rule rule = rules.get(productId);
+            if (rule == null) {
+                return;
+            }
+            rule.pending.set(false);
+            try {
+                evaluate(productId, rule);
+            } catch (RuntimeException e) {
+                System.err.println("Could not record stock alert for product " + productId + ": " + e.getMessage());
+                schedule(productId, rule, System.currentTimeMillis() + debounceMs);
+            }
+        });
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("thresholds", rules.size());
+        stats.put("evaluations", evaluations.sum());
+        stats.put("crossings", crossings.sum());
+        stats.put("alerts", fired.sum());
+        stats.put("debounced", debounced.sum());
+        stats.put("pending", debounceWheel.size());
+        stats.put("subscribers", subscribers.size());
+        return stats;
+    }
+
+    private void evaluate(Long productId, Rule rule) {
+        int quantity = rule.quantity.get();
+        if (quantity == UNKNOWN) {
+            return;
+        }
+        int reorderPoint = rule.reorderPoint;
+        boolean low = quantity < reorderPoint;
+        if (low == rule.alertedLow) {
+            // Crossed and came back within the debounce window
+            debounced.increment();
+            return;
+        }
+
+        StockAlert alert = alertRepository.save(new StockAlert(productId,
+                low ? StockAlert.Type.LOW_STOCK : StockAlert.Type.RECOVERED, quantity, reorderPoint));
+        rule.alertedLow = low;
+        fired.increment();
+        publish(StockAlertMapper.toDto(alert));
+    }
+
+    private void publish(StockAlertDto alert) {
+        List<SseEmitter> targets;
+        synchronized (feed) {
+            feed.addLast(alert);
+            while (feed.size() > feedSize) {
+                feed.removeFirst();
+            }
+            targets = new ArrayList<>(subscribers);
+        }
+        for (SseEmitter emitter : targets) {
+            send(emitter, alert);
+        }
+    }
+
+    private void send(SseEmitter emitter, StockAlertDto alert) {
+        try {
+            emitter.send(SseEmitter.event().id(String.valueOf(alert.getId())).name("stock-alert").data(alert));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            subscribers.remove(emitter);
+        }
+    }
+
+    private void schedule(Long productId, Rule rule, long deadline) {
+        // One pending check per product is enough; it reads the quantity when it runs
+        if (rule.pending.compareAndSet(false, true)) {
+            debounceWheel.schedule(productId, deadline);
+        }
+    }
+
+    private boolean lastAlertWasLow(Long productId) {
+        List<StockAlert> last = alertRepository.findByProductIdAndIdLessThanOrderByIdDesc(productId, Long.MAX_VALUE, PageRequest.of(0, 1));
+        return !last.isEmpty() && last.get(0).getType() == StockAlert.Type.LOW_STOCK;
+    }
+
+    private static final class Rule {
+        private volatile int reorderPoint;
+        private volatile boolean alertedLow;
+        private final AtomicInteger quantity = new AtomicInteger(UNKNOWN);
+        private final AtomicBoolean pending = new AtomicBoolean();
+
+        private Rule(int reorderPoint, boolean alertedLow) {
+            this.reorderPoint = reorderPoint;
+            this.alertedLow = alertedLow;
+        }
+    }
+}
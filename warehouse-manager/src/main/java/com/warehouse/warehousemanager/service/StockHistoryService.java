@@ -0,0 +1,123 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.dto.StockLevelDto;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Point-in-time stock levels answered from the ledger. The all-products variant splits the
+ * product ids into slices and rebuilds each slice on a small pool; SQLite in WAL mode serves
+ * these reads concurrently and without blocking writers.
+ */
+@Service
+public class StockHistoryService {
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService executor;
+
+    private final int parallelism;
+
+    private final LongAdder singleQueries = new LongAdder();
+
+    private final LongAdder bulkQueries = new LongAdder();
+
+    private final LongAdder productsRebuilt = new LongAdder();
+
+    public StockHistoryService(@Value("${app.stockHistoryThreads:4}") int threads) {
+        this.parallelism = Math.max(1, threads);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "stock-history-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Quantity of one product at the given time, or null if it had no stock history by then
+     */
+    public Integer quantityAt(Long productId, LocalDateTime at) {
+        singleQueries.increment();
+        productsRebuilt.increment();
+        return stockLedger.quantityAt(productId, at);
+    }
+
+    /**
+     * Quantity of every current product at the given time, in product id order.
+     * Products without stock history at that time are left out.
+     */
+    public List<StockLevelDto> allQuantitiesAt(LocalDateTime at) {
+        bulkQueries.increment();
+        List<Long> productIds = jdbcTemplate.queryForList("SELECT id FROM products ORDER BY id", Long.class);
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+
+        int sliceSize = (productIds.size() + parallelism - 1) / parallelism;
+        List<CompletableFuture<List<StockLevelDto>>> slices = new ArrayList<>();
+        for (int start = 0; start < productIds.size(); start += sliceSize) {
+            List<Long> slice = productIds.subList(start, Math.min(start + sliceSize, productIds.size()));
+            slices.add(CompletableFuture.supplyAsync(() -> rebuild(slice, at), executor));
+        }
+
+        List<StockLevelDto> levels = new ArrayList<>(productIds.size());
+        try {
+            // Slices are contiguous ranges of the sorted ids, so joining in order keeps the result sorted
+            for (CompletableFuture<List<StockLevelDto>> slice : slices) {
+                levels.addAll(slice.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return levels;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("singleQueries", singleQueries.sum());
+        stats.put("bulkQueries", bulkQueries.sum());
+        stats.put("productsRebuilt", productsRebuilt.sum());
+        stats.put("threads", parallelism);
+        return stats;
+    }
+
+    private List<StockLevelDto> rebuild(List<Long> productIds, LocalDateTime at) {
+        List<StockLevelDto> levels = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            Integer quantity = stockLedger.quantityAt(productId, at);
+            if (quantity != null) {
+                levels.add(new StockLevelDto(productId, quantity, at));
+            }
+        }
+        productsRebuilt.add(productIds.size());
+        return levels;
+    }
+}
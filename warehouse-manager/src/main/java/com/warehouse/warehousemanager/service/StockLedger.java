@@ -0,0 +1,202 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.entity.StockMovement;
+import com.warehouse.warehousemanager.entity.StockSnapshot;
+import com.warehouse.warehousemanager.repository.StockMovementRepository;
+import com.warehouse.warehousemanager.repository.StockSnapshotRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Append-only record of every stock change, plus periodic per-product snapshots.
+ * A product's quantity can always be rebuilt as its latest snapshot plus the ledger
+ * entries after it; snapshots are taken once a product's tail reaches
+ * app.stockSnapshotMinTail entries, so rebuilding never replays the whole history.
+ * The snapshot run also compares the rebuilt quantity with products.quantity and
+ * reports any drift.
+ */
+@Service
+public class StockLedger {
+
+    private static final String INSERT_MOVEMENT =
+            "INSERT INTO stock_ledger (product_id, delta, reason, reference_id, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    // Gives products that predate the ledger (or were written around it) their current quantity as an opening entry
+    private static final String INSERT_OPENING =
+            "INSERT INTO stock_ledger (product_id, delta, reason, reference_id, created_at) " +
+            "SELECT p.id, COALESCE(p.quantity, 0), 'OPENING', NULL, ? FROM products p " +
+            "WHERE NOT EXISTS (SELECT 1 FROM stock_ledger l WHERE l.product_id = p.id)";
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private StockSnapshotRepository stockSnapshotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.stockSnapshotMinTail:100}")
+    private int minTail;
+
+    // Ledger id up to which changed products have been checked for a snapshot
+    private volatile long watermark;
+
+    private final LongAdder appended = new LongAdder();
+
+    private final LongAdder snapshotsTaken = new LongAdder();
+
+    private final LongAdder driftDetected = new LongAdder();
+
+    @PostConstruct
+    void bootstrap() {
+        transactionTemplate.executeWithoutResult(status -> {
+            int opened = jdbcTemplate.update(INSERT_OPENING, Timestamp.valueOf(LocalDateTime.now()));
+            if (opened > 0) {
+                System.out.println("Stock ledger: recorded opening quantities for " + opened + " products");
+            }
+        });
+        // Products left without a snapshot at the last run had short tails; they are checked again once they move
+        watermark = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(last_movement_id), 0) FROM stock_snapshots", Long.class);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Long productId, int delta, StockMovement.Reason reason, Long referenceId) {
+        appendAll(List.of(new StockMovement(productId, delta, reason, referenceId)));
+    }
+
+    /**
+     * Insert ledger entries with one JDBC batch, in the caller's transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(movements.size());
+        for (StockMovement movement : movements) {
+            rows.add(new Object[]{movement.getProductId(), movement.getDelta(), movement.getReason().name(),
+                    movement.getReferenceId(), Timestamp.valueOf(movement.getCreatedAt())});
+        }
+        jdbcTemplate.batchUpdate(INSERT_MOVEMENT, rows);
+        appended.add(movements.size());
+    }
+
+    /**
+     * Quantity rebuilt from the latest snapshot and the ledger tail, or null if the product has no ledger entries
+     */
+    public Integer reconstruct(Long productId) {
+        StockSnapshot snapshot = stockSnapshotRepository.findTopByProductIdOrderByLastMovementIdDesc(productId).orElse(null);
+        if (snapshot == null && !stockMovementRepository.existsByProductId(productId)) {
+            return null;
+        }
+        long afterId = snapshot != null ? snapshot.getLastMovementId() : 0L;
+        return (snapshot != null ? snapshot.getQuantity() : 0) + (int) stockMovementRepository.sumDeltaAfter(productId, afterId);
+    }
+
+    /**
+     * Quantity at a point in time, or null if the product had no ledger entries by then.
+     * Starts from the last snapshot taken at or before that time and replays only the entries
+     * stamped between the snapshot and the requested time. Writers are serialized (read-write
+     * transactions take the SQLite write lock up front) and stamp entries inside their transaction, so every entry after
+     * a snapshot's last movement is stamped no earlier than the snapshot itself.
+     */
+    public Integer quantityAt(Long productId, LocalDateTime at) {
+        StockSnapshot snapshot = stockSnapshotRepository
+                .findTopByProductIdAndCreatedAtLessThanEqualOrderByLastMovementIdDesc(productId, at).orElse(null);
+        if (snapshot == null) {
+            if (!stockMovementRepository.existsByProductIdAndCreatedAtLessThanEqual(productId, at)) {
+                return null;
+            }
+            return (int) stockMovementRepository.sumDeltaUpTo(productId, at);
+        }
+        return snapshot.getQuantity()
+                + (int) stockMovementRepository.sumDeltaBetween(productId, snapshot.getCreatedAt(), at, snapshot.getLastMovementId());
+    }
+
+    /**
+     * Snapshot every product that moved since the last run and now has a long enough tail
+     */
+    @Scheduled(fixedDelayString = "${app.stockSnapshotIntervalMs:600000}",
+               initialDelayString = "${app.stockSnapshotIntervalMs:600000}")
+    public void takeSnapshots() {
+        long from = watermark;
+        Long upTo = transactionTemplate.execute(status -> {
+            // The write lock is held from here, so every ledger id up to the maximum is committed
+            long high = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM stock_ledger", Long.class);
+            if (high <= from) {
+                return high;
+            }
+            List<Long> changed = jdbcTemplate.queryForList(
+                    "SELECT DISTINCT product_id FROM stock_ledger WHERE id > ? AND id <= ?", Long.class, from, high);
+            for (Long productId : changed) {
+                snapshotIfDue(productId, high);
+            }
+            return high;
+        });
+        if (upTo != null) {
+            watermark = Math.max(watermark, upTo);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("appended", appended.sum());
+        stats.put("snapshotsTaken", snapshotsTaken.sum());
+        stats.put("driftDetected", driftDetected.sum());
+        stats.put("watermark", watermark);
+        stats.put("minTail", minTail);
+        return stats;
+    }
+
+    private void snapshotIfDue(Long productId, long high) {
+        StockSnapshot latest = stockSnapshotRepository.findTopByProductIdOrderByLastMovementIdDesc(productId).orElse(null);
+        long afterId = latest != null ? latest.getLastMovementId() : 0L;
+        Map<String, Object> tail = jdbcTemplate.queryForMap(
+                "SELECT COUNT(*) AS entries, COALESCE(SUM(delta), 0) AS total, MAX(id) AS last_id " +
+                "FROM stock_ledger WHERE product_id = ? AND id > ? AND id <= ?",
+                productId, afterId, high);
+        long entries = ((Number) tail.get("entries")).longValue();
+        int quantity = (latest != null ? latest.getQuantity() : 0) + ((Number) tail.get("total")).intValue();
+
+        checkDrift(productId, quantity);
+
+        if (entries < minTail) {
+            return;
+        }
+        StockSnapshot snapshot = new StockSnapshot();
+        snapshot.setProductId(productId);
+        snapshot.setQuantity(quantity);
+        snapshot.setLastMovementId(((Number) tail.get("last_id")).longValue());
+        stockSnapshotRepository.save(snapshot);
+        snapshotsTaken.increment();
+    }
+
+    private void checkDrift(Long productId, int ledgerQuantity) {
+        List<Integer> stored = jdbcTemplate.queryForList(
+                "SELECT COALESCE(quantity, 0) FROM products WHERE id = ?", Integer.class, productId);
+        if (!stored.isEmpty() && stored.get(0) != ledgerQuantity) {
+            driftDetected.increment();
+            System.err.println("Stock drift for product " + productId + ": stored quantity " + stored.get(0)
+                    + ", ledger quantity " + ledgerQuantity);
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.entity.Export;
+import com.warehouse.warehousemanager.entity.Import;
+import com.warehouse.warehousemanager.entity.StockMovement;
+import com.warehouse.warehousemanager.exception.InsufficientStockException;
+import com.warehouse.warehousemanager.repository.ExportRepository;
+import com.warehouse.warehousemanager.repository.ImportRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Flat combining of new imports and exports per product.
+ * Every caller appends its movement to the product's lane. Whichever caller wins the
+ * lane's combining flag drains up to app.stockCombinerMaxBatch movements and applies
+ * them in one transaction: it reads the quantity once, accepts or rejects each movement
+ * in arrival order, writes the final quantity with one compare-and-set UPDATE and
+ * inserts all accepted rows along with their ledger entries. Everyone else just waits
+ * for their own result, or takes over combining once the lane is free. Under load,
+ * batches grow instead of the number of transactions competing for the same row.
+ * If a batch fails, its movements are re-applied one per transaction, so a failing
+ * movement only fails its own caller. Lanes are dropped as soon as they drain.
+ */
+@Service
+public class StockMovementCombiner {
+
+    private static final int MAX_OPTIMISTIC_RETRIES = 5;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ReservedStock reservedStock;
+
+    @Autowired
+    private MovementRollup movementRollup;
+
+    @Autowired
+    private ImportRepository importRepository;
+
+    @Autowired
+    private ExportRepository exportRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.stockCombinerMaxBatch:256}")
+    private int maxBatch;
+
+    private final ConcurrentHashMap<Long, Lane> lanes = new ConcurrentHashMap<>();
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder movements = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder isolatedBatches = new LongAdder();
+    private final LongAccumulator largestBatch = new LongAccumulator(Math::max, 0);
+
+    public Import submitImport(Import importRecord) {
+        return submitImport(importRecord, null);
+    }
+
+    /**
+     * onSaved runs inside the transaction that inserts the row; if it throws, only this import fails
+     */
+    public Import submitImport(Import importRecord, Consumer<Import> onSaved) {
+        return (Import) submit(importRecord.getProductId(), new Movement(importRecord, null, importRecord.getQuantity(),
+                onSaved != null ? () -> onSaved.accept(importRecord) : null));
+    }
+
+    public Export submitExport(Export exportRecord) {
+        return submitExport(exportRecord, null);
+    }
+
+    /**
+     * onSaved runs inside the transaction that inserts the row; if it throws, only this export fails
+     */
+    public Export submitExport(Export exportRecord, Consumer<Export> onSaved) {
+        return (Export) submit(exportRecord.getProductId(), new Movement(null, exportRecord, -exportRecord.getQuantity(),
+                onSaved != null ? () -> onSaved.accept(exportRecord) : null));
+    }
+
+    public Map<String, Object> stats() {
+        long batchCount = batches.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("lanes", lanes.size());
+        stats.put("batches", batchCount);
+        stats.put("movements", movements.sum());
+        stats.put("avgBatchSize", batchCount == 0 ? 0.0 : (double) movements.sum() / batchCount);
+        stats.put("largestBatch", largestBatch.get());
+        stats.put("rejections", rejections.sum());
+        stats.put("optimisticRetries", retries.sum());
+        stats.put("isolatedBatches", isolatedBatches.sum());
+        return stats;
+    }
+
+    private Object submit(Long productId, Movement movement) {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product id is required");
+        }
+        Lane lane = lanes.computeIfAbsent(productId, id -> new Lane());
+        lane.queue.add(movement);
+
+        while (!movement.result.isDone()) {
+            if (lane.combining.compareAndSet(false, true)) {
+                try {
+                    combine(productId, lane);
+                    if (lane.queue.isEmpty()) {
+                        // A caller still holding this lane keeps combining it itself; new callers get a fresh lane
+                        lanes.remove(productId, lane);
+                    }
+                } finally {
+                    lane.combining.set(false);
+                }
+            } else {
+                awaitBriefly(movement);
+            }
+        }
+
+        try {
+            return movement.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void combine(Long productId, Lane lane) {
+        List<Movement> batch = new ArrayList<>();
+        Movement next;
+        while (batch.size() < maxBatch && (next = lane.queue.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        batches.increment();
+        movements.add(batch.size());
+        largestBatch.accumulate(batch.size());
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyBatch(productId, batch));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+                return;
+            }
+            // The whole batch rolled back; apply each movement on its own so only the failing ones fail
+            isolatedBatches.increment();
+            for (Movement movement : batch) {
+                applyAlone(productId, movement);
+            }
+            return;
+        }
+
+        // Only answer callers once the batch has committed
+        for (Movement movement : batch) {
+            answer(movement);
+        }
+    }
+
+    private void applyAlone(Long productId, Movement movement) {
+        movement.resetAfterRollback();
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyBatch(productId, List.of(movement)));
+        } catch (RuntimeException e) {
+            movement.result.completeExceptionally(e);
+            return;
+        }
+        answer(movement);
+    }
+
+    private void answer(Movement movement) {
+        if (movement.rejection != null) {
+            rejections.increment();
+            movement.result.completeExceptionally(movement.rejection);
+        } else {
+            movement.result.complete(movement.importRecord != null ? movement.importRecord : movement.exportRecord);
+        }
+    }
+
+    /**
+     * Runs inside the batch transaction: decide every movement in arrival order against one read of the
+     * quantity, write the final quantity once and insert the accepted rows
+     */
+    private void applyBatch(Long productId, List<Movement> batch) {
+        for (int attempt = 0; ; attempt++) {
+            Integer startQuantity = stockService.currentQuantity(productId);
+            if (startQuantity == null) {
+                throw new RuntimeException("Product not found");
+            }
+
+            // Exports may not dip into stock held by reservations
+            int reserved = reservedStock.reserved(productId);
+            int running = startQuantity;
+            List<Movement> accepted = new ArrayList<>();
+            for (Movement movement : batch) {
+                if (movement.delta < 0 && running + movement.delta < reserved) {
+                    // Report the quantity this caller actually saw at its place in the queue
+                    movement.rejection = new InsufficientStockException(productId, Math.max(running - reserved, 0), -movement.delta);
+                } else {
+                    movement.rejection = null;
+                    running += movement.delta;
+                    accepted.add(movement);
+                }
+            }
+
+            if (running == startQuantity || stockService.compareAndSet(productId, startQuantity, running)) {
+                saveMovements(accepted);
+                recordLedger(productId, accepted);
+                return;
+            }
+
+            // Changed by an update or delete outside the combiner since we read it
+            retries.increment();
+            if (attempt + 1 >= MAX_OPTIMISTIC_RETRIES) {
+                throw new RuntimeException("Stock for product " + productId + " is changing too fast, please retry");
+            }
+        }
+    }
+
+    private void saveMovements(List<Movement> accepted) {
+        List<Import> imports = new ArrayList<>();
+        List<Export> exports = new ArrayList<>();
+        for (Movement movement : accepted) {
+            if (movement.importRecord != null) {
+                imports.add(movement.importRecord);
+            } else {
+                exports.add(movement.exportRecord);
+            }
+        }
+        // saveAll fills in the generated ids on the callers' own objects
+        if (!imports.isEmpty()) {
+            importRepository.saveAll(imports);
+            movementRollup.recordImports(imports);
+        }
+        if (!exports.isEmpty()) {
+            exportRepository.saveAll(exports);
+            movementRollup.recordExports(exports);
+        }
+        for (Movement movement : accepted) {
+            if (movement.onSaved != null) {
+                movement.onSaved.run();
+            }
+        }
+    }
+
+    private void recordLedger(Long productId, List<Movement> accepted) {
+        List<StockMovement> entries = new ArrayList<>(accepted.size());
+        for (Movement movement : accepted) {
+            entries.add(movement.importRecord != null
+                    ? new StockMovement(productId, movement.delta, StockMovement.Reason.IMPORT, movement.importRecord.getId())
+                    : new StockMovement(productId, movement.delta, StockMovement.Reason.EXPORT, movement.exportRecord.getId()));
+        }
+        stockService.recordMovements(entries);
+    }
+
+    private void awaitBriefly(Movement movement) {
+        try {
+            movement.result.get(1, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Not done yet, or done with an error that submit() rethrows
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for stock update", e);
+        }
+    }
+
+    private static final class Lane {
+        private final ConcurrentLinkedQueue<Movement> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean combining = new AtomicBoolean();
+    }
+
+    private static final class Movement {
+        private final Import importRecord;
+        private final Export exportRecord;
+        private final int delta;
+        private final Runnable onSaved;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        // Set by the combining thread; read by it again after commit
+        private InsufficientStockException rejection;
+
+        private Movement(Import importRecord, Export exportRecord, int delta, Runnable onSaved) {
+            this.importRecord = importRecord;
+            this.exportRecord = exportRecord;
+            this.delta = delta;
+            this.onSaved = onSaved;
+        }
+
+        /**
+         * saveAll assigned an id before the batch rolled back; clear it so the row is inserted again, not merged
+         */
+        private void resetAfterRollback() {
+            rejection = null;
+            if (importRecord != null) {
+                importRecord.setId(null);
+            } else {
+                exportRecord.setId(null);
+            }
+        }
+    }
+}
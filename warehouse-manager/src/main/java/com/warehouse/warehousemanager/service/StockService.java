@@ -0,0 +1,149 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.entity.StockMovement;
+import com.warehouse.warehousemanager.exception.InsufficientStockException;
+import com.warehouse.warehousemanager.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The only place product quantities change because of stock movements.
+ * Each change is a single conditional UPDATE, so concurrent movements cannot lose
+ * updates or oversell, and each change is appended to the stock ledger. Callers must
+ * already be in the transaction that records the movement, so the movement row, the
+ * stock change and its ledger entry commit or roll back together. The product cache
+ * receives each change as a delta once the transaction commits. Decreases never take
+ * stock that active reservations hold (see {@link ReservedStock}).
+ */
+@Service
+public class StockService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ReservedStock reservedStock;
+
+    @Autowired
+    private MovementRollup movementRollup;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void increase(Long productId, int quantity, StockMovement.Reason reason, Long referenceId) {
+        requirePositive(quantity);
+        if (productRepository.incrementQuantity(productId, quantity) == 0) {
+            throw new RuntimeException("Product not found");
+        }
+        stockLedger.append(productId, quantity, reason, referenceId);
+        productCache.quantityChanged(productId, quantity);
+    }
+
+    /**
+     * Remove stock, leaving at least the quantity held by active reservations
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void decrease(Long productId, int quantity, StockMovement.Reason reason, Long referenceId) {
+        decreaseKeeping(productId, quantity, reservedStock.reserved(productId), reason, referenceId);
+    }
+
+    /**
+     * Remove stock that a reservation of the same quantity was holding: the reservation's own hold
+     * does not count against it. The caller releases the hold once the transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void consumeReservation(Long productId, int quantity, StockMovement.Reason reason, Long referenceId) {
+        decreaseKeeping(productId, quantity, Math.max(reservedStock.reserved(productId) - quantity, 0), reason, referenceId);
+    }
+
+    /**
+     * Apply a signed change: positive adds stock, negative removes it
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjust(Long productId, int delta, StockMovement.Reason reason, Long referenceId) {
+        if (delta > 0) {
+            increase(productId, delta, reason, referenceId);
+        } else if (delta < 0) {
+            decrease(productId, -delta, reason, referenceId);
+        }
+    }
+
+    /**
+     * Current quantity as stored, or null if the product does not exist
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Integer currentQuantity(Long productId) {
+        return productRepository.findQuantityById(productId);
+    }
+
+    /**
+     * Write a precomputed quantity only if it still equals the one the caller read.
+     * The caller records the movements behind the change with {@link #recordMovements}
+     * in the same transaction, once their rows (and ids) exist.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean compareAndSet(Long productId, int expectedQuantity, int newQuantity) {
+        if (newQuantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot go below zero");
+        }
+        if (productRepository.compareAndSetQuantity(productId, expectedQuantity, newQuantity) != 1) {
+            return false;
+        }
+        productCache.quantityChanged(productId, newQuantity - expectedQuantity);
+        return true;
+    }
+
+    /**
+     * Ledger entries for a change already written with compareAndSet
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordMovements(List<StockMovement> movements) {
+        stockLedger.appendAll(movements);
+    }
+
+    /**
+     * Ledger entry for a quantity set directly on a product: the opening quantity of a new
+     * product (previousQuantity null) or the difference from the previous quantity
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordQuantitySet(Long productId, Integer previousQuantity, Integer newQuantity) {
+        int after = newQuantity != null ? newQuantity : 0;
+        int delta = after - (previousQuantity != null ? previousQuantity : 0);
+        productCache.quantityChanged(productId, delta);
+        movementRollup.record(MovementRollup.Change.adjusted(productId, LocalDateTime.now(), delta));
+        if (previousQuantity == null) {
+            stockLedger.append(productId, after, StockMovement.Reason.OPENING, null);
+        } else if (after != previousQuantity) {
+            stockLedger.append(productId, after - previousQuantity, StockMovement.Reason.ADJUSTMENT, null);
+        }
+    }
+
+    private void decreaseKeeping(Long productId, int quantity, int keep, StockMovement.Reason reason, Long referenceId) {
+        requirePositive(quantity);
+        if (productRepository.decrementQuantity(productId, quantity, keep) == 0) {
+            // No row matched: either the product is gone or there is not enough unreserved stock
+            Integer onHand = productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found"))
+                .getQuantity();
+            int available = (onHand != null ? onHand : 0) - keep;
+            throw new InsufficientStockException(productId, Math.max(available, 0), quantity);
+        }
+        stockLedger.append(productId, -quantity, reason, referenceId);
+        productCache.quantityChanged(productId, -quantity);
+    }
+
+    private void requirePositive(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+    }
+}
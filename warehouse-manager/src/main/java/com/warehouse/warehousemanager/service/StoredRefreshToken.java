@@ -0,0 +1,33 @@
+package com.warehouse.warehousemanager.service;
+
+/**
+ * In-memory view of a refresh token. Only the SHA-256 digest of the token is kept.
+ */
+public final class StoredRefreshToken {
+
+    private final String tokenHash;
+    private final Long userId;
+    private final long expiresAt;
+
+    public StoredRefreshToken(String tokenHash, Long userId, long expiresAt) {
+        this.tokenHash = tokenHash;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired() {
+        return expiresAt <= System.currentTimeMillis();
+    }
+}
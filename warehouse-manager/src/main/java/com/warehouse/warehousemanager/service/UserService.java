@@ -2,12 +2,20 @@ package com.warehouse.warehousemanager.service;
 
 import com.warehouse.warehousemanager.entity.User;
 import com.warehouse.warehousemanager.repository.UserRepository;
+import com.warehouse.warehousemanager.security.CachedUserDetailsService;
+import com.warehouse.warehousemanager.security.PasswordHashingService;
+import com.warehouse.warehousemanager.security.TokenRevocationRegistry;
+import com.warehouse.warehousemanager.security.UserVersionRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 public class UserService {
@@ -16,11 +24,25 @@ public class UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private RefreshTokenService refreshTokenService;
 
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private UserVersionRegistry userVersionRegistry;
+
+    @Autowired
+    private CachedUserDetailsService cachedUserDetailsService;
+
+    // Where the database work continues once a password has been hashed on the hashing pool
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor applicationTaskExecutor;
+
     public List<User> findAll() {
         return userRepository.findAll();
     }
@@ -33,25 +55,84 @@ public class UserService {
         return userRepository.findByUsername(username);
     }
 
-    public User save(User user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+    /**
+     * Hashes the password on the hashing pool and saves on the application task executor;
+     * the caller's thread never waits for BCrypt
+     */
+    public CompletableFuture<User> save(User user) {
+        return passwordHashingService.encode(user.getPassword()).thenApplyAsync(hash -> {
+            user.setPassword(hash);
+            User savedUser = userRepository.save(user);
+            userVersionRegistry.update(savedUser);
+            cachedUserDetailsService.evict(savedUser.getUsername());
+            return savedUser;
+        }, applicationTaskExecutor);
     }
 
-    public User update(Long id, User userDetails) {
+    /**
+     * Like save, a new password is hashed first and the user updated once the hash is ready
+     */
+    public CompletableFuture<User> update(Long id, User userDetails) {
+        boolean credentialsChanged = userDetails.getPassword() != null && !userDetails.getPassword().isEmpty();
+        CompletableFuture<String> hash = credentialsChanged
+                ? passwordHashingService.encode(userDetails.getPassword())
+                : CompletableFuture.completedFuture(null);
+        return hash.thenApplyAsync(encodedPassword -> update(id, userDetails, encodedPassword), applicationTaskExecutor);
+    }
+
+    /**
+     * Store a new hash of the same password, e.g. after the BCrypt cost changed; tokens stay valid
+     */
+    public void updatePasswordHash(String username, String encodedPassword) {
+        userRepository.findByUsername(username).ifPresent(user -> {
+            user.setPassword(encodedPassword);
+            userRepository.save(user);
+        });
+    }
+
+    private User update(Long id, User userDetails, String encodedPassword) {
         User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
+        String previousUsername = user.getUsername();
+        boolean credentialsChanged = encodedPassword != null;
+
         user.setUsername(userDetails.getUsername());
-        if (userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
+        if (credentialsChanged) {
+            user.setPassword(encodedPassword);
         }
+
+        boolean claimsChanged = !Objects.equals(previousUsername, userDetails.getUsername())
+                || user.getRole() != userDetails.getRole()
+                || !permissionsOf(user).equals(permissionsOf(userDetails));
+
         user.setRole(userDetails.getRole());
         user.setPermissions(userDetails.getPermissions());
-        return userRepository.save(user);
+
+        // Access tokens embed role and permissions, so outstanding ones must stop working
+        if (claimsChanged || credentialsChanged) {
+            user.setTokenVersion(user.getTokenVersion() + 1);
+        }
+
+        User savedUser = userRepository.save(user);
+        if (!Objects.equals(previousUsername, savedUser.getUsername())) {
+            userVersionRegistry.remove(previousUsername);
+        }
+        userVersionRegistry.update(savedUser);
+        cachedUserDetailsService.evict(previousUsername);
+        cachedUserDetailsService.evict(savedUser.getUsername());
+        return savedUser;
     }
 
     public void deleteById(Long id) {
         User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
         refreshTokenService.deleteByUser(user);
         userRepository.deleteById(id);
+        userVersionRegistry.remove(user.getUsername());
+        cachedUserDetailsService.evict(user.getUsername());
+        tokenRevocationRegistry.revokeUser(user.getUsername());
+    }
+
+    // No permissions and an empty set are the same thing to a token
+    private static Set<String> permissionsOf(User user) {
+        return user.getPermissions() != null ? user.getPermissions() : Set.of();
     }
 }
\ No newline at end of file
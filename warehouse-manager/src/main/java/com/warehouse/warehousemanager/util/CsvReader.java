@@ -0,0 +1,127 @@
+package com.warehouse.warehousemanager.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pull-based RFC 4180 CSV reader. Records are parsed one at a time from the underlying reader,
+ * so memory use is bounded by the longest record, never by the size of the file.
+ * Quoted fields may contain commas, doubled quotes and line breaks.
+ */
+public class CsvReader implements Closeable {
+
+    // A single record larger than this is treated as a malformed file rather than buffered forever
+    private static final int MAX_RECORD_CHARS = 1 << 20;
+
+    private final Reader reader;
+
+    private final StringBuilder field = new StringBuilder();
+
+    private int pushedBack = -2;
+
+    private long recordNumber;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the next record, or null at end of input. Blank lines are skipped.
+     */
+    public List<String> readRecord() throws IOException {
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean sawAnything = false;
+        int recordChars = 0;
+
+        while (true) {
+            int c = read();
+            if (++recordChars > MAX_RECORD_CHARS) {
+                throw new IOException("CSV record " + (recordNumber + 1) + " exceeds " + MAX_RECORD_CHARS + " characters");
+            }
+
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field in CSV record " + (recordNumber + 1));
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(next);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+                continue;
+            }
+
+            if (c == -1) {
+                if (!sawAnything) {
+                    return null;
+                }
+                record.add(field.toString());
+                recordNumber++;
+                return record;
+            }
+            if (c == '\r') {
+                int next = read();
+                if (next != '\n') {
+                    unread(next);
+                }
+                c = '\n';
+            }
+            if (c == '\n') {
+                if (!sawAnything) {
+                    // Blank line
+                    recordChars = 0;
+                    continue;
+                }
+                record.add(field.toString());
+                recordNumber++;
+                return record;
+            }
+
+            sawAnything = true;
+            if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    /**
+     * Number of records returned so far
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
@@ -1,22 +1,42 @@
 package com.warehouse.warehousemanager.util;
 
+import com.warehouse.warehousemanager.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_PERMISSIONS = "permissions";
+    public static final String CLAIM_VERSION = "ver";
+
     @Value("${app.jwtSecret}")
     private String jwtSecret;
 
     @Value("${app.jwtExpirationInMs}")
     private int jwtExpirationInMs;
 
+    private SecretKey signingKey;
+
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        // The key and parser are immutable and thread-safe, so build them once
+        signingKey = getSigningKey();
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
     private SecretKey getSigningKey() {
         // Create a key from the secret string, ensuring it's the right size for HS512
         // If the secret string is too short, we'll use the Keys.secretKeyFor method
@@ -37,33 +57,51 @@ public class JwtUtil {
         return key;
     }
 
-    public String generateToken(String username) {
+    /**
+     * Issue an access token that carries everything needed to rebuild the principal,
+     * so authenticated requests do not have to load the user from the database.
+     * The random token id (jti) is what revocation refers to.
+     */
+    public String generateToken(User user) {
         Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationInMs);
+        List<String> permissions = user.getPermissions() != null
+                ? new ArrayList<>(user.getPermissions())
+                : new ArrayList<>();
 
         return Jwts.builder()
-                .setSubject(username)
+                .setId(UUID.randomUUID().toString())
+                .setSubject(user.getUsername())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_PERMISSIONS, permissions)
+                .claim(CLAIM_VERSION, user.getTokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public int getExpirationInMs() {
+        return jwtExpirationInMs;
+    }
 
-        return claims.getSubject();
+    /**
+     * Verify the signature and expiry and return the claims.
+     * Throws JwtException or IllegalArgumentException when the token is not valid.
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    public String getUsernameFromToken(String token) {
+        return parseClaims(token).getSubject();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
+            parseClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,231 @@
+package com.warehouse.warehousemanager.util;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Open-addressing hash map from long keys to int values, with no boxing and no
+ * per-entry objects. Writers take a StampedLock write lock; readers probe optimistically
+ * and only fall back to a read lock if a write happened meanwhile, so reads of a
+ * rarely-changing map cost a few array loads.
+ */
+public class LongIntHashMap {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final StampedLock lock = new StampedLock();
+
+    // Replaced as a whole on resize, so a reader always sees arrays of matching length
+    private volatile Table table;
+
+    private int size;
+
+    public LongIntHashMap(int expectedSize) {
+        this.table = new Table(capacityFor(Math.max(expectedSize, 16)));
+    }
+
+    /**
+     * Value for the key, or missingValue if there is none
+     */
+    public int get(long key, int missingValue) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            int value = lookup(table, key, missingValue);
+            if (lock.validate(stamp)) {
+                return value;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return lookup(table, key, missingValue);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean containsKey(long key) {
+        long stamp = lock.readLock();
+        try {
+            Table current = table;
+            return current.used[findSlot(current, key)];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void put(long key, int value) {
+        long stamp = lock.writeLock();
+        try {
+            Table current = table;
+            int slot = findSlot(current, key);
+            if (!current.used[slot]) {
+                insertAt(current, slot, key, value);
+            } else {
+                current.values[slot] = value;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Add delta to the key's value (starting from zero if absent) and return the new value
+     */
+    public int addTo(long key, int delta) {
+        long stamp = lock.writeLock();
+        try {
+            Table current = table;
+            int slot = findSlot(current, key);
+            if (!current.used[slot]) {
+                insertAt(current, slot, key, delta);
+                return delta;
+            }
+            current.values[slot] += delta;
+            return current.values[slot];
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean remove(long key) {
+        long stamp = lock.writeLock();
+        try {
+            Table current = table;
+            int slot = findSlot(current, key);
+            if (!current.used[slot]) {
+                return false;
+            }
+            deleteAt(current, slot);
+            size--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            table = new Table(capacityFor(16));
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Visit every key under the read lock; the consumer must not write to this map
+     */
+    public void forEachKey(LongConsumer consumer) {
+        long stamp = lock.readLock();
+        try {
+            Table current = table;
+            for (int i = 0; i < current.keys.length; i++) {
+                if (current.used[i]) {
+                    consumer.accept(current.keys[i]);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void insertAt(Table current, int slot, long key, int value) {
+        current.keys[slot] = key;
+        current.values[slot] = value;
+        current.used[slot] = true;
+        size++;
+        if (size > current.keys.length * LOAD_FACTOR) {
+            resize(current.keys.length * 2);
+        }
+    }
+
+    private void resize(int capacity) {
+        Table old = table;
+        Table grown = new Table(capacity);
+        for (int i = 0; i < old.keys.length; i++) {
+            if (old.used[i]) {
+                int slot = findSlot(grown, old.keys[i]);
+                grown.keys[slot] = old.keys[i];
+                grown.values[slot] = old.values[i];
+                grown.used[slot] = true;
+            }
+        }
+        table = grown;
+    }
+
+    /**
+     * Backward-shift deletion keeps probe chains intact without tombstones
+     */
+    private static void deleteAt(Table current, int slot) {
+        int mask = current.keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (current.used[next]) {
+            int home = mix(current.keys[next]) & mask;
+            // Move the entry back if its home slot is not between the hole and its position
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                current.keys[hole] = current.keys[next];
+                current.values[hole] = current.values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        current.used[hole] = false;
+    }
+
+    private static int lookup(Table current, long key, int missingValue) {
+        long[] keys = current.keys;
+        boolean[] used = current.used;
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        // Bounded so a torn optimistic read can never spin forever
+        for (int probes = 0; probes < keys.length && used[slot]; probes++) {
+            if (keys[slot] == key) {
+                return current.values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    private static int findSlot(Table current, long key) {
+        int mask = current.keys.length - 1;
+        int slot = mix(key) & mask;
+        while (current.used[slot] && current.keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = Integer.highestOneBit((int) Math.ceil(expectedSize / LOAD_FACTOR));
+        return capacity < expectedSize / LOAD_FACTOR ? capacity << 1 : capacity;
+    }
+
+    private static final class Table {
+        private final long[] keys;
+        private final int[] values;
+        private final boolean[] used;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new int[capacity];
+            this.used = new boolean[capacity];
+        }
+    }
+}
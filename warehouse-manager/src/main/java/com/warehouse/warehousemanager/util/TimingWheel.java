@@ -0,0 +1,101 @@
+package com.warehouse.warehousemanager.util;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for expiring large numbers of keys cheaply.
+ * Scheduling is a lock-free append to the bucket of the deadline's tick. Each advance only
+ * visits the buckets whose ticks have passed, so a sweep touches the keys that are due
+ * (plus any whose deadline is more than one turn away) instead of scanning everything.
+ * Keys are never cancelled; the expiry callback must check that the key is still due.
+ */
+public class TimingWheel<K> {
+
+    private final long tickMs;
+    private final ConcurrentLinkedQueue<Entry<K>>[] buckets;
+    private final ReentrantLock advanceLock = new ReentrantLock();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMs, int bucketCount) {
+        if (tickMs <= 0 || bucketCount <= 0) {
+            throw new IllegalArgumentException("tickMs and bucketCount must be positive");
+        }
+        this.tickMs = tickMs;
+        this.buckets = new ConcurrentLinkedQueue[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = System.currentTimeMillis() / tickMs;
+    }
+
+    public void schedule(K key, long deadlineMillis) {
+        // First tick that starts at or after the deadline, so the entry is due whenever its bucket is visited.
+        // Deadlines in the past go into the next bucket to be processed
+        long tick = Math.max(Math.ceilDiv(deadlineMillis, tickMs), currentTick + 1);
+        buckets[(int) Math.floorMod(tick, (long) buckets.length)].add(new Entry<>(key, deadlineMillis));
+        size.incrementAndGet();
+    }
+
+    /**
+     * Hand every key whose deadline is at or before nowMillis to onExpired.
+     * Only one thread advances at a time; a concurrent caller returns 0 immediately.
+     */
+    public int advance(long nowMillis, Consumer<K> onExpired) {
+        if (!advanceLock.tryLock()) {
+            return 0;
+        }
+        try {
+            long targetTick = nowMillis / tickMs;
+            // After a long pause one full turn visits every bucket
+            long ticks = Math.min(targetTick - currentTick, buckets.length);
+            int expired = 0;
+            for (long i = 1; i <= ticks; i++) {
+                long tick = targetTick - ticks + i;
+                expired += expireBucket(buckets[(int) Math.floorMod(tick, (long) buckets.length)], nowMillis, onExpired);
+            }
+            if (targetTick > currentTick) {
+                currentTick = targetTick;
+            }
+            return expired;
+        } finally {
+            advanceLock.unlock();
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private int expireBucket(ConcurrentLinkedQueue<Entry<K>> bucket, long nowMillis, Consumer<K> onExpired) {
+        int expired = 0;
+        Iterator<Entry<K>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Entry<K> entry = iterator.next();
+            // Entries more than one turn away stay for a later round
+            if (entry.deadline <= nowMillis) {
+                iterator.remove();
+                size.decrementAndGet();
+                expired++;
+                onExpired.accept(entry.key);
+            }
+        }
+        return expired;
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long deadline;
+
+        private Entry(K key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- Unique keys the entities declare but Hibernate cannot create on SQLite; runs after ddl-auto on every start
+
+-- MovementRollup upserts ON CONFLICT (product_id, day)
+CREATE UNIQUE INDEX IF NOT EXISTS uk_daily_movement_rollup_product_day ON daily_movement_rollup (product_id, day);
+
+-- AnalyticsService upserts ON CONFLICT (product_id)
+CREATE UNIQUE INDEX IF NOT EXISTS uk_product_analytics_product ON product_analytics (product_id);
+
+-- One stored result per Idempotency-Key, also across restarts and instances
+CREATE UNIQUE INDEX IF NOT EXISTS uk_idempotency_keys_scope ON idempotency_keys (endpoint, username, idempotency_key);
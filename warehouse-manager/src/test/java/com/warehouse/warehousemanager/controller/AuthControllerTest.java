@@ -0,0 +1,133 @@
+package com.warehouse.warehousemanager.controller;
+
+import com.warehouse.warehousemanager.entity.User;
+import com.warehouse.warehousemanager.repository.UserRepository;
+import com.warehouse.warehousemanager.security.RehashingBCryptPasswordEncoder;
+import com.warehouse.warehousemanager.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Login and registration answer asynchronously; only BCrypt runs on the hashing pool
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@SpyBean
+	private JwtUtil jwtUtil;
+
+	@DynamicPropertySource
+	static void isolatedDatabase(DynamicPropertyRegistry registry) throws IOException {
+		Path database = Files.createTempFile("auth-", ".db");
+		database.toFile().deleteOnExit();
+		registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + database + "?journal_mode=WAL&busy_timeout=30000");
+		registry.add("spring.jpa.show-sql", () -> "false");
+		registry.add("app.teleportJwksLocation", () -> "");
+		registry.add("app.passwordHashStrength", () -> "4");
+	}
+
+	@Test
+	void loginIssuesTokensOffTheHashingPool() throws Exception {
+		userRepository.save(new User("login-user", passwordEncoder.encode("secret"), User.Role.USER));
+		List<String> tokenThreads = new CopyOnWriteArrayList<>();
+		doAnswer(invocation -> {
+			tokenThreads.add(Thread.currentThread().getName());
+			return invocation.callRealMethod();
+		}).when(jwtUtil).generateToken(any(User.class));
+
+		mockMvc.perform(asyncDispatch(login("login-user", "secret")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.accessToken").isNotEmpty())
+				.andExpect(jsonPath("$.refreshToken").isNotEmpty())
+				.andExpect(jsonPath("$.user.username").value("login-user"));
+
+		assertEquals(1, tokenThreads.size());
+		assertFalse(tokenThreads.get(0).startsWith("password-hash-"), tokenThreads.get(0));
+	}
+
+	@Test
+	void wrongPasswordAndUnknownUserAreRejectedAlike() throws Exception {
+		userRepository.save(new User("wrong-password-user", passwordEncoder.encode("secret"), User.Role.USER));
+
+		mockMvc.perform(asyncDispatch(login("wrong-password-user", "guess")))
+				.andExpect(jsonPath("$.message").value("Bad credentials"));
+		mockMvc.perform(asyncDispatch(login("nobody", "guess")))
+				.andExpect(jsonPath("$.message").value("Bad credentials"));
+	}
+
+	@Test
+	void hashWithAnOutdatedCostIsRewrittenAfterLogin() throws Exception {
+		String oldHash = new RehashingBCryptPasswordEncoder(5).encode("secret");
+		userRepository.save(new User("rehash-user", oldHash, User.Role.USER));
+
+		mockMvc.perform(asyncDispatch(login("rehash-user", "secret"))).andExpect(status().isOk());
+
+		long giveUpAt = System.currentTimeMillis() + 5_000;
+		String stored = oldHash;
+		while (stored.equals(oldHash) && System.currentTimeMillis() < giveUpAt) {
+			Thread.sleep(20);
+			stored = userRepository.findByUsername("rehash-user").orElseThrow().getPassword();
+		}
+		assertTrue(stored.startsWith("$2a$04$"), stored);
+		assertTrue(passwordEncoder.matches("secret", stored));
+	}
+
+	@Test
+	void registrationHashesThePasswordAsynchronously() throws Exception {
+		MvcResult started = mockMvc.perform(post("/api/auth/register")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"registered-user\",\"password\":\"secret\",\"role\":\"USER\"}"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.message").value("User registered successfully"));
+		assertTrue(passwordEncoder.matches("secret",
+				userRepository.findByUsername("registered-user").orElseThrow().getPassword()));
+	}
+
+	private MvcResult login(String username, String password) throws Exception {
+		return mockMvc.perform(post("/api/auth/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+	}
+}
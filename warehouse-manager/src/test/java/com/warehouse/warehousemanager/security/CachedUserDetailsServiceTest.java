@@ -0,0 +1,91 @@
+package com.warehouse.warehousemanager.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachedUserDetailsServiceTest {
+
+	private CustomUserDetailsService delegate;
+
+	private CachedUserDetailsService service;
+
+	@BeforeEach
+	void setUp() {
+		delegate = mock(CustomUserDetailsService.class);
+		service = new CachedUserDetailsService(100, 60_000, 60_000);
+		ReflectionTestUtils.setField(service, "delegate", delegate);
+	}
+
+	@Test
+	void userIsLoadedOnceAndCachedWithoutItsPassword() {
+		when(delegate.findUserByUsername("alice")).thenReturn(user("alice", "ROLE_ADMIN"));
+
+		UserDetails first = service.loadUserByUsername("alice");
+		UserDetails second = service.loadUserByUsername("alice");
+
+		assertSame(first, second);
+		assertEquals("", first.getPassword());
+		assertEquals("ROLE_ADMIN", first.getAuthorities().iterator().next().getAuthority());
+		verify(delegate, times(1)).findUserByUsername("alice");
+	}
+
+	@Test
+	void unknownUserIsRememberedBriefly() {
+		assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("ghost"));
+		assertNull(service.loadUserIfPresent("ghost"));
+
+		verify(delegate, times(1)).findUserByUsername("ghost");
+	}
+
+	@Test
+	void evictionMakesTheNextLookupReadTheChange() {
+		when(delegate.findUserByUsername("alice")).thenReturn(user("alice", "ROLE_USER"));
+		service.loadUserByUsername("alice");
+
+		when(delegate.findUserByUsername("alice")).thenReturn(user("alice", "ROLE_ADMIN"));
+		service.evict("alice");
+
+		assertEquals("ROLE_ADMIN", service.loadUserByUsername("alice").getAuthorities().iterator().next().getAuthority());
+		assertEquals(1L, service.stats().get("invalidations"));
+	}
+
+	@Test
+	void evictionAlsoForgetsThatAUserWasMissing() {
+		assertNull(service.loadUserIfPresent("bob"));
+		when(delegate.findUserByUsername("bob")).thenReturn(user("bob", "ROLE_USER"));
+
+		service.evict("bob");
+
+		assertEquals("bob", service.loadUserByUsername("bob").getUsername());
+	}
+
+	@Test
+	void entriesExpireAfterTheirTtl() throws InterruptedException {
+		service = new CachedUserDetailsService(100, 20, 20);
+		ReflectionTestUtils.setField(service, "delegate", delegate);
+		when(delegate.findUserByUsername("alice")).thenReturn(user("alice", "ROLE_USER"));
+
+		service.loadUserByUsername("alice");
+		Thread.sleep(50);
+		service.loadUserByUsername("alice");
+
+		verify(delegate, times(2)).findUserByUsername("alice");
+	}
+
+	private static UserDetails user(String username, String authority) {
+		return User.withUsername(username).password("{bcrypt}hash").authorities(authority).build();
+	}
+}
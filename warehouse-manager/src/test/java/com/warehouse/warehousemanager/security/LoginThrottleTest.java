@@ -0,0 +1,129 @@
+package com.warehouse.warehousemanager.security;
+
+import com.warehouse.warehousemanager.entity.TrustLog;
+import com.warehouse.warehousemanager.exception.LoginThrottledException;
+import com.warehouse.warehousemanager.service.TrustLogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LoginThrottleTest {
+
+	private static final long BASE_LOCKOUT_MS = 200;
+
+	private TrustLogService trustLogService;
+
+	private LoginThrottle throttle;
+
+	@BeforeEach
+	void setUp() {
+		trustLogService = mock(TrustLogService.class);
+		throttle = throttle(100_000);
+	}
+
+	@Test
+	void usernameIsLockedOnceItGoesOverTheLimit() {
+		fail("alice", "10.0.0.1", 3);
+		assertDoesNotThrow(() -> throttle.check("alice", "10.0.0.1"));
+
+		fail("alice", "10.0.0.1", 1);
+
+		LoginThrottledException e = assertThrows(LoginThrottledException.class, () -> throttle.check("alice", "10.0.0.2"));
+		assertEquals(1, e.getRetryAfterSeconds());
+		assertDoesNotThrow(() -> throttle.check("bob", "10.0.0.2"));
+		assertEquals(1L, throttle.stats().get("rejected"));
+	}
+
+	@Test
+	void successClearsTheUsernameButNotTheIp() {
+		fail("carol", "10.0.0.3", 3);
+		throttle.recordSuccess("carol");
+		fail("carol", "10.0.0.3", 3);
+		assertDoesNotThrow(() -> throttle.check("carol", "10.0.0.4"));
+
+		// The IP kept all six failures, one over its limit of five
+		assertThrows(LoginThrottledException.class, () -> throttle.check("erin", "10.0.0.3"));
+	}
+
+	@Test
+	void ipIsLockedWhateverUsernamesItTries() {
+		for (int i = 0; i < 6; i++) {
+			fail("spray-" + i, "10.0.0.5", 1);
+		}
+
+		assertThrows(LoginThrottledException.class, () -> throttle.check("someone-else", "10.0.0.5"));
+		assertDoesNotThrow(() -> throttle.check("someone-else", "10.0.0.6"));
+	}
+
+	@Test
+	void lockoutIsLoggedOnceAndDoublesWhenRepeated() throws InterruptedException {
+		fail("frank", "10.0.1.1", 4);
+		// Failures while locked out do not extend or re-log the lockout
+		fail("frank", "10.0.1.2", 3);
+
+		ArgumentCaptor<TrustLog> logs = ArgumentCaptor.forClass(TrustLog.class);
+		verify(trustLogService, times(1)).save(logs.capture());
+		assertEquals("frank", logs.getValue().getUsername());
+		assertTrue(logs.getValue().getReason().startsWith("Login throttled: user:frank"), logs.getValue().getReason());
+
+		Thread.sleep(BASE_LOCKOUT_MS + 50);
+		assertDoesNotThrow(() -> throttle.check("frank", "10.0.1.3"));
+
+		// Still over the limit within the window, so the next failure locks again, for twice as long
+		fail("frank", "10.0.1.3", 1);
+		Thread.sleep(BASE_LOCKOUT_MS + 50);
+		assertThrows(LoginThrottledException.class, () -> throttle.check("frank", "10.0.1.3"));
+		Thread.sleep(BASE_LOCKOUT_MS + 50);
+		assertDoesNotThrow(() -> throttle.check("frank", "10.0.1.3"));
+		assertEquals(2L, throttle.stats().get("lockouts"));
+	}
+
+	@Test
+	void failingTrustLogDoesNotBreakTheLockout() {
+		doThrow(new IllegalStateException("database is locked")).when(trustLogService).save(any());
+
+		fail("grace", "10.0.2.1", 4);
+
+		assertThrows(LoginThrottledException.class, () -> throttle.check("grace", "10.0.2.1"));
+	}
+
+	@Test
+	void trackedKeysStayBounded() {
+		throttle = throttle(1);
+
+		for (int i = 0; i < 5_000; i++) {
+			throttle.recordFailure("user-" + i, "10.1." + (i / 256) + "." + (i % 256));
+		}
+
+		// At least 16 entries per stripe, 64 stripes
+		assertTrue((int) throttle.stats().get("trackedKeys") <= 64 * 16, throttle.stats().toString());
+	}
+
+	private LoginThrottle throttle(int maxEntries) {
+		LoginThrottle throttle = new LoginThrottle(maxEntries);
+		ReflectionTestUtils.setField(throttle, "trustLogService", trustLogService);
+		ReflectionTestUtils.setField(throttle, "windowMs", 60_000L);
+		ReflectionTestUtils.setField(throttle, "maxPerUsername", 3);
+		ReflectionTestUtils.setField(throttle, "maxPerIp", 5);
+		ReflectionTestUtils.setField(throttle, "baseLockoutMs", BASE_LOCKOUT_MS);
+		ReflectionTestUtils.setField(throttle, "maxLockoutMs", 10_000L);
+		return throttle;
+	}
+
+	private void fail(String username, String ipAddress, int times) {
+		for (int i = 0; i < times; i++) {
+			throttle.recordFailure(username, ipAddress);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.warehouse.warehousemanager.security;
+
+import com.warehouse.warehousemanager.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTest {
+
+	private PasswordHashingService service;
+
+	@AfterEach
+	void shutdown() {
+		service.shutdown();
+	}
+
+	@Test
+	void hashingRunsOnThePoolAndDoesNotBlockTheCaller() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		service = service(1, 10, new BlockingEncoder(release));
+
+		CompletableFuture<String> hash = service.encode("secret");
+		// Returned while the pool thread is still hashing
+		assertFalse(hash.isDone());
+
+		release.countDown();
+		assertEquals("hashed-on-password-hash-1", hash.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void storedHashMatchesOnlyItsPassword() throws Exception {
+		service = service(1, 10, new RehashingBCryptPasswordEncoder(4));
+		String hash = service.encode("secret").get(5, TimeUnit.SECONDS);
+
+		assertTrue(service.matches("secret", hash).get(5, TimeUnit.SECONDS));
+		assertFalse(service.matches("other", hash).get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void unknownUserNeverMatchesButStillHashes() throws Exception {
+		service = service(1, 10, new RehashingBCryptPasswordEncoder(4));
+
+		assertFalse(service.matches("secret", null).get(5, TimeUnit.SECONDS));
+		assertEquals(1L, service.stats().get("completed"));
+	}
+
+	@Test
+	void hashWithAnotherCostNeedsRehash() {
+		service = service(1, 10, new RehashingBCryptPasswordEncoder(5));
+
+		assertTrue(service.needsRehash(new RehashingBCryptPasswordEncoder(4).encode("secret")));
+		assertFalse(service.needsRehash(new RehashingBCryptPasswordEncoder(5).encode("secret")));
+		assertFalse(service.needsRehash(null));
+		assertFalse(service.needsRehash(TeleportUserProvisioner.UNUSABLE_PASSWORD));
+	}
+
+	@Test
+	void fullQueueFailsFast() {
+		CountDownLatch release = new CountDownLatch(1);
+		service = service(1, 1, new BlockingEncoder(release));
+		try {
+			service.encode("running");
+			service.encode("queued");
+
+			assertThrows(ServiceBusyException.class, () -> service.encode("rejected"));
+			assertEquals(1L, service.stats().get("rejected"));
+		} finally {
+			release.countDown();
+		}
+	}
+
+	private static PasswordHashingService service(int threads, int queueCapacity, PasswordEncoder encoder) {
+		PasswordHashingService service = new PasswordHashingService(threads, queueCapacity);
+		ReflectionTestUtils.setField(service, "passwordEncoder", encoder);
+		return service;
+	}
+
+	/**
+	 * Holds every pool thread until released, then names the thread that did the work
+	 */
+	private record BlockingEncoder(CountDownLatch release) implements PasswordEncoder {
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "hashed-on-" + Thread.currentThread().getName();
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return encode(rawPassword).equals(encodedPassword);
+		}
+	}
+}
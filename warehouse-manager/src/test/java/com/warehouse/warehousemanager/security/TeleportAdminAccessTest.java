@@ -0,0 +1,88 @@
+package com.warehouse.warehousemanager.security;
+
+import com.warehouse.warehousemanager.entity.User;
+import com.warehouse.warehousemanager.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Teleport roles let a user in but never make them an admin; only the local user row does
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TeleportAdminAccessTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@MockBean
+	private TeleportAssertionVerifier teleportAssertionVerifier;
+
+	@DynamicPropertySource
+	static void isolatedDatabase(DynamicPropertyRegistry registry) throws IOException {
+		Path database = Files.createTempFile("teleport-admin-", ".db");
+		database.toFile().deleteOnExit();
+		registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + database + "?journal_mode=WAL&busy_timeout=30000");
+		registry.add("spring.jpa.show-sql", () -> "false");
+		registry.add("app.teleportJwksLocation", () -> "");
+		registry.add("app.teleportJitProvisioning", () -> "true");
+		registry.add("app.teleportJitAllowedRoles", () -> "access");
+	}
+
+	@Test
+	void signedAccessIdentityIsDeniedMetricsAndTrustLogs() throws Exception {
+		when(teleportAssertionVerifier.verify("signed-access"))
+				.thenReturn(new TeleportIdentity("teleport-access", "access@example.com", List.of("access"), Long.MAX_VALUE));
+
+		mockMvc.perform(get("/api/metrics").header("teleport-jwt-assertion", "signed-access"))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get("/api/trust-logs").header("teleport-jwt-assertion", "signed-access"))
+				.andExpect(status().isForbidden());
+
+		// Provisioned, but as a plain user
+		assertEquals(User.Role.USER, userRepository.findByUsername("teleport-access").orElseThrow().getRole());
+	}
+
+	@Test
+	void headerAccessIdentityIsDeniedMetricsAndTrustLogs() throws Exception {
+		mockMvc.perform(get("/api/metrics")
+						.header("X-Forwarded-User", "header-access")
+						.header("X-Forwarded-Groups", "access,admin"))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get("/api/trust-logs")
+						.header("X-Forwarded-User", "header-access")
+						.header("X-Forwarded-Groups", "access,admin"))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void localAdminSignedInThroughTeleportKeepsAccess() throws Exception {
+		userRepository.save(new User("teleport-admin", TeleportUserProvisioner.UNUSABLE_PASSWORD, User.Role.ADMIN));
+		when(teleportAssertionVerifier.verify("signed-admin"))
+				.thenReturn(new TeleportIdentity("teleport-admin", "admin@example.com", List.of("editor"), Long.MAX_VALUE));
+
+		mockMvc.perform(get("/api/metrics").header("teleport-jwt-assertion", "signed-admin"))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/trust-logs").header("teleport-jwt-assertion", "signed-admin"))
+				.andExpect(status().isOk());
+	}
+}
@@ -0,0 +1,136 @@
+package com.warehouse.warehousemanager.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TeleportAssertionVerifierTest {
+
+	private KeyPair teleportKey;
+
+	private Path jwksFile;
+
+	private TeleportJwksProvider jwksProvider;
+
+	private TeleportAssertionVerifier verifier;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		teleportKey = newKeyPair();
+		jwksFile = Files.createTempFile("jwks-", ".json");
+		jwksFile.toFile().deleteOnExit();
+		writeJwks(jwk(teleportKey, ""));
+
+		jwksProvider = new TeleportJwksProvider();
+		ReflectionTestUtils.setField(jwksProvider, "resourceLoader", new DefaultResourceLoader());
+		ReflectionTestUtils.setField(jwksProvider, "jwksLocation", "file:" + jwksFile);
+		ReflectionTestUtils.setField(jwksProvider, "minReloadIntervalMs", 0L);
+		jwksProvider.refresh();
+
+		verifier = new TeleportAssertionVerifier(100);
+		ReflectionTestUtils.setField(verifier, "jwksProvider", jwksProvider);
+	}
+
+	@Test
+	void signedAssertionYieldsItsIdentityAndIsCached() {
+		String assertion = assertion(teleportKey, "alice", List.of("access", "editor"), 60_000);
+
+		TeleportIdentity identity = verifier.verify(assertion);
+
+		assertEquals("alice", identity.getUsername());
+		assertEquals(List.of("access", "editor"), identity.getRoles());
+		assertSame(identity, verifier.verify(assertion));
+	}
+
+	@Test
+	void assertionFromAnotherKeyIsRejected() throws NoSuchAlgorithmException {
+		assertNull(verifier.verify(assertion(newKeyPair(), "mallory", List.of("editor"), 60_000)));
+	}
+
+	@Test
+	void expiredAssertionIsRejected() {
+		// Past the allowed clock skew
+		assertNull(verifier.verify(assertion(teleportKey, "alice", List.of("access"), -120_000)));
+	}
+
+	@Test
+	void malformedAssertionIsRejected() {
+		assertNull(verifier.verify("not-a-jwt"));
+	}
+
+	@Test
+	void rotatedKeyIsPickedUpOnTheNextUnknownSignature() throws Exception {
+		KeyPair rotated = newKeyPair();
+		writeJwks(jwk(rotated, "next"));
+
+		String assertion = assertion(rotated, "alice", List.of("access"), 60_000);
+		// The first attempt fails against the old key and triggers the reload
+		assertNull(verifier.verify(assertion));
+
+		assertEquals("alice", verifier.verify(assertion).getUsername());
+	}
+
+	@Test
+	void keysNotMeantForSignaturesAreSkipped() throws Exception {
+		writeJwks("{\"kty\":\"EC\",\"crv\":\"P-256\",\"x\":\"AA\",\"y\":\"AA\"}",
+				jwk(newKeyPair(), "enc-key").replace("\"use\":\"sig\"", "\"use\":\"enc\""),
+				jwk(teleportKey, "sig-key"));
+		jwksProvider.refresh();
+
+		assertEquals(List.of("sig-key"), new ArrayList<>(jwksProvider.getKeys().keySet()));
+	}
+
+	private static String assertion(KeyPair key, String username, List<String> roles, long expiresInMs) {
+		return Jwts.builder()
+				.setSubject(username)
+				.claim("roles", roles)
+				.setExpiration(new Date(System.currentTimeMillis() + expiresInMs))
+				.signWith(key.getPrivate(), SignatureAlgorithm.RS256)
+				.compact();
+	}
+
+	private void writeJwks(String... keys) throws IOException {
+		Files.writeString(jwksFile, "{\"keys\":[" + String.join(",", keys) + "]}");
+	}
+
+	private static String jwk(KeyPair key, String kid) {
+		RSAPublicKey publicKey = (RSAPublicKey) key.getPublic();
+		return "{\"kty\":\"RSA\",\"use\":\"sig\",\"kid\":\"" + kid + "\",\"n\":\"" + base64Url(publicKey.getModulus())
+				+ "\",\"e\":\"" + base64Url(publicKey.getPublicExponent()) + "\"}";
+	}
+
+	private static String base64Url(BigInteger value) {
+		byte[] bytes = value.toByteArray();
+		if (bytes[0] == 0 && bytes.length > 1) {
+			bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+
+	private static KeyPair newKeyPair() throws NoSuchAlgorithmException {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		return generator.generateKeyPair();
+	}
+}
@@ -0,0 +1,62 @@
+package com.warehouse.warehousemanager.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenRevocationRegistryTest {
+
+	private TokenRevocationRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		registry = new TokenRevocationRegistry(1 << 16, 4);
+		ReflectionTestUtils.setField(registry, "verifiedTokenCache", new VerifiedTokenCache(100));
+	}
+
+	@Test
+	void revokedTokenIdIsRejectedAndOthersAreNot() {
+		long expiresAt = System.currentTimeMillis() + 60_000;
+		registry.revokeTokenId("jti-1", expiresAt);
+
+		assertTrue(registry.isRevoked(token("jti-1", "alice", secondsAgo(5))));
+		assertFalse(registry.isRevoked(token("jti-2", "alice", secondsAgo(5))));
+	}
+
+	@Test
+	void revokeUserRejectsTokensFromEarlierSeconds() {
+		registry.revokeUser("alice");
+
+		assertTrue(registry.isRevoked(token("jti-1", "alice", secondsAgo(1))));
+		assertFalse(registry.isRevoked(token("jti-2", "bob", secondsAgo(1))));
+	}
+
+	@Test
+	void revokeUserRejectsATokenFromTheSameSecond() {
+		// iat is truncated to the second, exactly as JJWT writes it
+		long issuedAt = System.currentTimeMillis() / 1000 * 1000;
+		registry.revokeUser("alice");
+
+		assertTrue(registry.isRevoked(token("jti-3", "alice", issuedAt)));
+	}
+
+	@Test
+	void revokeUserAcceptsTokensFromLaterSeconds() {
+		registry.revokeUser("alice");
+
+		assertFalse(registry.isRevoked(token("jti-4", "alice", secondsAgo(-1))));
+	}
+
+	private static long secondsAgo(int seconds) {
+		return (System.currentTimeMillis() / 1000 - seconds) * 1000;
+	}
+
+	private static VerifiedToken token(String tokenId, String username, long issuedAt) {
+		return new VerifiedToken(tokenId, username, issuedAt, issuedAt + 60_000, "USER", Set.of(), 0L);
+	}
+}
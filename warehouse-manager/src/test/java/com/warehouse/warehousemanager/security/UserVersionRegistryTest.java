@@ -0,0 +1,88 @@
+package com.warehouse.warehousemanager.security;
+
+import com.warehouse.warehousemanager.entity.User;
+import com.warehouse.warehousemanager.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserVersionRegistryTest {
+
+	private UserRepository userRepository;
+
+	private UserVersionRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		when(userRepository.findByUsername(anyString())).thenReturn(Optional.empty());
+		registry = new UserVersionRegistry(2, 60_000);
+		ReflectionTestUtils.setField(registry, "userRepository", userRepository);
+	}
+
+	@Test
+	void versionIsReadFromTheDatabaseOnce() {
+		when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", 3)));
+
+		assertTrue(registry.isCurrent("alice", 3));
+		assertFalse(registry.isCurrent("alice", 2));
+		verify(userRepository, times(1)).findByUsername("alice");
+	}
+
+	@Test
+	void unknownUserIsNeverCurrent() {
+		assertFalse(registry.isCurrent("ghost", -1));
+		assertFalse(registry.isCurrent("ghost", 0));
+	}
+
+	@Test
+	void updateMakesOlderTokensStale() {
+		when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", 0)));
+		assertTrue(registry.isCurrent("alice", 0));
+
+		registry.update(user("alice", 1));
+
+		assertFalse(registry.isCurrent("alice", 0));
+		assertTrue(registry.isCurrent("alice", 1));
+	}
+
+	@Test
+	void cacheStaysWithinItsLimit() {
+		for (int i = 0; i < 50; i++) {
+			registry.isCurrent("user-" + i, 0);
+		}
+
+		assertTrue(registry.size() <= 2);
+	}
+
+	@Test
+	void readThatRacedWithAnUpdateIsNotCached() {
+		// The update commits while the old row is being read
+		when(userRepository.findByUsername("alice")).thenAnswer(invocation -> {
+			registry.update(user("alice", 5));
+			return Optional.of(user("alice", 4));
+		});
+
+		registry.isCurrent("alice", 4);
+		when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", 5)));
+
+		assertTrue(registry.isCurrent("alice", 5));
+		assertFalse(registry.isCurrent("alice", 4));
+	}
+
+	private static User user(String username, long version) {
+		User user = new User(username, "", User.Role.USER);
+		user.setTokenVersion(version);
+		return user;
+	}
+}
@@ -0,0 +1,233 @@
+package com.warehouse.warehousemanager.security.pipeline;
+
+import com.warehouse.warehousemanager.security.TeleportAssertionVerifier;
+import com.warehouse.warehousemanager.security.TeleportIdentity;
+import com.warehouse.warehousemanager.security.TeleportUserProvisioner;
+import com.warehouse.warehousemanager.security.TokenRevocationRegistry;
+import com.warehouse.warehousemanager.security.UserVersionRegistry;
+import com.warehouse.warehousemanager.security.VerifiedToken;
+import com.warehouse.warehousemanager.security.VerifiedTokenCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Which identity source wins for a request, and which authorities each one grants
+ */
+class AuthenticationPipelineTest {
+
+	private TeleportAssertionVerifier teleportAssertionVerifier;
+
+	private TeleportUserProvisioner teleportUserProvisioner;
+
+	private VerifiedTokenCache verifiedTokenCache;
+
+	private UserVersionRegistry userVersionRegistry;
+
+	private UserDetailsService userDetailsService;
+
+	private AuthenticationPipeline pipeline;
+
+	@BeforeEach
+	void setUp() {
+		teleportAssertionVerifier = mock(TeleportAssertionVerifier.class);
+		teleportUserProvisioner = mock(TeleportUserProvisioner.class);
+		verifiedTokenCache = mock(VerifiedTokenCache.class);
+		userVersionRegistry = mock(UserVersionRegistry.class);
+		userDetailsService = mock(UserDetailsService.class);
+
+		TeleportAssertionResolver assertionResolver = new TeleportAssertionResolver();
+		ReflectionTestUtils.setField(assertionResolver, "teleportAssertionVerifier", teleportAssertionVerifier);
+		ReflectionTestUtils.setField(assertionResolver, "teleportUserProvisioner", teleportUserProvisioner);
+
+		TeleportHeaderResolver headerResolver = new TeleportHeaderResolver();
+		ReflectionTestUtils.setField(headerResolver, "teleportUserProvisioner", teleportUserProvisioner);
+
+		BearerTokenResolver bearerResolver = new BearerTokenResolver();
+		ReflectionTestUtils.setField(bearerResolver, "verifiedTokenCache", verifiedTokenCache);
+		ReflectionTestUtils.setField(bearerResolver, "userDetailsService", userDetailsService);
+		ReflectionTestUtils.setField(bearerResolver, "userVersionRegistry", userVersionRegistry);
+		ReflectionTestUtils.setField(bearerResolver, "tokenRevocationRegistry", mock(TokenRevocationRegistry.class));
+
+		pipeline = new AuthenticationPipeline(List.of(assertionResolver, headerResolver, bearerResolver));
+	}
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void verifiedAssertionGetsTheLocalUsersAuthoritiesOnly() throws Exception {
+		when(teleportAssertionVerifier.verify("assertion")).thenReturn(identity("alice", "access"));
+		when(teleportUserProvisioner.resolve(eq("alice"), eq(List.of("access")), eq(true)))
+				.thenReturn(user("alice", "ROLE_USER", "products:read"));
+
+		Authentication authentication = authenticate(request().header("teleport-jwt-assertion", "assertion"));
+
+		assertEquals("alice", authentication.getName());
+		assertEquals(Set.of("ROLE_USER", "products:read"), authoritiesOf(authentication));
+	}
+
+	@Test
+	void assertionForAnUnprovisionedUserGetsPlainUser() throws Exception {
+		when(teleportAssertionVerifier.verify("assertion")).thenReturn(identity("mallory", "access", "admin"));
+
+		Authentication authentication = authenticate(request().header("teleport-jwt-assertion", "assertion"));
+
+		assertEquals("mallory", authentication.getName());
+		assertEquals(Set.of("ROLE_USER"), authoritiesOf(authentication));
+	}
+
+	@Test
+	void unverifiedAssertionFallsBackToHeaders() throws Exception {
+		Authentication authentication = authenticate(request()
+				.header("teleport-jwt-assertion", "forged")
+				.header("X-Forwarded-User", "bob"));
+
+		assertEquals("bob", authentication.getName());
+		verify(teleportUserProvisioner).resolve(eq("bob"), eq(List.of()), eq(false));
+	}
+
+	@Test
+	void headerGroupsGrantNoRoles() throws Exception {
+		Authentication authentication = authenticate(request()
+				.header("X-Forwarded-User", "carol")
+				.header("X-Forwarded-Groups", "access, admin"));
+
+		assertEquals(Set.of("ROLE_USER"), authoritiesOf(authentication));
+		verify(teleportUserProvisioner).resolve(eq("carol"), eq(List.of("access", "admin")), eq(false));
+	}
+
+	@Test
+	void headerIdentityOfALocalAdminKeepsAdmin() throws Exception {
+		when(teleportUserProvisioner.resolve(eq("dave"), any(), anyBoolean()))
+				.thenReturn(user("dave", "ROLE_ADMIN"));
+
+		Authentication authentication = authenticate(request().header("X-Teleport-User", "dave"));
+
+		assertEquals(Set.of("ROLE_ADMIN"), authoritiesOf(authentication));
+	}
+
+	@Test
+	void bearerTokenGetsTheRoleAndPermissionsFromItsClaims() throws Exception {
+		when(verifiedTokenCache.verify("token")).thenReturn(token("erin", "MANAGER", Set.of("imports:write"), 3L));
+		when(userVersionRegistry.isCurrent("erin", 3L)).thenReturn(true);
+
+		Authentication authentication = authenticate(request().header("Authorization", "Bearer token"));
+
+		assertEquals("erin", authentication.getName());
+		assertEquals(Set.of("ROLE_MANAGER", "imports:write"), authoritiesOf(authentication));
+		verify(userDetailsService, never()).loadUserByUsername(anyString());
+	}
+
+	@Test
+	void bearerTokenWithoutClaimsLoadsTheUser() throws Exception {
+		when(verifiedTokenCache.verify("legacy")).thenReturn(token("frank", null, null, null));
+		when(userDetailsService.loadUserByUsername("frank")).thenReturn(user("frank", "ROLE_USER"));
+
+		Authentication authentication = authenticate(request().header("Authorization", "Bearer legacy"));
+
+		assertEquals(Set.of("ROLE_USER"), authoritiesOf(authentication));
+	}
+
+	@Test
+	void staleBearerTokenIsNotAuthenticated() throws Exception {
+		when(verifiedTokenCache.verify("token")).thenReturn(token("erin", "ADMIN", Set.of(), 3L));
+		when(userVersionRegistry.isCurrent("erin", 3L)).thenReturn(false);
+
+		assertNull(authenticate(request().header("Authorization", "Bearer token")));
+	}
+
+	@Test
+	void teleportIdentityStopsThePipelineBeforeTheBearerToken() throws Exception {
+		authenticate(request()
+				.header("X-Forwarded-User", "grace")
+				.header("Authorization", "Bearer token"));
+
+		verify(verifiedTokenCache, never()).verify(anyString());
+		assertEquals(1L, resolverStats("teleport-headers").get("matches"));
+		assertEquals(0L, resolverStats("bearer-token").get("invocations"));
+	}
+
+	@Test
+	void failingResolverIsCountedAndTheNextOneStillRuns() throws Exception {
+		when(teleportAssertionVerifier.verify("assertion")).thenThrow(new IllegalStateException("JWKS unavailable"));
+
+		Authentication authentication = authenticate(request()
+				.header("teleport-jwt-assertion", "assertion")
+				.header("X-Forwarded-User", "heidi"));
+
+		assertEquals("heidi", authentication.getName());
+		assertEquals(1L, resolverStats("teleport-assertion").get("errors"));
+	}
+
+	private Authentication authenticate(RequestBuilder request) throws Exception {
+		SecurityContextHolder.clearContext();
+		pipeline.doFilter(request.request, new MockHttpServletResponse(), new MockFilterChain());
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> resolverStats(String name) {
+		return (Map<String, Object>) pipeline.stats().get(name);
+	}
+
+	private static RequestBuilder request() {
+		return new RequestBuilder();
+	}
+
+	private static Set<String> authoritiesOf(Authentication authentication) {
+		return authentication.getAuthorities().stream()
+				.map(GrantedAuthority::getAuthority)
+				.collect(Collectors.toSet());
+	}
+
+	private static TeleportIdentity identity(String username, String... roles) {
+		return new TeleportIdentity(username, username + "@example.com", List.of(roles), Long.MAX_VALUE);
+	}
+
+	private static VerifiedToken token(String username, String role, Set<String> permissions, Long version) {
+		long now = System.currentTimeMillis();
+		return new VerifiedToken("jti-" + username, username, now, now + 60_000, role, permissions, version);
+	}
+
+	private static UserDetails user(String username, String... authorities) {
+		return User.withUsername(username).password("").authorities(authorities).build();
+	}
+
+	private static final class RequestBuilder {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+
+		RequestBuilder header(String name, String value) {
+			request.addHeader(name, value);
+			return this;
+		}
+	}
+}
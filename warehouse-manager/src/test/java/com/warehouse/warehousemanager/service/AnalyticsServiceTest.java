@@ -0,0 +1,111 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.entity.AnalyticsRun;
+import com.warehouse.warehousemanager.entity.Export;
+import com.warehouse.warehousemanager.entity.Product;
+import com.warehouse.warehousemanager.entity.ProductAnalytics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Forecasts and ABC classes from the daily rollup, for full, incremental and timer-started runs
+ */
+@SpringBootTest
+class AnalyticsServiceTest {
+
+	@Autowired
+	private AnalyticsService analyticsService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ExportService exportService;
+
+	@DynamicPropertySource
+	static void isolatedDatabase(DynamicPropertyRegistry registry) throws IOException {
+		Path database = Files.createTempFile("analytics-", ".db");
+		database.toFile().deleteOnExit();
+		registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + database + "?journal_mode=WAL&busy_timeout=30000");
+		registry.add("spring.jpa.show-sql", () -> "false");
+		registry.add("app.teleportJwksLocation", () -> "");
+		registry.add("app.analyticsParallelism", () -> "2");
+	}
+
+	@Test
+	void fullRunForecastsAndClassesIncrementalRunCatchesUp() throws InterruptedException {
+		Product heavy = productService.save(new Product("analytics-heavy", 200, "N-1"));
+		Product medium = productService.save(new Product("analytics-medium", 100, "N-2"));
+		Product light = productService.save(new Product("analytics-light", 100, "N-3"));
+		exportService.save(new Export(heavy.getId(), 80));
+		exportService.save(new Export(medium.getId(), 15));
+		exportService.save(new Export(light.getId(), 5));
+
+		AnalyticsRun full = awaitRun(analyticsService.start(true));
+
+		assertEquals(AnalyticsRun.Status.COMPLETED, full.getStatus());
+		assertTrue(full.isFull());
+		ProductAnalytics heavyAnalytics = analyticsService.findByProductId(heavy.getId()).orElseThrow();
+		assertEquals(80, heavyAnalytics.getUnitsOut());
+		// All of it on one day of the 28-day moving average
+		assertEquals(80.0 / 28, heavyAnalytics.getAverageDailyDemand(), 1e-9);
+		assertTrue(heavyAnalytics.getSuggestedReorderPoint() >= Math.ceil(80.0 / 28 * 7));
+		assertEquals("A", heavyAnalytics.getAbcClass());
+		assertEquals("B", analyticsService.findByProductId(medium.getId()).orElseThrow().getAbcClass());
+		assertEquals("C", analyticsService.findByProductId(light.getId()).orElseThrow().getAbcClass());
+
+		exportService.save(new Export(light.getId(), 20));
+		AnalyticsRun incremental = awaitRun(analyticsService.start(false));
+
+		assertEquals(AnalyticsRun.Status.COMPLETED, incremental.getStatus());
+		assertFalse(incremental.isFull());
+		ProductAnalytics lightAnalytics = analyticsService.findByProductId(light.getId()).orElseThrow();
+		assertEquals(25, lightAnalytics.getUnitsOut());
+		// 80 of 120 units come before it, still short of the 80% share
+		assertEquals("A", lightAnalytics.getAbcClass());
+		assertEquals("B", analyticsService.findByProductId(medium.getId()).orElseThrow().getAbcClass());
+	}
+
+	@Test
+	void scheduledRunHandsTheRunToTheRunner() throws InterruptedException {
+		Product idle = productService.save(new Product("analytics-idle", 10, "N-4"));
+
+		analyticsService.scheduledRun();
+		AnalyticsRun run = awaitRun(analyticsService.latestRun().orElseThrow());
+
+		assertEquals(AnalyticsRun.Status.COMPLETED, run.getStatus());
+		ProductAnalytics analytics = analyticsService.findByProductId(idle.getId()).orElseThrow();
+		assertEquals(0, analytics.getUnitsOut());
+		assertEquals("C", analytics.getAbcClass());
+		assertEquals(false, analyticsService.stats().get("running"));
+	}
+
+	/**
+	 * The stored run once it has finished, or as it stands after a few seconds
+	 */
+	private AnalyticsRun awaitRun(AnalyticsRun started) throws InterruptedException {
+		long giveUpAt = System.currentTimeMillis() + 10_000;
+		AnalyticsRun run = analyticsService.latestRun().orElseThrow();
+		while ((!run.getId().equals(started.getId()) || run.getStatus() == AnalyticsRun.Status.RUNNING)
+				&& System.currentTimeMillis() < giveUpAt) {
+			Thread.sleep(50);
+			run = analyticsService.latestRun().orElseThrow();
+		}
+		// The running flag is cleared just after the run is saved
+		while (Boolean.TRUE.equals(analyticsService.stats().get("running")) && System.currentTimeMillis() < giveUpAt) {
+			Thread.sleep(10);
+		}
+		return run;
+	}
+}
@@ -0,0 +1,197 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.entity.Export;
+import com.warehouse.warehousemanager.entity.IdempotencyRecord;
+import com.warehouse.warehousemanager.entity.Import;
+import com.warehouse.warehousemanager.entity.Product;
+import com.warehouse.warehousemanager.exception.InsufficientStockException;
+import com.warehouse.warehousemanager.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A key creates its record once; retries, concurrent or not, get the first result back
+ */
+@SpringBootTest
+class IdempotencyStoreTest {
+
+	@Autowired
+	private IdempotencyStore idempotencyStore;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ImportService importService;
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private IdempotencyRecordRepository idempotencyRecordRepository;
+
+	@DynamicPropertySource
+	static void isolatedDatabase(DynamicPropertyRegistry registry) throws IOException {
+		Path database = Files.createTempFile("idempotency-", ".db");
+		database.toFile().deleteOnExit();
+		registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + database + "?journal_mode=WAL&busy_timeout=30000");
+		registry.add("spring.jpa.show-sql", () -> "false");
+		registry.add("app.teleportJwksLocation", () -> "");
+	}
+
+	@AfterEach
+	void clearUser() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void repeatedKeyReturnsTheFirstImport() {
+		Product product = productService.save(new Product("idem-repeat", 10, "I-1"));
+
+		Import first = importOnce("repeat", product, 5);
+		Import retry = importOnce("repeat", product, 5);
+
+		assertEquals(first.getId(), retry.getId());
+		assertEquals(5, retry.getQuantity());
+		assertEquals(15, quantityOf(product));
+	}
+
+	@Test
+	void keyReusedForADifferentRequestIsRejected() {
+		Product product = productService.save(new Product("idem-mismatch", 10, "I-2"));
+		importOnce("mismatch", product, 5);
+
+		assertThrows(IllegalArgumentException.class, () -> importOnce("mismatch", product, 6));
+		assertEquals(15, quantityOf(product));
+	}
+
+	@Test
+	void failedRequestDoesNotUseUpItsKey() {
+		Product product = productService.save(new Product("idem-failed", 2, "I-3"));
+
+		assertThrows(InsufficientStockException.class, () -> exportOnce("failed", product, 5));
+		importService.save(new Import(product.getId(), 10));
+		Export export = exportOnce("failed", product, 5);
+
+		assertEquals(export.getId(), exportOnce("failed", product, 5).getId());
+		assertEquals(7, quantityOf(product));
+	}
+
+	@Test
+	void keysAreScopedToTheUser() {
+		Product product = productService.save(new Product("idem-users", 10, "I-4"));
+
+		actAs("alice");
+		Import alice = importOnce("shared", product, 1);
+		actAs("bob");
+		Import bob = importOnce("shared", product, 1);
+
+		assertNotEquals(alice.getId(), bob.getId());
+		assertEquals(12, quantityOf(product));
+	}
+
+	@Test
+	void concurrentRetriesCreateOnce() throws Exception {
+		Product product = productService.save(new Product("idem-concurrent", 10, "I-5"));
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Import>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return importOnce("concurrent", product, 3);
+				}));
+			}
+			start.countDown();
+
+			Set<Long> ids = results.stream().map(result -> {
+				try {
+					return result.get(30, TimeUnit.SECONDS).getId();
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			}).collect(Collectors.toSet());
+
+			assertEquals(1, ids.size());
+			assertEquals(13, quantityOf(product));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void databaseRejectsASecondRowForTheSameKey() {
+		// What a second instance, which never saw the first request in flight, would try to insert
+		idempotencyRecordRepository.saveAndFlush(record("elsewhere"));
+
+		DataAccessException e = assertThrows(DataAccessException.class, () -> idempotencyRecordRepository.saveAndFlush(record("elsewhere")));
+		assertTrue(e.getMessage().contains("UNIQUE constraint failed"), e.getMessage());
+	}
+
+	@Test
+	void blankKeyIsRejected() {
+		Product product = productService.save(new Product("idem-blank", 10, "I-6"));
+
+		assertThrows(IllegalArgumentException.class, () -> importOnce(" ", product, 1));
+		assertThrows(IllegalArgumentException.class, () -> importOnce("k".repeat(256), product, 1));
+	}
+
+	private Import importOnce(String key, Product product, int quantity) {
+		Import importRecord = new Import(product.getId(), quantity);
+		return idempotencyStore.execute("imports", key, product.getId() + ":" + quantity, Import.class,
+				onSaved -> importService.save(importRecord, onSaved));
+	}
+
+	private Export exportOnce(String key, Product product, int quantity) {
+		Export exportRecord = new Export(product.getId(), quantity);
+		return idempotencyStore.execute("exports", key, product.getId() + ":" + quantity, Export.class,
+				onSaved -> exportService.save(exportRecord, onSaved));
+	}
+
+	private static IdempotencyRecord record(String key) {
+		IdempotencyRecord record = new IdempotencyRecord();
+		record.setEndpoint("imports");
+		record.setUsername("");
+		record.setIdempotencyKey(key);
+		record.setRequestHash("0".repeat(64));
+		record.setResponse("{}");
+		record.setExpiresAt(LocalDateTime.now().plusHours(1));
+		return record;
+	}
+
+	private int quantityOf(Product product) {
+		return productService.findById(product.getId()).orElseThrow().getQuantity();
+	}
+
+	private static void actAs(String username) {
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(username, null, List.of()));
+	}
+}
@@ -0,0 +1,105 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.dto.LocationStockDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Per-location totals kept up to date from product and quantity changes
+ */
+class LocationStockIndexTest {
+
+	private LocationStockIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new LocationStockIndex(10);
+	}
+
+	@Test
+	void lowStockIncludesTheThreshold() {
+		assertEquals(10, index.getLowStockThreshold());
+		assertTrue(index.isLowStock(10));
+		assertFalse(index.isLowStock(11));
+	}
+
+	@Test
+	void addedProductsAreTotalledPerLocation() {
+		index.productAdded("A-1", 5);
+		index.productAdded("A-1", 40);
+		index.productAdded("B-1", 12);
+
+		assertTotals(index.find("A-1"), "A-1", 2, 45, 1);
+		assertTotals(index.find("B-1"), "B-1", 1, 12, 0);
+		assertNull(index.find("C-1"));
+	}
+
+	@Test
+	void locationsMatchCaseInsensitivelyAndKeepTheFirstSpelling() {
+		index.productAdded("Aisle-3", 20);
+		index.productAdded("AISLE-3", 1);
+
+		assertTotals(index.find("aisle-3"), "Aisle-3", 2, 21, 1);
+		assertEquals(1, index.stats().get("locations"));
+	}
+
+	@Test
+	void quantityChangesMoveProductsInAndOutOfLowStock() {
+		index.productAdded("A-1", 20);
+
+		index.quantityChanged("a-1", 20, 10);
+		assertTotals(index.find("A-1"), "A-1", 1, 10, 1);
+
+		index.quantityChanged("A-1", 10, 3);
+		assertTotals(index.find("A-1"), "A-1", 1, 3, 1);
+
+		index.quantityChanged("A-1", 3, 11);
+		assertTotals(index.find("A-1"), "A-1", 1, 11, 0);
+	}
+
+	@Test
+	void removingTheLastProductDropsTheLocation() {
+		index.productAdded("A-1", 2);
+		index.productAdded("A-1", 30);
+
+		index.productRemoved("A-1", 2);
+		assertTotals(index.find("A-1"), "A-1", 1, 30, 0);
+
+		index.productRemoved("A-1", 30);
+		assertNull(index.find("A-1"));
+		assertEquals(0, index.stats().get("locations"));
+
+		// Changes for a location that is not tracked are ignored
+		index.productRemoved("A-1", 30);
+		index.quantityChanged("A-1", 30, 1);
+		assertNull(index.find("A-1"));
+	}
+
+	@Test
+	void findAllIsInNameOrderAndCanKeepOnlyLowStock() {
+		index.productAdded("C-1", 1);
+		index.productAdded("a-2", 50);
+		index.productAdded("B-1", 7);
+
+		assertEquals(List.of("a-2", "B-1", "C-1"), locations(index.findAll(false)));
+		assertEquals(List.of("B-1", "C-1"), locations(index.findAll(true)));
+	}
+
+	private static List<String> locations(List<LocationStockDto> totals) {
+		return totals.stream().map(LocationStockDto::getLocation).toList();
+	}
+
+	private static void assertTotals(LocationStockDto totals, String location, int productCount, long totalQuantity, int lowStockCount) {
+		assertEquals(location, totals.getLocation());
+		assertEquals(productCount, totals.getProductCount());
+		assertEquals(totalQuantity, totals.getTotalQuantity());
+		assertEquals(lowStockCount, totals.getLowStockCount());
+	}
+}
@@ -0,0 +1,177 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.dto.MovementLineResult;
+import com.warehouse.warehousemanager.entity.Import;
+import com.warehouse.warehousemanager.entity.Product;
+import com.warehouse.warehousemanager.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Batch lines are decided in request order, bad lines are rejected without failing the rest,
+ * and ledger entries point back at the rows they record
+ */
+@SpringBootTest
+class MovementBatchServiceTest {
+
+	@Autowired
+	private MovementBatchService movementBatchService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ImportService importService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@DynamicPropertySource
+	static void isolatedDatabase(DynamicPropertyRegistry registry) throws IOException {
+		Path database = Files.createTempFile("movement-batch-", ".db");
+		database.toFile().deleteOnExit();
+		registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + database + "?journal_mode=WAL&busy_timeout=30000");
+		registry.add("spring.jpa.show-sql", () -> "false");
+		registry.add("app.teleportJwksLocation", () -> "");
+	}
+
+	@Test
+	void importLedgerEntriesReferenceTheirRows() {
+		Product first = productRepository.save(new Product("batch-a", 0, "B-1"));
+		Product second = productRepository.save(new Product("batch-b", 0, "B-2"));
+
+		movementBatchService.importBatch(List.of(
+				new MovementBatchService.Line(first.getId(), 3),
+				new MovementBatchService.Line(second.getId(), 4),
+				new MovementBatchService.Line(first.getId(), 5)));
+
+		assertLedgerMatchesRows("imports", "IMPORT", 1, first.getId(), second.getId());
+	}
+
+	@Test
+	void exportLedgerEntriesReferenceTheirRows() {
+		Product product = productRepository.save(new Product("batch-c", 10, "B-3"));
+
+		List<MovementLineResult> results = movementBatchService.exportBatch(List.of(
+				new MovementBatchService.Line(product.getId(), 4),
+				new MovementBatchService.Line(product.getId(), 20),
+				new MovementBatchService.Line(product.getId(), 6)));
+
+		assertEquals(List.of(true, false, true), results.stream().map(MovementLineResult::isSuccess).toList());
+		assertLedgerMatchesRows("exports", "EXPORT", -1, product.getId());
+	}
+
+	@Test
+	void badLinesAreRejectedAndTheRestApplied() {
+		Product product = productRepository.save(new Product("batch-d", 5, "B-4"));
+		long missing = product.getId() + 1_000;
+
+		List<MovementLineResult> results = movementBatchService.importBatch(Arrays.asList(
+				new MovementBatchService.Line(null, 1),
+				new MovementBatchService.Line(product.getId(), 0),
+				new MovementBatchService.Line(missing, 2),
+				new MovementBatchService.Line(product.getId(), 7),
+				null));
+
+		assertEquals(List.of(0, 1, 2, 3, 4), results.stream().map(MovementLineResult::getLine).toList());
+		assertEquals(List.of(false, false, false, true, false), results.stream().map(MovementLineResult::isSuccess).toList());
+		assertEquals("Product id is required", results.get(0).getError());
+		assertEquals("Quantity must be positive", results.get(1).getError());
+		assertEquals("Product not found", results.get(2).getError());
+		assertEquals(missing, results.get(2).getProductId());
+		assertNull(results.get(3).getError());
+		assertEquals("Product id is required", results.get(4).getError());
+
+		assertEquals(12, quantityOf(product));
+		assertEquals(1, countRows("imports", product.getId()));
+		assertEquals(0, countRows("imports", missing));
+	}
+
+	@Test
+	void exportLinesAreDecidedInRequestOrderPerProduct() {
+		Product first = productRepository.save(new Product("batch-e", 10, "B-5"));
+		Product second = productRepository.save(new Product("batch-f", 3, "B-6"));
+
+		List<MovementLineResult> results = movementBatchService.exportBatch(List.of(
+				new MovementBatchService.Line(first.getId(), 8),
+				new MovementBatchService.Line(second.getId(), 3),
+				new MovementBatchService.Line(first.getId(), 5),
+				new MovementBatchService.Line(second.getId(), 1),
+				new MovementBatchService.Line(first.getId(), 2)));
+
+		// The 5 is refused because the 8 before it was taken first; the 2 after it still fits
+		assertEquals(List.of(true, true, false, false, true), results.stream().map(MovementLineResult::isSuccess).toList());
+		assertEquals("Not enough quantity in stock to export. Available: 2, Requested: 5", results.get(2).getError());
+		assertEquals("Not enough quantity in stock to export. Available: 0, Requested: 1", results.get(3).getError());
+		assertEquals(0, quantityOf(first));
+		assertEquals(0, quantityOf(second));
+	}
+
+	@Test
+	void idsFollowRowsWrittenOutsideTheBatch() {
+		Product product = productRepository.save(new Product("batch-g", 0, "B-7"));
+		Import single = importService.save(new Import(product.getId(), 1));
+
+		movementBatchService.importBatch(List.of(
+				new MovementBatchService.Line(product.getId(), 2),
+				new MovementBatchService.Line(product.getId(), 3)));
+
+		List<Long> ids = jdbcTemplate.queryForList(
+				"SELECT id FROM imports WHERE product_id = ? ORDER BY id", Long.class, product.getId());
+		assertEquals(List.of(single.getId(), single.getId() + 1, single.getId() + 2), ids);
+		assertLedgerMatchesRows("imports", "IMPORT", 1, product.getId());
+	}
+
+	@Test
+	void batchWithNoValidLineWritesNothing() {
+		Product product = productRepository.save(new Product("batch-h", 1, "B-8"));
+
+		List<MovementLineResult> results = movementBatchService.exportBatch(List.of(
+				new MovementBatchService.Line(product.getId(), 2)));
+
+		assertTrue(results.stream().noneMatch(MovementLineResult::isSuccess));
+		assertEquals(1, quantityOf(product));
+		assertEquals(0, countRows("exports", product.getId()));
+		assertEquals(0, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM stock_ledger WHERE product_id = ?", Integer.class, product.getId()));
+	}
+
+	private int quantityOf(Product product) {
+		return productRepository.findById(product.getId()).orElseThrow().getQuantity();
+	}
+
+	private int countRows(String table, Long productId) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE product_id = ?", Integer.class, productId);
+	}
+
+	private void assertLedgerMatchesRows(String table, String reason, int sign, Long... productIds) {
+		for (Long productId : productIds) {
+			List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+					"SELECT id, product_id, quantity FROM " + table + " WHERE product_id = ? ORDER BY id", productId);
+			List<Map<String, Object>> entries = jdbcTemplate.queryForList(
+					"SELECT reference_id, product_id, delta FROM stock_ledger WHERE product_id = ? AND reason = ? ORDER BY id",
+					productId, reason);
+
+			assertEquals(rows.size(), entries.size());
+			for (int i = 0; i < rows.size(); i++) {
+				assertEquals(((Number) rows.get(i).get("id")).longValue(), ((Number) entries.get(i).get("reference_id")).longValue());
+				assertEquals(sign * ((Number) rows.get(i).get("quantity")).intValue(), ((Number) entries.get(i).get("delta")).intValue());
+			}
+		}
+	}
+}
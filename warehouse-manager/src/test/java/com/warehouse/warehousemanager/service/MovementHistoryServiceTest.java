@@ -0,0 +1,124 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.dto.ImportDto;
+import com.warehouse.warehousemanager.dto.MovementDto;
+import com.warehouse.warehousemanager.entity.Export;
+import com.warehouse.warehousemanager.entity.Import;
+import com.warehouse.warehousemanager.entity.Product;
+import com.warehouse.warehousemanager.repository.ExportRepository;
+import com.warehouse.warehousemanager.repository.ImportRepository;
+import com.warehouse.warehousemanager.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Keyset pages must add up to the full history, in order, for any page size, including rows sharing a timestamp
+ */
+@SpringBootTest
+class MovementHistoryServiceTest {
+
+	private static final LocalDateTime T = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+	@Autowired
+	private MovementHistoryService movementHistoryService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ImportRepository importRepository;
+
+	@Autowired
+	private ExportRepository exportRepository;
+
+	@DynamicPropertySource
+	static void isolatedDatabase(DynamicPropertyRegistry registry) throws IOException {
+		Path database = Files.createTempFile("movement-history-", ".db");
+		database.toFile().deleteOnExit();
+		registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + database + "?journal_mode=WAL&busy_timeout=30000");
+		registry.add("spring.jpa.show-sql", () -> "false");
+		registry.add("app.teleportJwksLocation", () -> "");
+	}
+
+	@Test
+	void productMovementsPageThroughTheMergedHistory() {
+		Product product = productRepository.save(new Product("history-merged", 0, "H-1"));
+		Product other = productRepository.save(new Product("history-other", 0, "H-2"));
+		Long i1 = importAt(product, T);
+		Long i2 = importAt(product, T);
+		Long i3 = importAt(product, T.plusMinutes(1));
+		Long i4 = importAt(product, T.minusMinutes(1));
+		Long e1 = exportAt(product, T);
+		Long e2 = exportAt(product, T.plusMinutes(2));
+		Long e3 = exportAt(product, T);
+		importAt(other, T);
+
+		// Newest first; at the same timestamp imports before exports, each by descending id
+		List<String> expected = List.of("EXPORT:" + e2, "IMPORT:" + i3, "IMPORT:" + i2, "IMPORT:" + i1,
+				"EXPORT:" + e3, "EXPORT:" + e1, "IMPORT:" + i4);
+		for (int limit = 1; limit <= expected.size() + 1; limit++) {
+			assertEquals(expected, allMovements(product.getId(), limit), "page size " + limit);
+		}
+	}
+
+	@Test
+	void importsHonourTheHalfOpenDateRange() {
+		Product product = productRepository.save(new Product("history-range", 0, "H-3"));
+		Long first = importAt(product, T);
+		Long second = importAt(product, T.plusSeconds(30));
+		importAt(product, T.plusMinutes(1));
+		importAt(product, T.minusSeconds(1));
+
+		List<Long> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			MovementHistoryService.Page<ImportDto> page =
+					movementHistoryService.imports(product.getId(), T, T.plusMinutes(1), cursor, 1);
+			page.getItems().forEach(item -> ids.add(item.getId()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		assertEquals(List.of(second, first), ids);
+	}
+
+	@Test
+	void rejectsMalformedCursor() {
+		assertThrows(IllegalArgumentException.class, () -> movementHistoryService.imports(null, null, null, "bm90LWEtY3Vyc29y", 10));
+	}
+
+	private List<String> allMovements(Long productId, int limit) {
+		List<String> movements = new ArrayList<>();
+		String cursor = null;
+		do {
+			MovementHistoryService.Page<MovementDto> page = movementHistoryService.productMovements(productId, null, null, cursor, limit);
+			page.getItems().forEach(item -> movements.add(item.getKind() + ":" + item.getId()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return movements;
+	}
+
+	private Long importAt(Product product, LocalDateTime createdAt) {
+		Import importRecord = new Import(product.getId(), 1);
+		importRecord.setCreatedAt(createdAt);
+		return importRepository.save(importRecord).getId();
+	}
+
+	private Long exportAt(Product product, LocalDateTime createdAt) {
+		Export exportRecord = new Export(product.getId(), 1);
+		exportRecord.setCreatedAt(createdAt);
+		return exportRepository.save(exportRecord).getId();
+	}
+}
@@ -0,0 +1,114 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.dto.DailyFlowDto;
+import com.warehouse.warehousemanager.dto.DailyStockDto;
+import com.warehouse.warehousemanager.entity.Export;
+import com.warehouse.warehousemanager.entity.Import;
+import com.warehouse.warehousemanager.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Daily totals, including corrections counted on the original day, and closing quantities worked back from today
+ */
+@SpringBootTest
+class MovementRollupTest {
+
+	private static final LocalDate DAY_1 = LocalDate.of(2024, 3, 1);
+	private static final LocalDate DAY_2 = DAY_1.plusDays(1);
+	private static final LocalDate DAY_4 = DAY_1.plusDays(3);
+
+	@Autowired
+	private MovementRollup movementRollup;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ImportService importService;
+
+	@Autowired
+	private ExportService exportService;
+
+	@DynamicPropertySource
+	static void isolatedDatabase(DynamicPropertyRegistry registry) throws IOException {
+		Path database = Files.createTempFile("movement-rollup-", ".db");
+		database.toFile().deleteOnExit();
+		registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + database + "?journal_mode=WAL&busy_timeout=30000");
+		registry.add("spring.jpa.show-sql", () -> "false");
+		registry.add("app.teleportJwksLocation", () -> "");
+	}
+
+	@Test
+	void flowAndStockLevelsFollowTheRecordedChanges() {
+		long product = 900_001L;
+		long other = 900_002L;
+		transactionTemplate.executeWithoutResult(status -> movementRollup.record(List.of(
+				MovementRollup.Change.imported(product, at(DAY_1), 10),
+				MovementRollup.Change.imported(product, at(DAY_1), 5),
+				MovementRollup.Change.exported(product, at(DAY_1), 3),
+				MovementRollup.Change.adjusted(product, at(DAY_2), 2),
+				MovementRollup.Change.exported(product, at(DAY_2), 4),
+				MovementRollup.Change.imported(other, at(DAY_2), 100))));
+		// Later transactions: a new import and a correction that belongs to the first day
+		transactionTemplate.executeWithoutResult(status -> movementRollup.record(
+				MovementRollup.Change.imported(product, at(DAY_4), 7)));
+		transactionTemplate.executeWithoutResult(status -> movementRollup.record(
+				MovementRollup.Change.importRemoved(product, at(DAY_1), 5)));
+
+		List<DailyFlowDto> flow = movementRollup.flow(product, DAY_1, DAY_4);
+		assertEquals(4, flow.size());
+		assertFlow(flow.get(0), 10, 3, 1, 1);
+		assertFlow(flow.get(1), 0, 4, 0, 1);
+		assertFlow(flow.get(2), 0, 0, 0, 0);
+		assertFlow(flow.get(3), 7, 0, 1, 0);
+		assertEquals(100, movementRollup.flow(null, DAY_2, DAY_2).get(0).getUnitsIn());
+
+		// 10 + 5 - 3 - 5 + 2 - 4 + 7 on hand today
+		List<DailyStockDto> levels = movementRollup.stockLevels(product, 12, DAY_1, DAY_1.plusDays(2));
+		assertEquals(List.of(7L, 5L, 5L), levels.stream().map(DailyStockDto::getClosingQuantity).toList());
+		assertEquals(2, levels.get(1).getAdjustment());
+	}
+
+	@Test
+	void productSavesImportsAndExportsAreRolledUpAsTheyCommit() {
+		LocalDate today = LocalDate.now();
+		Product product = productService.save(new Product("rollup-live", 10, "RL-1"));
+		importService.save(new Import(product.getId(), 5));
+		importService.save(new Import(product.getId(), 2));
+		exportService.save(new Export(product.getId(), 3));
+
+		List<DailyFlowDto> flow = movementRollup.flow(product.getId(), today, today);
+		assertFlow(flow.get(0), 7, 3, 2, 1);
+		DailyStockDto level = movementRollup.stockLevels(product.getId(), 14, today, today).get(0);
+		assertEquals(10, level.getAdjustment());
+		assertEquals(14, level.getClosingQuantity());
+	}
+
+	private static void assertFlow(DailyFlowDto flow, long unitsIn, long unitsOut, int imports, int exports) {
+		assertEquals(unitsIn, flow.getUnitsIn(), "units in on " + flow.getDay());
+		assertEquals(unitsOut, flow.getUnitsOut(), "units out on " + flow.getDay());
+		assertEquals(imports, flow.getImports(), "imports on " + flow.getDay());
+		assertEquals(exports, flow.getExports(), "exports on " + flow.getDay());
+	}
+
+	private static LocalDateTime at(LocalDate day) {
+		return day.atTime(12, 0);
+	}
+}
@@ -0,0 +1,118 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.dto.ProductView;
+import com.warehouse.warehousemanager.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Search and keyset pagination over the in-memory catalog; with no transaction active, changes apply at once
+ */
+class ProductCacheTest {
+
+	private ProductCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new ProductCache();
+		ReflectionTestUtils.setField(cache, "locationStockIndex", new LocationStockIndex(10));
+		ReflectionTestUtils.setField(cache, "stockAlertService", Mockito.mock(StockAlertService.class));
+
+		add(1L, "Bolt M8", 5, "A-1");
+		add(2L, "bolt m10", 0, "A-2");
+		add(3L, "Nut", 12, "B-1");
+		add(4L, "Bolt M6", 20, "a-1");
+		add(5L, "Washer", 3, "A-1");
+	}
+
+	@Test
+	void pagesThroughIdOrderUntilTheCursorRunsOut() {
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L), allPages(null, null, "id", 2));
+		assertEquals(List.of(5L, 4L, 3L, 2L, 1L), allPages(null, null, "-id", 2));
+	}
+
+	@Test
+	void namePrefixIsCaseInsensitiveAndSortsByName() {
+		assertEquals(List.of(2L, 4L, 1L), allPages("BO", null, null, 2));
+		assertEquals(List.of(1L, 4L, 2L), allPages("bo", null, "-name", 1));
+	}
+
+	@Test
+	void filtersByQuantityRange() {
+		ProductCache.SearchResult result = cache.search(null, null, 5, 12, "id", null, 10);
+
+		assertEquals(List.of(1L, 3L), ids(result.getItems()));
+		assertNull(result.getNextCursor());
+	}
+
+	@Test
+	void productsAtMatchesTheWholeLocation() {
+		ProductCache.SearchResult result = cache.productsAt("A-1", null, null, 10);
+
+		assertEquals(List.of(1L, 4L, 5L), ids(result.getItems()));
+	}
+
+	@Test
+	void renamedProductLeavesItsOldIndexEntry() {
+		add(1L, "Anchor", 5, "A-1");
+
+		assertEquals(List.of(2L, 4L), allPages("bolt", null, null, 10));
+		assertEquals(List.of(1L), allPages("anc", null, null, 10));
+	}
+
+	@Test
+	void readsShareTheStoredViewUntilAMovementReplacesIt() {
+		ProductView before = cache.get(3L);
+		assertSame(before, cache.get(3L));
+		assertSame(before, cache.findAll().get(2));
+
+		cache.quantityChanged(3L, -2);
+
+		ProductView after = cache.get(3L);
+		assertNotSame(before, after);
+		assertEquals(12, before.getQuantity());
+		assertEquals(10, after.getQuantity());
+		assertSame(after, cache.productsAt("B-1", null, null, 10).getItems().get(0));
+	}
+
+	@Test
+	void rejectsCursorFromAnotherSort() {
+		String cursor = cache.search(null, null, null, null, "name", null, 1).getNextCursor();
+
+		assertThrows(IllegalArgumentException.class, () -> cache.search(null, null, null, null, "id", cursor, 1));
+		assertThrows(IllegalArgumentException.class, () -> cache.search(null, null, null, null, "quantity", null, 1));
+	}
+
+	private List<Long> allPages(String q, String location, String sort, int limit) {
+		List<Long> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			ProductCache.SearchResult page = cache.search(q, location, null, null, sort, cursor, limit);
+			ids.addAll(ids(page.getItems()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return ids;
+	}
+
+	private static List<Long> ids(List<ProductView> products) {
+		return products.stream().map(ProductView::getId).toList();
+	}
+
+	private void add(Long id, String name, int quantity, String location) {
+		Product product = new Product(name, quantity, location);
+		product.setId(id);
+		cache.productSaved(product);
+		cache.quantityChanged(id, quantity - cache.quantityOf(id));
+	}
+}
@@ -0,0 +1,101 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.dto.ReservationRequest;
+import com.warehouse.warehousemanager.entity.Export;
+import com.warehouse.warehousemanager.entity.Product;
+import com.warehouse.warehousemanager.entity.StockReservation;
+import com.warehouse.warehousemanager.exception.InsufficientStockException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Holds block exports of the held stock until they are released, expire or are converted
+ */
+@SpringBootTest
+class ReservationServiceTest {
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private ReservedStock reservedStock;
+
+	@DynamicPropertySource
+	static void isolatedDatabase(DynamicPropertyRegistry registry) throws IOException {
+		Path database = Files.createTempFile("reservations-", ".db");
+		database.toFile().deleteOnExit();
+		registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + database + "?journal_mode=WAL&busy_timeout=30000");
+		registry.add("spring.jpa.show-sql", () -> "false");
+		registry.add("app.teleportJwksLocation", () -> "");
+		registry.add("app.reservationSweepMs", () -> "100");
+	}
+
+	@Test
+	void holdBlocksExportsUntilReleased() {
+		Product product = productService.save(new Product("reserve-release", 10, "R-1"));
+		StockReservation reservation = reservationService.reserve(request(product, 8, 3600), "tester");
+
+		assertEquals(2, reservationService.availability(product.getId()).getAvailable());
+		assertThrows(InsufficientStockException.class, () -> exportService.save(new Export(product.getId(), 3)));
+		assertThrows(InsufficientStockException.class, () -> reservationService.reserve(request(product, 3, 3600), "tester"));
+
+		reservationService.release(reservation.getId());
+		assertEquals(0, reservedStock.reserved(product.getId()));
+		exportService.save(new Export(product.getId(), 3));
+		assertThrows(IllegalArgumentException.class, () -> reservationService.release(reservation.getId()));
+	}
+
+	@Test
+	void convertTakesTheHeldStockOffTheProduct() {
+		Product product = productService.save(new Product("reserve-convert", 10, "R-2"));
+		StockReservation reservation = reservationService.reserve(request(product, 4, 3600), "tester");
+
+		Export export = reservationService.convert(reservation.getId());
+
+		assertEquals(4, export.getQuantity());
+		assertEquals(StockReservation.Status.CONVERTED, reservationService.findById(reservation.getId()).orElseThrow().getStatus());
+		assertEquals(6, reservationService.availability(product.getId()).getOnHand());
+		assertEquals(0, reservedStock.reserved(product.getId()));
+		assertThrows(IllegalArgumentException.class, () -> reservationService.convert(reservation.getId()));
+	}
+
+	@Test
+	void holdExpiresShortlyAfterItsTtl() throws InterruptedException {
+		Product product = productService.save(new Product("reserve-expire", 10, "R-3"));
+		StockReservation reservation = reservationService.reserve(request(product, 5, 1), "tester");
+
+		// Far less than a full turn of the expiry wheel
+		long giveUpAt = System.currentTimeMillis() + 5_000;
+		while (reservedStock.reserved(product.getId()) != 0 && System.currentTimeMillis() < giveUpAt) {
+			Thread.sleep(50);
+		}
+
+		assertEquals(0, reservedStock.reserved(product.getId()));
+		assertEquals(StockReservation.Status.EXPIRED, reservationService.findById(reservation.getId()).orElseThrow().getStatus());
+	}
+
+	private static ReservationRequest request(Product product, int quantity, long ttlSeconds) {
+		ReservationRequest request = new ReservationRequest();
+		request.setProductId(product.getId());
+		request.setQuantity(quantity);
+		request.setTtlSeconds(ttlSeconds);
+		request.setReference("pick-" + product.getName());
+		return request;
+	}
+}
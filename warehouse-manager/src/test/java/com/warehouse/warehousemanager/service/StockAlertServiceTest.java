@@ -0,0 +1,131 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.entity.Export;
+import com.warehouse.warehousemanager.entity.Import;
+import com.warehouse.warehousemanager.entity.Product;
+import com.warehouse.warehousemanager.entity.StockAlert;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Crossings of a reorder point alert once after the debounce window, and not at all when they bounce back
+ */
+@SpringBootTest
+class StockAlertServiceTest {
+
+	private static final long DEBOUNCE_MS = 300;
+
+	@Autowired
+	private StockAlertService stockAlertService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ImportService importService;
+
+	@Autowired
+	private ExportService exportService;
+
+	@DynamicPropertySource
+	static void isolatedDatabase(DynamicPropertyRegistry registry) throws IOException {
+		Path database = Files.createTempFile("stock-alerts-", ".db");
+		database.toFile().deleteOnExit();
+		registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + database + "?journal_mode=WAL&busy_timeout=30000");
+		registry.add("spring.jpa.show-sql", () -> "false");
+		registry.add("app.teleportJwksLocation", () -> "");
+		registry.add("app.stockAlertDebounceMs", () -> String.valueOf(DEBOUNCE_MS));
+		registry.add("app.stockAlertSweepMs", () -> "50");
+	}
+
+	@Test
+	void crossingAlertsOnceAndRecoveryAlertsAgain() throws InterruptedException {
+		Product product = productService.save(new Product("alert-cross", 20, "A-1"));
+		stockAlertService.setThreshold(product.getId(), 10);
+
+		exportService.save(new Export(product.getId(), 8));
+		exportService.save(new Export(product.getId(), 5));
+		List<StockAlert> alerts = awaitAlerts(product.getId(), 1);
+
+		assertEquals(1, alerts.size());
+		assertEquals(StockAlert.Type.LOW_STOCK, alerts.get(0).getType());
+		assertEquals(7, alerts.get(0).getQuantity());
+		assertEquals(10, alerts.get(0).getReorderPoint());
+
+		importService.save(new Import(product.getId(), 10));
+		alerts = awaitAlerts(product.getId(), 2);
+
+		assertEquals(2, alerts.size());
+		assertEquals(StockAlert.Type.RECOVERED, alerts.get(0).getType());
+		assertEquals(17, alerts.get(0).getQuantity());
+	}
+
+	@Test
+	void crossingThatComesBackWithinTheWindowDoesNotAlert() throws InterruptedException {
+		Product product = productService.save(new Product("alert-bounce", 12, "A-2"));
+		stockAlertService.setThreshold(product.getId(), 10);
+		// Let the check setThreshold schedules run first, so it cannot land between the two movements
+		Thread.sleep(DEBOUNCE_MS);
+
+		exportService.save(new Export(product.getId(), 5));
+		importService.save(new Import(product.getId(), 5));
+		Thread.sleep(DEBOUNCE_MS * 4);
+
+		assertTrue(stockAlertService.findAlerts(product.getId(), null, 10).isEmpty());
+	}
+
+	@Test
+	void thresholdAboveCurrentStockAlertsWithoutWaitingForAChange() throws InterruptedException {
+		Product product = productService.save(new Product("alert-set-low", 3, "A-3"));
+
+		assertEquals(5, stockAlertService.setThreshold(product.getId(), 5).getReorderPoint());
+		List<StockAlert> alerts = awaitAlerts(product.getId(), 1);
+
+		assertEquals(StockAlert.Type.LOW_STOCK, alerts.get(0).getType());
+	}
+
+	@Test
+	void removedThresholdStopsAlerting() throws InterruptedException {
+		Product product = productService.save(new Product("alert-removed", 20, "A-4"));
+		stockAlertService.setThreshold(product.getId(), 10);
+
+		assertTrue(stockAlertService.removeThreshold(product.getId()));
+		exportService.save(new Export(product.getId(), 15));
+		Thread.sleep(DEBOUNCE_MS * 4);
+
+		assertTrue(stockAlertService.findAlerts(product.getId(), null, 10).isEmpty());
+		assertTrue(stockAlertService.findThresholds().stream().noneMatch(t -> t.getProductId().equals(product.getId())));
+	}
+
+	@Test
+	void negativeReorderPointIsRejected() {
+		Product product = productService.save(new Product("alert-negative", 20, "A-5"));
+
+		assertThrows(IllegalArgumentException.class, () -> stockAlertService.setThreshold(product.getId(), -1));
+	}
+
+	/**
+	 * Newest first, once at least count alerts have been stored or a few seconds have passed
+	 */
+	private List<StockAlert> awaitAlerts(Long productId, int count) throws InterruptedException {
+		long giveUpAt = System.currentTimeMillis() + 5_000;
+		List<StockAlert> alerts = stockAlertService.findAlerts(productId, null, 10);
+		while (alerts.size() < count && System.currentTimeMillis() < giveUpAt) {
+			Thread.sleep(50);
+			alerts = stockAlertService.findAlerts(productId, null, 10);
+		}
+		return alerts;
+	}
+}
@@ -0,0 +1,175 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.entity.Export;
+import com.warehouse.warehousemanager.entity.Import;
+import com.warehouse.warehousemanager.entity.Product;
+import com.warehouse.warehousemanager.exception.InsufficientStockException;
+import com.warehouse.warehousemanager.repository.ExportRepository;
+import com.warehouse.warehousemanager.repository.ImportRepository;
+import com.warehouse.warehousemanager.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Many threads move stock of one product at the same time; no update may be lost and no export may oversell
+ */
+@SpringBootTest
+class StockConcurrencyTest {
+
+	private static final int THREADS = 16;
+	private static final int MOVEMENTS_PER_THREAD = 25;
+
+	@Autowired
+	private ImportService importService;
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ImportRepository importRepository;
+
+	@Autowired
+	private ExportRepository exportRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@DynamicPropertySource
+	static void isolatedDatabase(DynamicPropertyRegistry registry) throws IOException {
+		Path database = Files.createTempFile("stock-concurrency-", ".db");
+		database.toFile().deleteOnExit();
+		registry.add("spring.datasource.url",
+				() -> "jdbc:sqlite:" + database + "?journal_mode=WAL&busy_timeout=30000");
+		registry.add("spring.jpa.show-sql", () -> "false");
+		registry.add("app.teleportJwksLocation", () -> "");
+	}
+
+	@Test
+	void concurrentImportsLoseNoUpdates() throws Exception {
+		Product product = productRepository.save(new Product("stress-import", 0, "A-1"));
+
+		runConcurrently(() -> importService.save(new Import(product.getId(), 1)));
+
+		int expected = THREADS * MOVEMENTS_PER_THREAD;
+		assertEquals(expected, quantityOf(product));
+		assertEquals(expected, importRepository.findAll().stream()
+				.filter(i -> i.getProductId().equals(product.getId()))
+				.count());
+	}
+
+	@Test
+	void concurrentExportsNeverOversell() throws Exception {
+		int initialStock = 100;
+		Product product = productRepository.save(new Product("stress-export", initialStock, "A-2"));
+		AtomicInteger rejected = new AtomicInteger();
+
+		runConcurrently(() -> {
+			try {
+				exportService.save(new Export(product.getId(), 1));
+			} catch (InsufficientStockException e) {
+				rejected.incrementAndGet();
+			}
+		});
+
+		long exported = exportRepository.findAll().stream()
+				.filter(e -> e.getProductId().equals(product.getId()))
+				.count();
+		assertEquals(0, quantityOf(product));
+		assertEquals(initialStock, exported);
+		assertEquals(THREADS * MOVEMENTS_PER_THREAD - initialStock, rejected.get());
+	}
+
+	@Test
+	void mixedImportsAndExportsBalance() throws Exception {
+		Product product = productRepository.save(new Product("stress-mixed", 1000, "A-3"));
+
+		runConcurrently(() -> {
+			importService.save(new Import(product.getId(), 3));
+			exportService.save(new Export(product.getId(), 2));
+		});
+
+		assertEquals(1000 + THREADS * MOVEMENTS_PER_THREAD, quantityOf(product));
+	}
+
+	@Test
+	void readOnlyTransactionsDoNotWaitForTheWriter() throws Exception {
+		Product product = productRepository.save(new Product("stress-reader", 7, "A-4"));
+		TransactionTemplate writer = new TransactionTemplate(transactionManager);
+		TransactionTemplate reader = new TransactionTemplate(transactionManager);
+		reader.setReadOnly(true);
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> write = executor.submit(() -> writer.executeWithoutResult(status -> {
+				locked.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}));
+			locked.await();
+
+			// Well under busy_timeout: the read must not queue behind the write lock
+			Future<Integer> read = executor.submit(() -> reader.execute(status -> quantityOf(product)));
+			assertEquals(7, read.get(5, TimeUnit.SECONDS));
+
+			release.countDown();
+			write.get();
+		} finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	private int quantityOf(Product product) {
+		return productRepository.findById(product.getId()).orElseThrow().getQuantity();
+	}
+
+	private void runConcurrently(Runnable movement) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		try {
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < MOVEMENTS_PER_THREAD; i++) {
+						movement.run();
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				// Rethrows anything other than an expected rejection
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.dto.StockLevelDto;
+import com.warehouse.warehousemanager.entity.Product;
+import com.warehouse.warehousemanager.entity.StockMovement;
+import com.warehouse.warehousemanager.entity.StockSnapshot;
+import com.warehouse.warehousemanager.repository.ProductRepository;
+import com.warehouse.warehousemanager.repository.StockMovementRepository;
+import com.warehouse.warehousemanager.repository.StockSnapshotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Quantities at a point in time, from the ledger alone or from a snapshot and the entries after it
+ */
+@SpringBootTest
+class StockHistoryServiceTest {
+
+	private static final LocalDateTime T = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+	@Autowired
+	private StockHistoryService stockHistoryService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private StockMovementRepository stockMovementRepository;
+
+	@Autowired
+	private StockSnapshotRepository stockSnapshotRepository;
+
+	@DynamicPropertySource
+	static void isolatedDatabase(DynamicPropertyRegistry registry) throws IOException {
+		Path database = Files.createTempFile("stock-history-", ".db");
+		database.toFile().deleteOnExit();
+		registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + database + "?journal_mode=WAL&busy_timeout=30000");
+		registry.add("spring.jpa.show-sql", () -> "false");
+		registry.add("app.teleportJwksLocation", () -> "");
+		registry.add("app.stockHistoryThreads", () -> "2");
+	}
+
+	@Test
+	void quantityAtReplaysTheEntriesUpToThatTime() {
+		Long product = product("history-replay");
+		entry(product, 10, T);
+		entry(product, -3, T.plusHours(1));
+		entry(product, 5, T.plusHours(2));
+
+		assertNull(stockHistoryService.quantityAt(product, T.minusMinutes(1)));
+		assertEquals(10, stockHistoryService.quantityAt(product, T));
+		// Entries stamped exactly at the requested time count
+		assertEquals(7, stockHistoryService.quantityAt(product, T.plusHours(1)));
+		assertEquals(7, stockHistoryService.quantityAt(product, T.plusMinutes(90)));
+		assertEquals(12, stockHistoryService.quantityAt(product, T.plusHours(3)));
+	}
+
+	@Test
+	void quantityAtStartsFromTheLastSnapshotBeforeThatTime() {
+		Long product = product("history-snapshot");
+		entry(product, 10, T);
+		long lastCovered = entry(product, 5, T.plusHours(1));
+		entry(product, -4, T.plusHours(2));
+		// Disagrees with the entries it covers (15), which shows when it is used
+		snapshot(product, 100, lastCovered, T.plusMinutes(61));
+
+		assertEquals(15, stockHistoryService.quantityAt(product, T.plusMinutes(60)));
+		assertEquals(100, stockHistoryService.quantityAt(product, T.plusMinutes(61)));
+		assertEquals(96, stockHistoryService.quantityAt(product, T.plusHours(3)));
+	}
+
+	@Test
+	void allQuantitiesAtAgreesWithSingleQueriesInIdOrder() {
+		List<Long> products = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			Long product = product("history-bulk-" + i);
+			entry(product, 10 * (i + 1), T.plusMinutes(i));
+			entry(product, -i, T.plusHours(1));
+			products.add(product);
+		}
+		// No history yet at the requested time, so left out
+		Long late = product("history-bulk-late");
+		entry(late, 1, T.plusDays(1));
+
+		LocalDateTime at = T.plusHours(2);
+		List<StockLevelDto> levels = stockHistoryService.allQuantitiesAt(at).stream()
+				.filter(level -> products.contains(level.getProductId()) || level.getProductId().equals(late))
+				.toList();
+
+		assertEquals(products, levels.stream().map(StockLevelDto::getProductId).toList());
+		for (StockLevelDto level : levels) {
+			assertEquals(stockHistoryService.quantityAt(level.getProductId(), at), level.getQuantity());
+			assertEquals(at, level.getAt());
+		}
+		assertEquals(List.of(10, 19, 28, 37, 46), levels.stream().map(StockLevelDto::getQuantity).toList());
+	}
+
+	private Long product(String name) {
+		return productRepository.save(new Product(name, 0, name)).getId();
+	}
+
+	private long entry(Long productId, int delta, LocalDateTime at) {
+		StockMovement movement = new StockMovement(productId, delta, delta > 0 ? StockMovement.Reason.IMPORT : StockMovement.Reason.EXPORT, null);
+		movement.setCreatedAt(at);
+		return stockMovementRepository.save(movement).getId();
+	}
+
+	private void snapshot(Long productId, int quantity, long lastMovementId, LocalDateTime at) {
+		StockSnapshot snapshot = new StockSnapshot();
+		snapshot.setProductId(productId);
+		snapshot.setQuantity(quantity);
+		snapshot.setLastMovementId(lastMovementId);
+		snapshot.setCreatedAt(at);
+		stockSnapshotRepository.save(snapshot);
+	}
+}
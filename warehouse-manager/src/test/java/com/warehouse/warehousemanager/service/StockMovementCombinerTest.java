@@ -0,0 +1,104 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.entity.Import;
+import com.warehouse.warehousemanager.entity.Product;
+import com.warehouse.warehousemanager.repository.ImportRepository;
+import com.warehouse.warehousemanager.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A movement that fails inside a combined batch must only fail its own caller, and drained lanes must not linger
+ */
+@SpringBootTest
+class StockMovementCombinerTest {
+
+	private static final int CALLERS = 32;
+
+	@Autowired
+	private StockMovementCombiner combiner;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ImportRepository importRepository;
+
+	@DynamicPropertySource
+	static void isolatedDatabase(DynamicPropertyRegistry registry) throws IOException {
+		Path database = Files.createTempFile("stock-combiner-", ".db");
+		database.toFile().deleteOnExit();
+		registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + database + "?journal_mode=WAL&busy_timeout=30000");
+		registry.add("spring.jpa.show-sql", () -> "false");
+		registry.add("app.teleportJwksLocation", () -> "");
+	}
+
+	@Test
+	void failingCallbackOnlyFailsItsOwnMovement() throws Exception {
+		Product product = productRepository.save(new Product("combiner-isolation", 0, "C-1"));
+		ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Import>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < CALLERS; i++) {
+				boolean poisoned = i == CALLERS / 2;
+				futures.add(executor.submit(() -> {
+					start.await();
+					return combiner.submitImport(new Import(product.getId(), 1), saved -> {
+						if (poisoned) {
+							throw new IllegalStateException("callback failed");
+						}
+					});
+				}));
+			}
+			start.countDown();
+
+			int failed = 0;
+			for (Future<Import> future : futures) {
+				try {
+					assertNotNull(future.get().getId());
+				} catch (ExecutionException e) {
+					assertTrue(e.getCause() instanceof IllegalStateException);
+					failed++;
+				}
+			}
+			assertEquals(1, failed);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(CALLERS - 1, productRepository.findById(product.getId()).orElseThrow().getQuantity());
+		assertEquals(CALLERS - 1, importRepository.findAll().stream()
+				.filter(i -> i.getProductId().equals(product.getId()))
+				.count());
+	}
+
+	@Test
+	void lanesAreDroppedOnceDrained() {
+		Product product = productRepository.save(new Product("combiner-lanes", 0, "C-2"));
+
+		combiner.submitImport(new Import(product.getId(), 1));
+		assertThrows(RuntimeException.class, () -> combiner.submitImport(new Import(Long.MAX_VALUE, 1)));
+
+		assertEquals(0, combiner.stats().get("lanes"));
+	}
+}
@@ -0,0 +1,87 @@
+package com.warehouse.warehousemanager.service;
+
+import com.warehouse.warehousemanager.entity.User;
+import com.warehouse.warehousemanager.security.UserVersionRegistry;
+import com.warehouse.warehousemanager.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Access tokens carry role, permissions and version; changing what a user may do makes older tokens stale
+ */
+@SpringBootTest
+class UserServiceTest {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserVersionRegistry userVersionRegistry;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@DynamicPropertySource
+	static void isolatedDatabase(DynamicPropertyRegistry registry) throws IOException {
+		Path database = Files.createTempFile("users-", ".db");
+		database.toFile().deleteOnExit();
+		registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + database + "?journal_mode=WAL&busy_timeout=30000");
+		registry.add("spring.jpa.show-sql", () -> "false");
+		registry.add("app.teleportJwksLocation", () -> "");
+	}
+
+	@Test
+	void tokenCarriesRolePermissionsAndVersion() {
+		User user = new User("claims-user", "secret", User.Role.USER);
+		user.setPermissions(Set.of("products:read"));
+		User saved = userService.save(user).join();
+
+		Claims claims = jwtUtil.parseClaims(jwtUtil.generateToken(saved));
+
+		assertEquals("claims-user", claims.getSubject());
+		assertEquals("USER", claims.get(JwtUtil.CLAIM_ROLE, String.class));
+		assertEquals(List.of("products:read"), claims.get(JwtUtil.CLAIM_PERMISSIONS, List.class));
+		assertEquals(0, claims.get(JwtUtil.CLAIM_VERSION, Number.class).longValue());
+	}
+
+	@Test
+	void roleChangeMakesOutstandingTokensStale() {
+		User saved = userService.save(new User("promoted-user", "secret", User.Role.USER)).join();
+		long issuedVersion = saved.getTokenVersion();
+		assertTrue(userVersionRegistry.isCurrent("promoted-user", issuedVersion));
+
+		User changes = new User("promoted-user", null, User.Role.ADMIN);
+		changes.setPermissions(saved.getPermissions());
+		User updated = userService.update(saved.getId(), changes).join();
+
+		assertEquals(issuedVersion + 1, updated.getTokenVersion());
+		assertFalse(userVersionRegistry.isCurrent("promoted-user", issuedVersion));
+		assertTrue(userVersionRegistry.isCurrent("promoted-user", updated.getTokenVersion()));
+	}
+
+	@Test
+	void unchangedUserKeepsItsTokens() {
+		User saved = userService.save(new User("steady-user", "secret", User.Role.USER)).join();
+
+		User changes = new User("steady-user", null, User.Role.USER);
+		changes.setPermissions(saved.getPermissions());
+		User updated = userService.update(saved.getId(), changes).join();
+
+		assertEquals(saved.getTokenVersion(), updated.getTokenVersion());
+		assertTrue(userVersionRegistry.isCurrent("steady-user", saved.getTokenVersion()));
+	}
+}
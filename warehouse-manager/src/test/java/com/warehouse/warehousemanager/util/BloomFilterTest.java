@@ -0,0 +1,58 @@
+package com.warehouse.warehousemanager.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+	@Test
+	void neverMissesAnAddedValue() {
+		BloomFilter filter = new BloomFilter(1 << 16, 4);
+		for (int i = 0; i < 5_000; i++) {
+			filter.add("j:" + i);
+		}
+		for (int i = 0; i < 5_000; i++) {
+			assertTrue(filter.mightContain("j:" + i), "missing j:" + i);
+		}
+	}
+
+	@Test
+	void emptyFilterContainsNothing() {
+		BloomFilter filter = new BloomFilter(1024, 4);
+
+		assertFalse(filter.mightContain("u:alice"));
+		assertFalse(filter.mightContain(""));
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTheExpectedBound() {
+		// 10k values in 2^17 bits with 4 probes: expected rate is about 0.2%
+		BloomFilter filter = new BloomFilter(1 << 17, 4);
+		for (int i = 0; i < 10_000; i++) {
+			filter.add("added-" + i);
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("absent-" + i)) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < 1_000, "false positives: " + falsePositives);
+	}
+
+	@Test
+	void roundsBitCountUpToWholeWords() {
+		assertEquals(128, new BloomFilter(100, 2).getBitCount());
+	}
+
+	@Test
+	void rejectsInvalidSizes() {
+		assertThrows(IllegalArgumentException.class, () -> new BloomFilter(63, 4));
+		assertThrows(IllegalArgumentException.class, () -> new BloomFilter(1024, 0));
+	}
+}
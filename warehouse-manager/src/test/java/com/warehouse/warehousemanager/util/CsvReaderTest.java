@@ -0,0 +1,69 @@
+package com.warehouse.warehousemanager.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+
+	@Test
+	void readsPlainRecordsWithAnyLineEnding() throws IOException {
+		CsvReader reader = reader("productId,quantity\n1,5\r\n2,7\r3,9");
+
+		assertEquals(List.of("productId", "quantity"), reader.readRecord());
+		assertEquals(List.of("1", "5"), reader.readRecord());
+		assertEquals(List.of("2", "7"), reader.readRecord());
+		assertEquals(List.of("3", "9"), reader.readRecord());
+		assertNull(reader.readRecord());
+		assertEquals(4, reader.getRecordNumber());
+	}
+
+	@Test
+	void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+		CsvReader reader = reader("\"Bolt, M8\",\"12\"\"\",\"line one\r\nline two\"\n");
+
+		assertEquals(List.of("Bolt, M8", "12\"", "line one\r\nline two"), reader.readRecord());
+		assertNull(reader.readRecord());
+	}
+
+	@Test
+	void keepsEmptyFields() throws IOException {
+		CsvReader reader = reader(",a,,\n\"\"\n");
+
+		assertEquals(List.of("", "a", "", ""), reader.readRecord());
+		assertEquals(List.of(""), reader.readRecord());
+	}
+
+	@Test
+	void skipsBlankLines() throws IOException {
+		CsvReader reader = reader("\n\r\n1,2\n\n\n3,4\n\n");
+
+		assertEquals(List.of("1", "2"), reader.readRecord());
+		assertEquals(List.of("3", "4"), reader.readRecord());
+		assertNull(reader.readRecord());
+	}
+
+	@Test
+	void rejectsUnterminatedQuotedField() throws IOException {
+		CsvReader reader = reader("1,\"never closed\n2,3\n");
+
+		assertThrows(IOException.class, reader::readRecord);
+	}
+
+	@Test
+	void rejectsOversizedRecord() {
+		CsvReader reader = reader("x".repeat((1 << 20) + 1));
+
+		assertThrows(IOException.class, reader::readRecord);
+	}
+
+	private static CsvReader reader(String input) {
+		return new CsvReader(new StringReader(input));
+	}
+}
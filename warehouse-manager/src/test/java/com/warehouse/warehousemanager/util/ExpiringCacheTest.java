@@ -0,0 +1,73 @@
+package com.warehouse.warehousemanager.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpiringCacheTest {
+
+	@Test
+	void returnsLiveEntriesAndCountsHitsAndMisses() {
+		ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+		cache.put("a", "alpha", System.currentTimeMillis() + 60_000);
+
+		assertEquals("alpha", cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals(1L, cache.stats().get("hits"));
+		assertEquals(1L, cache.stats().get("misses"));
+	}
+
+	@Test
+	void ignoresEntriesThatAreAlreadyExpired() {
+		ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+		cache.put("a", "alpha", System.currentTimeMillis() - 1);
+
+		assertEquals(0, cache.size());
+		assertNull(cache.get("a"));
+	}
+
+	@Test
+	void dropsEntriesOnceTheirExpiryPasses() throws InterruptedException {
+		ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+		cache.put("a", "alpha", System.currentTimeMillis() + 20);
+		cache.put("b", "beta", System.currentTimeMillis() + 20);
+		Thread.sleep(40);
+
+		assertNull(cache.get("a"));
+		assertEquals(1, cache.purgeExpired());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void trimsBelowMaxSizeWhenFull() {
+		ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(100);
+		long expiresAt = System.currentTimeMillis() + 60_000;
+		for (int i = 0; i < 101; i++) {
+			cache.put(i, i, expiresAt);
+		}
+
+		assertTrue(cache.size() <= 90, "size after trim was " + cache.size());
+		assertEquals(11L, cache.stats().get("evictions"));
+	}
+
+	@Test
+	void removeIfDropsOnlyMatchingEntries() {
+		ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+		long expiresAt = System.currentTimeMillis() + 60_000;
+		cache.put("t1", "alice", expiresAt);
+		cache.put("t2", "alice", expiresAt);
+		cache.put("t3", "bob", expiresAt);
+
+		assertEquals(2, cache.removeIf((token, user) -> user.equals("alice")));
+		assertNull(cache.get("t1"));
+		assertEquals("bob", cache.get("t3"));
+	}
+
+	@Test
+	void rejectsNonPositiveMaxSize() {
+		assertThrows(IllegalArgumentException.class, () -> new ExpiringCache<String, String>(0));
+	}
+}
@@ -0,0 +1,126 @@
+package com.warehouse.warehousemanager.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongIntHashMapTest {
+
+	private static final int MISSING = Integer.MIN_VALUE;
+
+	@Test
+	void putGetAddToAndRemove() {
+		LongIntHashMap map = new LongIntHashMap(4);
+
+		map.put(7L, 3);
+		assertEquals(3, map.get(7L, MISSING));
+		assertEquals(8, map.addTo(7L, 5));
+		assertEquals(-2, map.addTo(-1L, -2));
+		assertEquals(MISSING, map.get(8L, MISSING));
+		assertEquals(2, map.size());
+
+		assertTrue(map.remove(7L));
+		assertFalse(map.remove(7L));
+		assertFalse(map.containsKey(7L));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	void matchesHashMapUnderRandomChurn() {
+		// Small key range forces long probe chains, resizes and many backward-shift deletions
+		LongIntHashMap map = new LongIntHashMap(16);
+		Map<Long, Integer> expected = new HashMap<>();
+		Random random = new Random(42);
+		for (int i = 0; i < 200_000; i++) {
+			long key = random.nextInt(2_000) * 1_024L;
+			switch (random.nextInt(3)) {
+				case 0 -> {
+					int value = random.nextInt();
+					map.put(key, value);
+					expected.put(key, value);
+				}
+				case 1 -> assertEquals(expected.remove(key) != null, map.remove(key));
+				default -> assertEquals(expected.merge(key, 1, Integer::sum).intValue(), map.addTo(key, 1));
+			}
+			assertEquals(expected.getOrDefault(key, MISSING).intValue(), map.get(key, MISSING));
+		}
+
+		assertEquals(expected.size(), map.size());
+		expected.forEach((key, value) -> assertEquals(value.intValue(), map.get(key, MISSING)));
+		Set<Long> keys = new HashSet<>();
+		map.forEachKey(keys::add);
+		assertEquals(expected.keySet(), keys);
+	}
+
+	@Test
+	void clearEmptiesTheMap() {
+		LongIntHashMap map = new LongIntHashMap(16);
+		for (long key = 0; key < 100; key++) {
+			map.put(key, 1);
+		}
+		map.clear();
+
+		assertEquals(0, map.size());
+		assertEquals(MISSING, map.get(5L, MISSING));
+	}
+
+	@Test
+	void optimisticReadersNeverSeeAMovedEntryAsMissing() throws InterruptedException {
+		LongIntHashMap map = new LongIntHashMap(16);
+		for (long key = 0; key < 1_000; key++) {
+			map.put(key, (int) key * 2);
+		}
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicReference<String> failure = new AtomicReference<>();
+
+		// Churning other keys resizes the table and shifts stable entries back on delete
+		Thread writer = new Thread(() -> {
+			Random random = new Random(7);
+			while (running.get()) {
+				long key = 1_000 + random.nextInt(50_000);
+				if (random.nextBoolean()) {
+					map.put(key, -1);
+				} else {
+					map.remove(key);
+				}
+			}
+		});
+		Thread[] readers = new Thread[4];
+		for (int r = 0; r < readers.length; r++) {
+			readers[r] = new Thread(() -> {
+				while (running.get()) {
+					for (long key = 0; key < 1_000; key++) {
+						int value = map.get(key, MISSING);
+						if (value != (int) key * 2) {
+							failure.compareAndSet(null, "key " + key + " read as " + value);
+						}
+					}
+				}
+			});
+		}
+
+		writer.start();
+		for (Thread reader : readers) {
+			reader.start();
+		}
+		Thread.sleep(500);
+		running.set(false);
+		writer.join();
+		for (Thread reader : readers) {
+			reader.join();
+		}
+
+		assertNull(failure.get());
+	}
+}
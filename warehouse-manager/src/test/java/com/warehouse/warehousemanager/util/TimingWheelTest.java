@@ -0,0 +1,83 @@
+package com.warehouse.warehousemanager.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+	private static final long TICK_MS = 1000;
+	private static final int BUCKETS = 8;
+
+	@Test
+	void deadlineInsideATickFiresOnTheNextTick() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, BUCKETS);
+		long base = futureTickStart(2);
+		List<String> expired = new ArrayList<>();
+		wheel.schedule("mid-tick", base + 300);
+
+		// The tick containing the deadline is visited before the deadline itself
+		assertEquals(0, wheel.advance(base + 100, expired::add));
+		assertEquals(1, wheel.advance(base + TICK_MS, expired::add));
+		assertEquals(List.of("mid-tick"), expired);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void deadlineOnATickBoundaryFiresOnThatTick() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, BUCKETS);
+		long base = futureTickStart(2);
+		List<String> expired = new ArrayList<>();
+		wheel.schedule("boundary", base);
+
+		assertEquals(0, wheel.advance(base - 1, expired::add));
+		assertEquals(1, wheel.advance(base, expired::add));
+		assertEquals(List.of("boundary"), expired);
+	}
+
+	@Test
+	void pastDeadlineFiresOnTheNextAdvance() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, BUCKETS);
+		List<String> expired = new ArrayList<>();
+		wheel.schedule("late", System.currentTimeMillis() - 10 * TICK_MS);
+
+		assertEquals(1, wheel.advance(System.currentTimeMillis() + TICK_MS, expired::add));
+		assertEquals(List.of("late"), expired);
+	}
+
+	@Test
+	void deadlineMoreThanOneTurnAwayWaitsForItsRound() {
+		TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, BUCKETS);
+		long base = futureTickStart(2);
+		List<String> expired = new ArrayList<>();
+		long deadline = base + (BUCKETS + 1) * TICK_MS;
+		wheel.schedule("far", deadline);
+
+		// First pass over the bucket happens one turn too early
+		for (long now = base; now < deadline; now += TICK_MS) {
+			wheel.advance(now, expired::add);
+		}
+		assertTrue(expired.isEmpty());
+		assertEquals(1, wheel.advance(deadline, expired::add));
+	}
+
+	@Test
+	void longPauseVisitsEveryBucketOnce() {
+		TimingWheel<Integer> wheel = new TimingWheel<>(TICK_MS, BUCKETS);
+		long base = futureTickStart(2);
+		for (int i = 0; i < BUCKETS; i++) {
+			wheel.schedule(i, base + i * TICK_MS + 1);
+		}
+
+		assertEquals(BUCKETS, wheel.advance(base + 100 * TICK_MS, key -> { }));
+		assertEquals(0, wheel.size());
+	}
+
+	private static long futureTickStart(int ticksAhead) {
+		return (System.currentTimeMillis() / TICK_MS + ticksAhead) * TICK_MS;
+	}
+}
@@ -1,11 +1,29 @@
 package com.zta.warehouse;
 
+import com.warehouse.warehousemanager.WarehouseManagerApplication;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
-@SpringBootTest
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Lives outside the application's package, so the configuration is not found by scanning upwards
+@SpringBootTest(classes = WarehouseManagerApplication.class)
 class WarehouseManagerApplicationTests {
 
+	// Not the checked-in warehouse.db
+	@DynamicPropertySource
+	static void isolatedDatabase(DynamicPropertyRegistry registry) throws IOException {
+		Path database = Files.createTempFile("context-", ".db");
+		database.toFile().deleteOnExit();
+		registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + database + "?journal_mode=WAL&busy_timeout=30000");
+		registry.add("spring.jpa.show-sql", () -> "false");
+		registry.add("app.teleportJwksLocation", () -> "");
+	}
+
 	@Test
 	void contextLoads() {
 	}